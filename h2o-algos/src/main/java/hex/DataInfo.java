@@ -1006,6 +1006,91 @@ public class DataInfo extends Keyed<DataInfo> {
       row.offset = chunks[offsetChunkId()].atd(rid);
     return row;
   }
+  /**
+   * Bulk version of {@link #extractDenseRow}: extracts rows [from,to) into
+   * rows[0..to-from), a column at a time through the Chunk bulk getters.
+   * Unlike the single-row version, rows with zero weight or a missing
+   * predictor are still filled in; callers skip them the same way.
+   * @param dbuf, ibuf, nabuf scratch buffers of at least to-from entries
+   */
+  public final Row[] extractDenseRows(Chunk[] chunks, int from, int to, Row[] rows, double[] dbuf, int[] ibuf, boolean[] nabuf) {
+    final int n = to - from;
+    final long start = chunks[0].start();
+    for (int r = 0; r < n; ++r) {
+      Row row = rows[r];
+      row.predictors_bad = false;
+      row.response_bad = false;
+      row.rid = from + r + start;
+      row.cid = from + r;
+      row.nBins = 0;
+    }
+    if (_weights) {
+      chunks[weightChunkId()].getDoubles(dbuf, from, to);
+      for (int r = 0; r < n; ++r) rows[r].weight = dbuf[r];
+    }
+    if (_skipMissing) {
+      for (int i = 0; i < _cats + _nums; ++i) {
+        chunks[i].getNAs(nabuf, from, to);
+        for (int r = 0; r < n; ++r) if (nabuf[r]) rows[r].predictors_bad = true;
+      }
+    }
+    for (int i = 0; i < _cats; ++i) {
+      chunks[i].getIntegers(ibuf, from, to, _catNAFill[i]);
+      for (int r = 0; r < n; ++r) {
+        int cid = getCategoricalId(i, ibuf[r]);
+        if (cid >= 0) rows[r].binIds[rows[r].nBins++] = cid;
+      }
+    }
+    int numValsIdx = 0;
+    for (int i = 0; i < _nums; ++i) {
+      if (isInteractionVec(_cats + i)) { // Expanded per row, as in extractDenseRow
+        InteractionWrappedVec iwv = (InteractionWrappedVec)_adaptedFrame.vec(_cats+i);
+        int idx = numValsIdx;
+        for (int r = 0; r < n; ++r) {
+          int interactionOffset = getInteractionOffset(chunks, _cats + i, from + r);
+          idx = numValsIdx;
+          for (int offset = 0; offset < iwv.expandedLength(); ++offset) {
+            if (i < _intLvls.length && _intLvls[i] != null && Arrays.binarySearch(_intLvls[i], offset) < 0) continue;
+            double d = 0;
+            if (offset == interactionOffset) d = chunks[_cats + i].atd(from + r);
+            if (Double.isNaN(d))
+              d = _numMeans[idx];
+            if (_normMul != null && _normSub != null)
+              d = (d - _normSub[idx]) * _normMul[idx];
+            rows[r].numVals[idx++] = d;
+          }
+        }
+        numValsIdx = idx;
+      } else {
+        chunks[_cats + i].getDoubles(dbuf, from, to);
+        final double mean = _numMeans[numValsIdx];
+        final boolean norm = _normMul != null && _normSub != null;
+        final double sub = norm ? _normSub[numValsIdx] : 0, mul = norm ? _normMul[numValsIdx] : 1;
+        for (int r = 0; r < n; ++r) {
+          double d = dbuf[r];
+          if (Double.isNaN(d)) d = mean;
+          if (norm) d = (d - sub) * mul;
+          rows[r].numVals[numValsIdx] = d;
+        }
+        numValsIdx++;
+      }
+    }
+    for (int i = 0; i < _responses; ++i) {
+      chunks[responseChunkId(i)].getDoubles(dbuf, from, to);
+      for (int r = 0; r < n; ++r) {
+        double d = dbuf[r];
+        if (Double.isNaN(d)) rows[r].response_bad = true;
+        else if (_normRespMul != null) d = (d - _normRespSub[i]) * _normRespMul[i];
+        rows[r].response[i] = d;
+      }
+    }
+    if (_offset) {
+      chunks[offsetChunkId()].getDoubles(dbuf, from, to);
+      for (int r = 0; r < n; ++r) rows[r].offset = dbuf[r];
+    }
+    return rows;
+  }
+
   public int getInteractionOffset(Chunk[] chunks, int cid, int rid) {
     boolean useAllFactors = ((InteractionWrappedVec)chunks[cid].vec())._useAllFactorLevels;
     InteractionWrappedVec.InteractionWrappedChunk c = (InteractionWrappedVec.InteractionWrappedChunk)chunks[cid];
@@ -1020,28 +1105,47 @@ public class DataInfo extends Keyed<DataInfo> {
     return new Row(false, numVals, null, null, 0, start);
   }
 
+  /** Rows of a set of Chunks.  Sparse rows are all extracted up front; dense
+   *  rows are extracted in bulk, a window of (by default) BATCH rows at a time. */
   public final class Rows {
+    public static final int BATCH = 256;
     public final int _nrows;
-    private final Row _denseRow;
+    private final Row [] _denseRows;
     private final Row [] _sparseRows;
     public final boolean _sparse;
     private final Chunk [] _chks;
+    private double [] _dbuf;
+    private int [] _ibuf;
+    private boolean [] _nabuf;
+    private int _lo, _hi;       // Window of extracted dense rows
 
-    private Rows(Chunk [] chks, boolean sparse) {
+    private Rows(Chunk [] chks, boolean sparse, int batch) {
       _nrows = chks[0]._len;
       _sparse = sparse;
-      long start = chks[0].start();
       if(sparse) {
-        _denseRow = null;
+        _denseRows = null;
         _chks = null;
         _sparseRows = extractSparseRows(chks);
       } else {
-        _denseRow = DataInfo.this.newDenseRow();
+        int n = Math.min(batch,_nrows);
+        _denseRows = new Row[n];
+        for(int i = 0; i < n; ++i) _denseRows[i] = DataInfo.this.newDenseRow();
+        _dbuf = MemoryManager.malloc8d(n);
+        _ibuf = MemoryManager.malloc4(n);
+        _nabuf = MemoryManager.mallocZ(n);
         _chks = chks;
         _sparseRows = null;
       }
     }
-    public Row row(int i) {return _sparse?_sparseRows[i]:extractDenseRow(_chks,i,_denseRow);}
+    public Row row(int i) {
+      if(_sparse) return _sparseRows[i];
+      if(i < _lo || i >= _hi) {
+        _lo = Math.min(i, _nrows - _denseRows.length); // Full window, so a whole-chunk one is extracted once
+        _hi = _lo + _denseRows.length;
+        extractDenseRows(_chks,_lo,_hi,_denseRows,_dbuf,_ibuf,_nabuf);
+      }
+      return _denseRows[i-_lo];
+    }
   }
 
   public Rows rows(Chunk [] chks) {
@@ -1051,7 +1155,10 @@ public class DataInfo extends Keyed<DataInfo> {
         ++cnt;
     return rows(chks,cnt > (chks.length >> 1));
   }
-  public Rows rows(Chunk [] chks, boolean sparse) {return new Rows(chks,sparse);}
+  public Rows rows(Chunk [] chks, boolean sparse) {return new Rows(chks,sparse,Rows.BATCH);}
+  /** Rows with a window of batch dense rows; a batch of the chunk length
+   *  extracts all of them at once, for random access. */
+  public Rows rows(Chunk [] chks, boolean sparse, int batch) {return new Rows(chks,sparse,batch);}
 
   /**
    * Extract (sparse) rows from given chunks.
@@ -21,6 +21,7 @@ public abstract class FrameTask<T extends FrameTask<T>> extends MRTask<T>{
   private final long _seed;
   protected boolean _shuffle = false;
   private final int _iteration;
+  private static final int MAX_BULK_VALUES = 1 << 20; // Dense values of a chunk extracted at once for sampling
 
   public FrameTask(Key<Job> jobKey, DataInfo dinfo) {
     this(jobKey, dinfo, 0xDECAFBEE, -1, false);
@@ -113,21 +114,21 @@ public abstract class FrameTask<T extends FrameTask<T>> extends MRTask<T>{
 
     DataInfo.Row row = null;
     DataInfo.Row[] rows = null;
+    DataInfo.Rows denseRows = null;
     if (_sparse)
       rows = _dinfo.extractSparseRows(chunks);
-    else
-      row = _dinfo.newDenseRow();
     double[] weight_map = null;
     double relative_chunk_weight = 1;
     //TODO: store node-local helper arrays in _dinfo -> avoid re-allocation and construction
     if (obs_weights) {
-      weight_map = new double[nrows];
+      // Decode the weights in bulk and prefix-sum them in place
+      weight_map = chunks[_dinfo.weightChunkId()].getDoubles(new double[nrows], 0, nrows);
       double weight_sum = 0;
       for (int i = 0; i < nrows; ++i) {
-        row = _sparse ? rows[i] : _dinfo.extractDenseRow(chunks, i, row);
-        weight_sum += row.weight;
+        double w = weight_map[i];
+        weight_sum += w;
         weight_map[i] = weight_sum;
-        assert (i == 0 || row.weight == 0 || weight_map[i] > weight_map[i - 1]);
+        assert (i == 0 || w == 0 || weight_map[i] > weight_map[i - 1]);
       }
       if (weight_sum > 0) {
         ArrayUtils.div(weight_map, weight_sum); //normalize to 0...1
@@ -146,6 +147,14 @@ public abstract class FrameTask<T extends FrameTask<T>> extends MRTask<T>{
     assert (fraction <= 1.0);
 
     final boolean sample = (fraction < 0.999 || obs_weights || _shuffle);
+    if (!_sparse) {
+      // Dense rows are extracted a column at a time: a window at a time for
+      // a linear scan, all at once for sampling in random order - unless
+      // that is too many values to hold, then one row at a time
+      if (!sample) denseRows = _dinfo.rows(chunks, false);
+      else if ((long) nrows * (_dinfo.numNums() + _dinfo._cats) <= MAX_BULK_VALUES) denseRows = _dinfo.rows(chunks, false, nrows);
+      else row = _dinfo.newDenseRow();
+    }
     final long chunkSeed = (0x8734093502429734L + _seed + offset) * (_iteration + 0x9823423497823423L);
     final Random skip_rng = sample ? RandomUtils.getRNG(chunkSeed) : null;
     int[] shufIdx = skip_rng == null ? null : new int[nrows];
@@ -187,7 +196,7 @@ public abstract class FrameTask<T extends FrameTask<T>> extends MRTask<T>{
         }
         assert(r >= 0 && r<=nrows);
 
-        row = _sparse ? rows[r] : _dinfo.extractDenseRow(chunks, r, row);
+        row = _sparse ? rows[r] : denseRows != null ? denseRows.row(r) : _dinfo.extractDenseRow(chunks, r, row);
         if(row.isBad() || row.weight == 0) {
           num_skipped_rows++;
           continue;
@@ -61,9 +61,9 @@ public abstract class FrameTask2<T extends FrameTask2<T>> extends MRTask<T> {
           processRow(r);
       }
     } else {
-      Row row = _dinfo.newDenseRow();
-      for(int r = 0 ; r < chks[0]._len; ++r) {
-        _dinfo.extractDenseRow(chks, r, row);
+      DataInfo.Rows rows = _dinfo.rows(chks,false); // Extracted a column at a time, a window of rows at once
+      for(int r = 0 ; r < rows._nrows; ++r) {
+        Row row = rows.row(r);
         if(!row.isBad() && row.weight != 0)
           processRow(row);
       }
@@ -1265,10 +1265,7 @@ public abstract class GLMTask  {
     int _c = -1;
 
     public  GLMIterationTask(Key jobKey, DataInfo dinfo, GLMWeightsFun glmw,double [] beta) {
-      super(null,dinfo,jobKey);
-      _beta = beta;
-      _ymu = null;
-      _glmf = glmw;
+      this(jobKey,dinfo,glmw,beta,-1);
     }
 
     public  GLMIterationTask(Key jobKey, DataInfo dinfo, GLMWeightsFun glmw, double [] beta, int c) {
@@ -1277,6 +1274,7 @@ public abstract class GLMTask  {
       _ymu = null;
       _glmf = glmw;
       _c = c;
+      if( H2O.CLOUD.size() >= 4 ) withReduceScatter(); // Spread the Gram reduction over the cloud; only the caller solves with it
     }
 
     @Override public boolean handlesSparseData(){return true;}
@@ -1284,7 +1282,7 @@ public abstract class GLMTask  {
     transient private double _sparseOffset;
     @Override
     public void chunkInit() {
-      // initialize
+      if(_gram != null) return; // Already accumulating for this thread
       _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
       _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
       if(_sparse)
@@ -1330,13 +1328,37 @@ public abstract class GLMTask  {
       _gram.addRow(r,w);
     }
 
+    // The Gram rows, diagonal and xy are streamed back from remote nodes
+    @Override protected double[][] streamedSums() {
+      if(_gram == null) return null;
+      double[][] sums = Arrays.copyOf(_gram._xx, _gram._xx.length + 2);
+      sums[sums.length - 2] = _gram._diag;
+      sums[sums.length - 1] = _xy;
+      return sums;
+    }
+    @Override protected void streamedSums(double[][] sums) {
+      if(sums == null) {
+        _gram._xx = null;
+        _gram._diag = null;
+        _xy = null;
+      } else {
+        _gram._xx = Arrays.copyOf(sums, sums.length - 2);
+        _gram._diag = sums[sums.length - 2];
+        _xy = sums[sums.length - 1];
+      }
+    }
+
+    // The sparse centering adjustment is linear in the Gram, so it is done
+    // once on the reduced result rather than once per chunk
     @Override
-    public void chunkDone(){adjustForSparseStandardizedZeros();}
+    public void postGlobal(){ if(_gram != null) adjustForSparseStandardizedZeros(); }
 
     @Override
     public void reduce(GLMIterationTask git){
-      ArrayUtils.add(_xy, git._xy);
-      _gram.add(git._gram);
+      if(git._xy != null) { // Else already streamed in
+        ArrayUtils.add(_xy, git._xy);
+        _gram.add(git._gram);
+      }
       _nobs += git._nobs;
       wsum += git.wsum;
       wsumu += git.wsumu;
@@ -1518,20 +1540,31 @@ public abstract class GLMTask  {
       // For each observation, add corresponding term to temp - or if categorical variable only add the term corresponding to its active level and the active level
       // of the most recently updated variable before it (if also cat). If for an obs the active level corresponds to an inactive column, we just dont want to include
       // it - same if inactive level in most recently updated var. so set these to zero ( Wont be updating a betaj which is inactive) .
-      for (int i = 0; i < chunks[0]._len; ++i) { // going over all the rows in the chunk
+      // Decode the columns in bulk; categoricals are read as integers (NAs
+      // become -1, an inactive level)
+      final int len = chunks[0]._len;
+      double [] ws = wChunk.getDoubles(MemoryManager.malloc8d(len),0,len);
+      double [] zs = zChunk.getDoubles(MemoryManager.malloc8d(len),0,len);
+      double [] zts = ztildaChunk.getDoubles(MemoryManager.malloc8d(len),0,len);
+      boolean xCat = _cat_num == 1 || _cat_num == 4, xpCat = _cat_num == 1 || _cat_num == 2;
+      int [] xis = xCat ? xChunk.getIntegers(MemoryManager.malloc4(len),0,len,-1) : null;
+      int [] xpis = xpCat ? xpChunk.getIntegers(MemoryManager.malloc4(len),0,len,-1) : null;
+      double [] xs = _cat_num == 2 || _cat_num == 3 ? xChunk.getDoubles(MemoryManager.malloc8d(len),0,len) : null;
+      double [] xps = _cat_num == 3 || _cat_num == 4 ? xpChunk.getDoubles(MemoryManager.malloc8d(len),0,len) : null;
+      for (int i = 0; i < len; ++i) { // going over all the rows in the chunk
         double betanew = 0; // most recently updated prev variable
         double betaold = 0; // old value of current variable being updated
-        double w = wChunk.atd(i);
+        double w = ws[i];
         if(w == 0) continue;
         ++_nobs;
         int observation_level = 0, observation_level_p = 0;
         double val = 1, valp = 1;
         if(_cat_num == 1) {
-          observation_level = (int) xChunk.at8(i); // only need to change one temp value per observation.
+          observation_level = xis[i]; // only need to change one temp value per observation.
           if (_catLvls_old != null)
             observation_level = Arrays.binarySearch(_catLvls_old, observation_level);
 
-          observation_level_p = (int) xpChunk.at8(i); // both cat
+          observation_level_p = xpis[i]; // both cat
           if (_catLvls_new != null)
             observation_level_p = Arrays.binarySearch(_catLvls_new, observation_level_p);
 
@@ -1541,11 +1574,11 @@ public abstract class GLMTask  {
           }
         }
         else if(_cat_num == 2){
-          val = xChunk.atd(i); // current num and previous cat
+          val = xs[i]; // current num and previous cat
           if (_normMulold != null && _normSubold != null)
             val = (val - _normSubold[0]) * _normMulold[0];
 
-          observation_level_p = (int) xpChunk.at8(i);
+          observation_level_p = xpis[i];
           if (_catLvls_new != null)
             observation_level_p = Arrays.binarySearch(_catLvls_new, observation_level_p);
 
@@ -1554,22 +1587,22 @@ public abstract class GLMTask  {
           }
         }
         else if(_cat_num == 3){
-          val = xChunk.atd(i); // both num
+          val = xs[i]; // both num
           if (_normMulold != null && _normSubold != null)
             val = (val - _normSubold[0]) * _normMulold[0];
-          valp = xpChunk.atd(i);
+          valp = xps[i];
           if (_normMulnew != null && _normSubnew != null)
             valp = (valp - _normSubnew[0]) * _normMulnew[0];
         }
         else if(_cat_num == 4){
-          observation_level = (int) xChunk.at8(i); // current cat
+          observation_level = xis[i]; // current cat
           if (_catLvls_old != null)
             observation_level = Arrays.binarySearch(_catLvls_old, observation_level); // search to see if this level is active.
           if(_skipFirst){
             observation_level--;
           }
 
-          valp = xpChunk.atd(i); //prev numeric
+          valp = xps[i]; //prev numeric
           if (_normMulnew != null && _normSubnew != null)
             valp = (valp - _normSubnew[0]) * _normMulnew[0];
         }
@@ -1580,12 +1613,14 @@ public abstract class GLMTask  {
          betanew = _betanew[observation_level_p];
 
         if (_interceptnew) {
-            ztildaChunk.set(i, ztildaChunk.atd(i) - betaold + valp * betanew); //
-            _temp[0] += w * (zChunk.atd(i) - ztildaChunk.atd(i));
+            double zt = zts[i] - betaold + valp * betanew;
+            ztildaChunk.set(i, zt); //
+            _temp[0] += w * (zs[i] - zt);
           } else {
-            ztildaChunk.set(i, ztildaChunk.atd(i) - val * betaold + valp * betanew);
+            double zt = zts[i] - val * betaold + valp * betanew;
+            ztildaChunk.set(i, zt);
             if(observation_level >=0 ) // if the active level for that observation is an "inactive column" don't want to add contribution to temp for that observation
-            _temp[observation_level] += w * val * (zChunk.atd(i) - ztildaChunk.atd(i));
+            _temp[observation_level] += w * val * (zs[i] - zt);
          }
 
        }
@@ -1618,11 +1653,15 @@ public abstract class GLMTask  {
       Chunk wChunk = chunks[cnt++];
       Chunk zChunk = chunks[cnt++];
       Chunk filterChunk = chunks[cnt++];
-      Row r = _dinfo.newDenseRow();
-      for(int i = 0; i < chunks[0]._len; ++i) {
-        if(filterChunk.atd(i)==1) continue;
-        _dinfo.extractDenseRow(chunks,i,r);
-        _temp = wChunk.at8(i)* (zChunk.atd(i)- r.innerProduct(_betaold) );
+      final int len = chunks[0]._len;
+      double [] fs = filterChunk.getDoubles(MemoryManager.malloc8d(len),0,len);
+      double [] ws = wChunk.getDoubles(MemoryManager.malloc8d(len),0,len);
+      double [] zs = zChunk.getDoubles(MemoryManager.malloc8d(len),0,len);
+      DataInfo.Rows rows = _dinfo.rows(chunks,false);
+      for(int i = 0; i < len; ++i) {
+        if(fs[i]==1) continue;
+        Row r = rows.row(i);
+        _temp = (long)ws[i]* (zs[i]- r.innerProduct(_betaold) );
       }
 
     }
@@ -1658,9 +1697,9 @@ public abstract class GLMTask  {
       chunks = Arrays.copyOf(chunks,chunks.length-3);
       denums = new double[_dinfo.fullN()+1]; // full N is expanded variables with categories
 
-      Row r = _dinfo.newDenseRow();
+      DataInfo.Rows rows = _dinfo.rows(chunks,false);
       for(int i = 0; i < chunks[0]._len; ++i) {
-        _dinfo.extractDenseRow(chunks,i,r);
+        Row r = rows.row(i);
         if (r.isBad() || r.weight == 0) {
           wChunk.set(i,0);
           zChunk.set(i,0);
@@ -216,8 +216,9 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
         model._output._totss = model._output._tot_withinss;
       }
       else {
-        // If data already standardized, grand mean is just the origin
-        TotSS totss = new TotSS(means,mults,modes, train().domains(), train().cardinality()).doAll(vecs);
+        // If data already standardized, grand mean is just the origin.
+        // A read-only sum, so idle nodes may help slow ones through it
+        TotSS totss = new TotSS(means,mults,modes, train().domains(), train().cardinality()).withWorkStealing().doAll(vecs);
         model._output._totss = totss._tss;
       }
       model._output._betweenss = model._output._totss - model._output._tot_withinss;  // MSE between-cluster
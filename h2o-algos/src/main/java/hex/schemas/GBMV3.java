@@ -32,6 +32,7 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "max_hit_ratio_k",
       "ntrees",
       "max_depth",
+      "max_leaves",
       "min_rows",
       "nbins",
       "nbins_top_level",
@@ -55,8 +56,13 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
       "col_sample_rate",
       "col_sample_rate_change_per_level",
       "col_sample_rate_per_tree",
+      "goss_top_rate",
+      "goss_other_rate",
       "min_split_improvement",
       "histogram_type",
+      "histogram_subtraction",
+      "prebin",
+      "bundle_sparse",
       "max_abs_leafnode_pred",
       "pred_noise_bandwidth",
       "categorical_encoding",
@@ -74,9 +80,18 @@ public class GBMV3 extends SharedTreeV3<GBM,GBMV3,GBMV3.GBMParametersV3> {
     @API(help="Scale the learning rate by this factor after each tree (e.g., 0.99 or 0.999) ", level = API.Level.secondary, gridable = true)
     public double learn_rate_annealing;
 
+    @API(help="If > 0, grow each tree best-first: repeatedly split the leaves with the largest error reduction until the tree has this many leaves (max_depth still applies). 0 grows level by level.", level = API.Level.secondary, gridable = true)
+    public int max_leaves;
+
     @API(help="Column sample rate (from 0.0 to 1.0)", level = API.Level.critical, gridable = true)
     public double col_sample_rate;
 
+    @API(help="Gradient-based one-side sampling: fraction of rows with the largest absolute residuals that every tree keeps (from 0.0 to 1.0). 0 disables it.", level = API.Level.secondary, gridable = true)
+    public double goss_top_rate;
+
+    @API(help="Gradient-based one-side sampling: fraction of all rows sampled from the remaining small-residual rows, which are up-weighted to compensate (from 0.0 to 1.0)", level = API.Level.secondary, gridable = true)
+    public double goss_other_rate;
+
     @API(help="Maximum absolute value of a leaf node prediction", level = API.Level.expert, gridable = true)
     public double max_abs_leafnode_pred;
 
@@ -90,5 +90,14 @@ public class SharedTreeV3<B extends SharedTree, S extends SharedTreeV3<B,S,P>, P
 
     @API(help="What type of histogram to use for finding optimal split points", values = { "AUTO", "UniformAdaptive", "Random", "QuantilesGlobal", "RoundRobin"}, level = API.Level.secondary, gridable = true)
     public SharedTreeParameters.HistogramType histogram_type;
+
+    @API(help="Quantize predictor columns once per model into global quantile bin indices, which every histogram pass reads instead of the raw values. Requires histogram_type QuantilesGlobal.", level = API.Level.expert, gridable = true)
+    public boolean prebin;
+
+    @API(help="Bundle sparse integer columns that are (almost) never non-zero in the same row, such as one-hot encodings, and build their histograms in one pass per bundle instead of one per column.", level = API.Level.expert, gridable = true)
+    public boolean bundle_sparse;
+
+    @API(help="Build only the smaller child of each split and derive its sibling's histograms by subtracting from the parent's. Children keep the parent's bins instead of re-binning, so consider lowering nbins_top_level.", level = API.Level.expert, gridable = true)
+    public boolean histogram_subtraction;
   }
 }
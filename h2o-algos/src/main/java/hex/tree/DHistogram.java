@@ -90,6 +90,8 @@ public final class DHistogram extends Iced {
   public final long _seed;
   public transient boolean _hasQuantiles;
   public Key _globalQuantilesKey; //key under which original top-level quantiles are stored;
+  public boolean _prebinned; // Bins must stay whole global quantile bins, so rows can be histogramed from their PrebinTask index
+  public transient int _globalOffset = -1; // Index of our first bin amongst the global quantile bins, or -1 if not aligned to them
 
 
 
@@ -235,6 +237,7 @@ public final class DHistogram extends Iced {
   public void init() { init(null);}
   public void init(double [] vals) {
     assert _vals == null;
+    _globalOffset = -1;
     if (_histoType==SharedTreeModel.SharedTreeParameters.HistogramType.Random) {
       // every node makes the same split points
       Random rng = RandomUtils.getRNG((Double.doubleToRawLongBits(((_step+0.324)*_min+8.3425)+89.342*_maxEx) + 0xDECAF*_nbin + 0xC0FFEE*_isInt + _seed));
@@ -255,7 +258,7 @@ public final class DHistogram extends Iced {
           if (_splitPts!=null) {
 //            Log.info("Obtaining global splitPoints: " + Arrays.toString(_splitPts));
             _splitPts = ArrayUtils.limitToRange(_splitPts, _min, _maxEx);
-            if (_splitPts.length > 1 && _splitPts.length < _nbin)
+            if (_splitPts.length > 1 && _splitPts.length < _nbin && !_prebinned)
               _splitPts = ArrayUtils.padUniformly(_splitPts, _nbin);
             if (_splitPts.length <= 1) {
               _splitPts = null; //abort, fall back to uniform binning
@@ -264,6 +267,8 @@ public final class DHistogram extends Iced {
             else {
               _hasQuantiles=true;
               _nbin = (char)_splitPts.length;
+              if (_prebinned) // limitToRange keeps a contiguous run of the global split points
+                _globalOffset = Arrays.binarySearch(hq.splitPts, _splitPts[0]);
 //              Log.info("Refined splitPoints: " + Arrays.toString(_splitPts));
             }
           }
@@ -309,6 +314,45 @@ public final class DHistogram extends Iced {
     if (_maxIn < dsh._maxIn) _maxIn = dsh._maxIn;
   }
 
+  // An unpopulated histogram binned exactly like this one (same range, bins
+  // and split points), so the two can be added or subtracted bin by bin.
+  public DHistogram emptyCopy() {
+    DHistogram h = (DHistogram) clone();
+    h._vals = null;
+    h._splitPts = null;         // Recomputed identically by init()
+    h._hasQuantiles = false;
+    h._globalOffset = -1;
+    h._min2 = Double.MAX_VALUE;
+    h._maxIn= -Double.MAX_VALUE;
+    return h;
+  }
+
+  public boolean sameLayout( DHistogram h ) {
+    return _isInt == h._isInt && _nbin == h._nbin && _step == h._step && _min == h._min && _maxEx == h._maxEx &&
+      _histoType == h._histoType && _seed == h._seed;
+  }
+
+  // Histogram subtraction: fill this (unpopulated) histogram with the parent's
+  // bins minus the sibling's, NA bucket included.  The sibling saw exactly the
+  // parent's rows which did not land here.  Bins the sibling took entirely are
+  // cleared rather than left holding roundoff.  Observed min/max are not known
+  // for this side of the split, so the parent's are kept as conservative bounds.
+  public void subtract( DHistogram parent, DHistogram sibling ) {
+    assert _vals == null && sameLayout(parent) && sameLayout(sibling);
+    double[] p = parent._vals, s = sibling._vals;
+    double[] vals = MemoryManager.malloc8d(p.length);
+    for( int i = 0; i < p.length; i += 3 ) {
+      double w = p[i] - (s == null ? 0 : s[i]);
+      if( w <= 1e-6*p[i] ) continue; // Empty here
+      vals[i  ] = w;
+      vals[i+1] = p[i+1] - (s == null ? 0 : s[i+1]);
+      vals[i+2] = Math.max(0, p[i+2] - (s == null ? 0 : s[i+2]));
+    }
+    init(vals);
+    _min2 = parent._min2;
+    _maxIn= parent._maxIn;
+  }
+
   // Inclusive min & max
   public double find_min  () { return _min2 ; }
   public double find_maxIn() { return _maxIn; }
@@ -345,7 +389,9 @@ public final class DHistogram extends Iced {
 
 
   public static DHistogram make(String name, final int nbins, byte isInt, double min, double maxEx, long seed, SharedTreeModel.SharedTreeParameters parms, Key globalQuantilesKey) {
-    return new DHistogram(name,nbins, parms._nbins_cats, isInt, min, maxEx, parms._min_split_improvement, parms._histogram_type, seed, globalQuantilesKey);
+    DHistogram h = new DHistogram(name,nbins, parms._nbins_cats, isInt, min, maxEx, parms._min_split_improvement, parms._histogram_type, seed, globalQuantilesKey);
+    h._prebinned = parms._prebin;
+    return h;
   }
 
   // Pretty-print a histogram
@@ -658,6 +704,80 @@ public final class DHistogram extends Iced {
     }
   }
 
+  /**
+   * Same as updateHisto, but reads the global quantile bin of each row from a
+   * pre-binned column (see PrebinTask, -1 for NA) instead of binning the raw
+   * value.  Only valid once init() aligned this histogram with the global bins.
+   * The raw values are not at hand, so the observed min/max are the edges of
+   * the outermost bins hit.
+   */
+  public void updateHistoBinned(double[] ws, int[] bs, double[] ys, int [] rows, int hi, int lo){
+    assert _globalOffset >= 0;
+    int bmin = _nbin, bmax = -1;
+    for(int r = lo; r< hi; ++r) {
+      int k = rows[r];
+      double weight = ws[k];
+      if (weight == 0) continue;
+      int b = bs[k];
+      if (b == -1) b = _nbin;   // NA bucket
+      else {
+        b -= _globalOffset;
+        if (b < 0) b = 0;       // Infinities binned globally, outside our range
+        else if (b >= _nbin) b = _nbin-1;
+        if (b < bmin) bmin = b;
+        if (b > bmax) bmax = b;
+      }
+      double y = ys[k];
+      assert (!Double.isNaN(y));
+      double wy = weight * y;
+      double wyy = wy * y;
+      _vals[3*b + 0] += weight;
+      _vals[3*b + 1] += wy;
+      _vals[3*b + 2] += wyy;
+    }
+    if (bmax == -1) return;
+    double min = Math.max(_min, _isInt > 0 ? Math.ceil(_splitPts[bmin]) : _splitPts[bmin]);
+    double maxEx = bmax+1 < _nbin ? _splitPts[bmax+1] : _maxEx;
+    double maxIn = Math.max(min, _isInt > 0 ? Math.ceil(maxEx)-1 : Math.nextAfter(maxEx, Double.NEGATIVE_INFINITY));
+    if (min < _min2) _min2 = min;
+    if (maxIn > _maxIn) _maxIn = maxIn;
+  }
+
+  /**
+   * Fill this histogram from the combined histogram of a feature bundle (see
+   * FeatureBundles): slots [off, off+n) of vals hold this column's rows by
+   * value (min, min+1, ...), the last slot the totals over all rows of the
+   * leaf.  Zeros are not stored, so they get the totals minus the other values.
+   * Values outside our range (conflicting rows of the bundle, histogramed as
+   * zeros) go to the outermost bins.
+   */
+  public void updateHistoBundled(double[] vals, int off, int n, long min){
+    int t = vals.length - 3;
+    double w0 = vals[t], wy0 = vals[t+1], wyy0 = vals[t+2];
+    for (int i = 0; i < n; i++) {
+      int s = 3*(off + i);
+      if (vals[s] == 0 || min + i == 0) continue;
+      addValue(min + i, vals[s], vals[s+1], vals[s+2]);
+      w0 -= vals[s]; wy0 -= vals[s+1]; wyy0 -= vals[s+2];
+    }
+    if (w0 > 1e-6*vals[t])
+      addValue(0, w0, wy0, Math.max(0, wyy0));
+  }
+
+  private void addValue(double v, double w, double wy, double wyy) {
+    int b;
+    if (v < _min) b = 0;
+    else if (v >= _maxEx) b = _nbin-1;
+    else {
+      b = bin(v);
+      if (v < _min2) _min2 = v;
+      if (v > _maxIn) _maxIn = v;
+    }
+    _vals[3*b + 0] += w;
+    _vals[3*b + 1] += wy;
+    _vals[3*b + 2] += wyy;
+  }
+
   /**
    * Cast bin values *except for sums of weights and Na-bucket counters to floats to drop least significant bits.
    * Improves reproducibility (drop bits most affected by floating point error).
@@ -92,6 +92,13 @@ public class DTree extends Iced {
 
   public final int len() { return _len; }
 
+  // Number of splits above node i
+  public final int depth( int i ) {
+    int d = 0;
+    for( int pid = node(i)._pid; pid != NO_PARENT; pid = node(pid)._pid ) d++;
+    return d;
+  }
+
   // --------------------------------------------------------------------------
   // Abstract node flavor
   public static abstract class Node extends Iced {
@@ -286,7 +293,9 @@ public class DTree extends Iced {
         if( h._isInt > 0 && !(min+1 < maxEx ) )
           continue; // This column will not split again
         assert min < maxEx && adj_nbins > 1 : ""+min+"<"+maxEx+" nbins="+adj_nbins;
-        nhists[j] = DHistogram.make(h._name, adj_nbins, h._isInt, min, maxEx, h._seed*0xDECAF+(way+1), parms, h._globalQuantilesKey);
+        nhists[j] = parms._histogram_subtraction
+          ? h.emptyCopy() // Keep the parent's bins, so one child can be derived from the parent and its sibling
+          : DHistogram.make(h._name, adj_nbins, h._isInt, min, maxEx, h._seed*0xDECAF+(way+1), parms, h._globalQuantilesKey);
         cnt++;                    // At least some chance of splitting
       }
       return cnt == 0 ? null : nhists;
@@ -313,6 +322,9 @@ public class DTree extends Iced {
   public static class UndecidedNode extends Node {
     public transient DHistogram[] _hs; //(up to) one histogram per column
     public final int _scoreCols[];      // A list of columns to score; could be null for all
+    transient int _sibling = -1;        // Histogram subtraction: nid of the sibling built from the data, or -1
+    transient DHistogram[] _parentHs;   // Histogram subtraction: the parent's histograms
+    transient Split _best;              // Best-first growth: split found while this node waits to be expanded
     public UndecidedNode( DTree tree, int pid, DHistogram[] hs ) {
       super(tree,pid);
       assert hs.length==tree._ncols;
@@ -360,6 +372,36 @@ public class DTree extends Iced {
       return Arrays.copyOfRange(cols, len, choices);
     }
 
+    boolean scores( int col ) { return _scoreCols == null || ArrayUtils.find(_scoreCols, col) >= 0; }
+
+    // Histogram subtraction: columns whose histograms are not accumulated from
+    // this node's rows but derived afterwards (see deriveHistos).  A column
+    // qualifies when the parent and the sibling both build it on the same bins.
+    // Null if none.
+    public int[] derivedCols() {
+      if( _sibling == -1 || _parentHs == null ) return null;
+      UndecidedNode sib = _tree.undecided(_sibling);
+      int[] cols = new int[_hs.length];
+      int len = 0;
+      for( int c = 0; c < _hs.length; c++ ) {
+        DHistogram p = _parentHs[c];
+        if( _hs[c] == null || !scores(c) || p == null || p._vals == null ) continue;
+        if( sib._hs[c] == null || !sib.scores(c) ) continue;
+        if( _hs[c].sameLayout(p) && sib._hs[c].sameLayout(p) )
+          cols[len++] = c;
+      }
+      return len == 0 ? null : Arrays.copyOf(cols, len);
+    }
+
+    // Fill the derived columns' histograms once the sibling's are complete
+    // (globally reduced), then drop the reference to the parent's.
+    public void deriveHistos( DHistogram[] hs, DHistogram[] sib, int[] cols ) {
+      if( cols != null )
+        for( int c : cols )
+          hs[c].subtract(_parentHs[c], sib[c]);
+      _parentHs = null;
+    }
+
     // Make the parent of this Node use UNINTIALIZED NIDs for its children to prevent the split that this
     // node otherwise induces.  Happens if we find out too-late that we have a
     // perfect prediction here, and we want to turn into a leaf.
@@ -466,7 +508,7 @@ public class DTree extends Iced {
     }
 
     // Pick the best column from the given histograms
-    public Split bestCol( UndecidedNode u, DHistogram hs[], long seed ) {
+    public static Split bestCol( UndecidedNode u, DHistogram hs[], long seed ) {
       DTree.Split best = null;
       if( hs == null ) return best;
       final int maxCols = u._scoreCols == null /* all cols */ ? hs.length : u._scoreCols.length;
@@ -483,7 +525,7 @@ public class DTree extends Iced {
       for( int i=0; i<maxCols; i++ ) {
         int col = u._scoreCols == null ? i : u._scoreCols[i];
         if( hs[col]==null || hs[col].nbins() <= 1 ) continue;
-        FindSplits fs = new FindSplits(hs, col, u._nid);
+        FindSplits fs = new FindSplits(hs, col, u._nid, u._tree._parms._min_rows);
         findSplits.add(fs);
         if (isSmall) fs.compute();
       }
@@ -496,23 +538,24 @@ public class DTree extends Iced {
       return best;
     }
 
-    class FindSplits extends RecursiveAction {
-      FindSplits(DHistogram[] hs, int col, int nid) {
-        _hs = hs; _col = col; _nid = nid;
+    static class FindSplits extends RecursiveAction {
+      FindSplits(DHistogram[] hs, int col, int nid, double minRows) {
+        _hs = hs; _col = col; _nid = nid; _minRows = minRows;
       }
       final DHistogram[] _hs;
       final int _col;
       DTree.Split _s;
       final int _nid;
+      final double _minRows;
       @Override public void compute() {
-        _s = _hs[_col].findBestSplitPoint(_col, _tree._parms._min_rows);
+        _s = _hs[_col].findBestSplitPoint(_col, _minRows);
       }
     }
 
     public DecidedNode( UndecidedNode n, DHistogram hs[], long seed ) {
       super(n._tree,n._pid,n._nid); // Replace Undecided with this DecidedNode
       _nids = new int[2];           // Split into 2 subsets
-      _split = bestCol(n,hs,seed);  // Best split-point for this tree
+      _split = n._best != null ? n._best : bestCol(n,hs,seed);  // Best split-point for this tree
       if( _split == null) {
         // Happens because the predictor columns cannot split the responses -
         // which might be because all predictor columns are now constant, or
@@ -529,6 +572,14 @@ public class DTree extends Iced {
         // Assign a new (yet undecided) node to each child, and connect this (the parent) decided node and the newly made histograms to it
         _nids[way] = nhists == null ? ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID : makeUndecidedNode(nhists)._nid;
       }
+      // Histogram subtraction: only the child with fewer rows gets built from
+      // the data; the other one is this node's histograms minus its sibling's.
+      if( _tree._parms._histogram_subtraction && _nids[0] != ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID && _nids[1] != ScoreBuildHistogram.UNDECIDED_CHILD_NODE_ID ) {
+        int small = _split._n0 <= _split._n1 ? 0 : 1;
+        UndecidedNode big = _tree.undecided(_nids[1-small]);
+        big._sibling = _nids[small];
+        big._parentHs = hs;
+      }
     }
 
     public int getChildNodeID(Chunk [] chks, int row ) {
@@ -0,0 +1,202 @@
+package hex.tree;
+
+import water.Iced;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.util.ArrayUtils;
+import water.util.RandomUtils;
+
+import java.util.*;
+
+/**
+ * Exclusive feature bundling for wide, sparse frames (e.g. one-hot encoded
+ * categoricals).  Sparse integer predictors which are (almost) never non-zero
+ * in the same row are grouped into bundles.  Each bundle is materialized once
+ * per model as a single integer column: 0 where all members are zero,
+ * otherwise 1 + the bundle bin of the non-zero member, where member j owns the
+ * bins [offset_j, offset_j + max_j - min_j], one per value.
+ *
+ * <p>ScoreBuildHistogram2 histograms a bundle in one pass over its column and
+ * then splits the result back into the members' DHistograms, so histogram
+ * passes scale with the number of bundles rather than the number of columns.
+ * Zeros are not stored; every member's zero bin is the leaf total minus its
+ * non-zero bins.  Exclusivity is checked on a sample of rows; on the rest of
+ * the data the first non-zero member of a row wins and any other non-zero
+ * member of that row is histogramed as a zero.
+ */
+public class FeatureBundles extends Iced<FeatureBundles> {
+  static final double MAX_DENSITY = 0.1;    // Only columns non-zero in at most this fraction of rows are bundled
+  static final int MAX_VALUES = 256;        // Only integer columns with at most this many distinct values (max-min+1)
+  static final int MAX_BUNDLE_BINS = 4096;  // Bins per bundle, bounds the per-leaf combined histogram
+  static final int SAMPLE_ROWS = 100000;    // Rows sampled to find conflicting (co-occurring) non-zeros
+
+  public final int[][] _cols;    // Per bundle, its predictor columns
+  public final int[][] _offsets; // Per bundle and member, first bundle bin of the member
+  public final long[][] _mins;   // Per bundle and member, value of the member's first bin
+  public final int[][] _nvals;   // Per bundle and member, number of bins (max - min + 1)
+  public final int[] _nbins;     // Per bundle, total bins
+  public final int[] _bundleOf;  // Per predictor, its bundle or -1
+
+  private FeatureBundles(int ncols, List<List<Integer>> bundles, Frame fr) {
+    int nb = bundles.size();
+    _cols = new int[nb][];
+    _offsets = new int[nb][];
+    _mins = new long[nb][];
+    _nvals = new int[nb][];
+    _nbins = new int[nb];
+    _bundleOf = new int[ncols];
+    Arrays.fill(_bundleOf, -1);
+    for (int b = 0; b < nb; b++) {
+      List<Integer> members = bundles.get(b);
+      int n = members.size();
+      _cols[b] = new int[n];
+      _offsets[b] = new int[n];
+      _mins[b] = new long[n];
+      _nvals[b] = new int[n];
+      for (int j = 0; j < n; j++) {
+        int c = members.get(j);
+        Vec v = fr.vec(c);
+        _cols[b][j] = c;
+        _offsets[b][j] = _nbins[b];
+        _mins[b][j] = (long) v.min();
+        _nvals[b][j] = nvals(v);
+        _nbins[b] += _nvals[b][j];
+        _bundleOf[c] = b;
+      }
+    }
+  }
+
+  public int nbundles() { return _cols.length; }
+
+  private static int nvals(Vec v) { return (int) ((long) v.max() - (long) v.min() + 1); }
+
+  /**
+   * Greedily bundle the sparse integer predictors among the first ncols
+   * columns of fr: densest columns first, each into the first bundle none of
+   * whose members is non-zero in the same sampled row.
+   * @return the bundles, or null if no two columns could be bundled
+   */
+  public static FeatureBundles find(Frame fr, int ncols, long seed) {
+    int[] cands = new int[ncols];
+    int ncands = 0;
+    for (int c = 0; c < ncols; c++) {
+      Vec v = fr.vec(c);
+      if (!v.isNumeric() || v.isCategorical() || !v.isInt() || v.naCnt() > 0) continue;
+      if (v.sparseRatio() > MAX_DENSITY || v.min() > 0 || v.max() < 0) continue;
+      if (v.max() - v.min() + 1 > MAX_VALUES) continue;
+      cands[ncands++] = c;
+    }
+    if (ncands < 2) return null;
+    cands = Arrays.copyOf(cands, ncands);
+    Frame sub = new Frame();
+    for (int c : cands) sub.add(fr.name(c), fr.vec(c));
+    double rate = Math.min(1, (double) SAMPLE_ROWS / fr.numRows());
+    final long[][] nzRows = new SampleNonZeros(rate, seed).doAll(sub)._rows;
+
+    Integer[] order = new Integer[ncands];
+    for (int i = 0; i < ncands; i++) order[i] = i;
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override public int compare(Integer a, Integer b) { return Integer.compare(len(nzRows[b]), len(nzRows[a])); }
+    });
+    List<List<Integer>> bundles = new ArrayList<>();
+    List<Set<Long>> used = new ArrayList<>();
+    List<Integer> bins = new ArrayList<>();
+    for (int i : order) {
+      int c = cands[i];
+      int nv = nvals(fr.vec(c));
+      int b = 0;
+      for (; b < bundles.size(); b++)
+        if (bins.get(b) + nv <= MAX_BUNDLE_BINS && !conflicts(used.get(b), nzRows[i])) break;
+      if (b == bundles.size()) {
+        bundles.add(new ArrayList<Integer>());
+        used.add(new HashSet<Long>());
+        bins.add(0);
+      }
+      bundles.get(b).add(c);
+      bins.set(b, bins.get(b) + nv);
+      if (nzRows[i] != null)
+        for (long r : nzRows[i]) used.get(b).add(r);
+    }
+    for (Iterator<List<Integer>> it = bundles.iterator(); it.hasNext(); )
+      if (it.next().size() < 2) it.remove(); // Nothing to gain from a single column
+    if (bundles.isEmpty()) return null;
+    for (List<Integer> members : bundles) Collections.sort(members);
+    return new FeatureBundles(ncols, bundles, fr);
+  }
+
+  private static int len(long[] a) { return a == null ? 0 : a.length; }
+
+  private static boolean conflicts(Set<Long> used, long[] rows) {
+    if (rows != null)
+      for (long r : rows)
+        if (used.contains(r)) return true;
+    return false;
+  }
+
+  /** One bundle column per bundle, aligned with fr (see class comment for the encoding). */
+  public Vec[] makeBundleVecs(Frame fr) {
+    Frame members = new Frame();
+    for (int[] cols : _cols)
+      for (int c : cols) members.add(fr.name(c), fr.vec(c));
+    return new BundleTask(this).doAll(nbundles(), Vec.T_NUM, members).outputFrame().vecs();
+  }
+
+  // Global row numbers of the non-zeros of each column, amongst sampled rows
+  private static class SampleNonZeros extends MRTask<SampleNonZeros> {
+    final double _rate;
+    final long _seed;
+    long[][] _rows;
+    SampleNonZeros(double rate, long seed) { _rate = rate; _seed = seed; }
+    @Override public void map(Chunk[] cs) {
+      _rows = new long[cs.length][];
+      int len = cs[0]._len;
+      boolean[] sampled = null;
+      if (_rate < 1) {
+        Random rand = RandomUtils.getRNG(_seed + cs[0].start()); //seeding is independent of chunking
+        sampled = new boolean[len];
+        for (int row = 0; row < len; row++) sampled[row] = rand.nextDouble() < _rate;
+      }
+      int[] nzs = new int[len];
+      long[] rows = new long[len];
+      for (int c = 0; c < cs.length; c++) {
+        int nnz = cs[c].nonzeros(nzs), n = 0;
+        for (int i = 0; i < nnz; i++)
+          if ((sampled == null || sampled[nzs[i]]) && cs[c].atd(nzs[i]) != 0)
+            rows[n++] = cs[0].start() + nzs[i];
+        if (n > 0) _rows[c] = Arrays.copyOf(rows, n);
+      }
+    }
+    @Override public void reduce(SampleNonZeros mrt) {
+      for (int c = 0; c < _rows.length; c++) _rows[c] = ArrayUtils.append(_rows[c], mrt._rows[c]);
+    }
+  }
+
+  // Input: the member columns of all bundles, bundle by bundle; output: one column per bundle
+  private static class BundleTask extends MRTask<BundleTask> {
+    final FeatureBundles _fb;
+    BundleTask(FeatureBundles fb) { _fb = fb; }
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      int len = cs[0]._len;
+      int[] nzs = new int[len];
+      int[] vals = new int[len];
+      for (int b = 0, c = 0; b < _fb.nbundles(); b++) {
+        Arrays.fill(vals, 0);
+        for (int j = 0; j < _fb._cols[b].length; j++, c++) {
+          int nnz = cs[c].nonzeros(nzs);
+          for (int i = 0; i < nnz; i++) {
+            int row = nzs[i];
+            long v = cs[c].at8(row);
+            if (v == 0 || vals[row] != 0) continue; // Conflict: the first non-zero member wins
+            vals[row] = _fb._offsets[b][j] + (int) (v - _fb._mins[b][j]) + 1;
+          }
+        }
+        for (int row = 0; row < len; row++)
+          if (vals[row] == 0) ncs[b].addZeros(1);
+          else ncs[b].addNum(vals[row], 0);
+      }
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package hex.tree;
+
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.NewChunk;
+
+import java.util.Arrays;
+
+/**
+ * Quantize predictor columns once per model: every value is replaced by the
+ * index of its global quantile bin (the same split points QuantilesGlobal
+ * histograms are cut from), NAs stay NA.  With at most nbins_top_level bins the
+ * indices compress to 1 or 2 bytes per row, and histogram passes read them
+ * instead of binning raw doubles on every tree level.
+ *
+ * <p>Output has one Vec per input column.
+ */
+public class PrebinTask extends MRTask<PrebinTask> {
+  /* @IN */ final double[][] _splitPts; // Per column, sorted global split points
+
+  public PrebinTask(double[][] splitPts) { _splitPts = splitPts; }
+
+  @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+    for (int c = 0; c < cs.length; c++) {
+      double[] pts = _splitPts[c];
+      Chunk chk = cs[c];
+      NewChunk nc = ncs[c];
+      for (int row = 0; row < chk._len; row++) {
+        double d = chk.atd(row);
+        if (Double.isNaN(d)) { nc.addNA(); continue; }
+        nc.addNum(bin(pts, d), 0);
+      }
+    }
+  }
+
+  // Global bin of d, as DHistogram.bin() computes it for a histogram spanning
+  // all the split points; infinities go to the outermost bins.
+  static int bin(double[] pts, double d) {
+    int idx = Arrays.binarySearch(pts, d);
+    if (idx < 0) idx = -idx - 2;
+    return Math.max(0, Math.min(pts.length - 1, idx));
+  }
+}
@@ -70,13 +70,23 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
   Frame _fr2;
   final int _numLeafs;
   final IcedBitSet _activeCols;
+  final int [][] _derived; // Per leaf, columns left to histogram subtraction (null: none)
+  final int [] _binIdx;    // Per predictor, index of its pre-binned column in _fr2 or -1 (null: nothing pre-binned)
+  final FeatureBundles _bundles; // Sparse columns histogramed together (null: no bundles)
+  final int [] _bundleIdx; // Per bundle, index of its column in _fr2
 
-  public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int weightIdx, int workIdx, int nidIdxs) {
+  public ScoreBuildHistogram2(H2O.H2OCountedCompleter cc, int k, int ncols, int nbins, int nbins_cats, DTree tree, int leaf, DHistogram[][] hcs, DistributionFamily family, int weightIdx, int workIdx, int nidIdxs, int[] binIdx, FeatureBundles bundles, int[] bundleIdx) {
     super(cc, k, ncols, nbins, nbins_cats, tree, leaf, hcs, family, weightIdx, workIdx, nidIdxs);
+    _binIdx = binIdx;
+    _bundles = bundles;
+    _bundleIdx = bundleIdx;
     _numLeafs = _hcs.length;
 
     int hcslen = _hcs.length;
     IcedBitSet activeCols = new IcedBitSet(ncols);
+    _derived = new int[hcslen][];
+    for (int n = 0; n < hcslen; n++)
+      _derived[n] = _tree.undecided(n + _leaf).derivedCols();
     for (int n = 0; n < hcslen; n++) {
       int [] acs = _tree.undecided(n + _leaf)._scoreCols;
       if(acs != null) {
@@ -134,6 +144,10 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
       // Score row against current decisions & assign new split
       boolean oob = isOOBRow(nid);
       if( oob ) nid = oob2Nid(nid); // sampled away - we track the position in the tree
+      if( _tree.node(nid) instanceof DTree.UndecidedNode ) { // Leaf left waiting by best-first growth
+        res[row] = DECIDED_ROW;
+        continue;
+      }
       DTree.DecidedNode dn = _tree.decided(nid);
       if( dn == null || dn._split == null ) { // Might have a leftover non-split
         if( DTree.isRootNode(dn) ) { res[row] = nid - _leaf; continue; }
@@ -238,17 +252,29 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     },new H2O.H2OCountedCompleter(this){
       public void onCompletion(CountedCompleter cc){
         final int ncols = _ncols;
-        final int [] active_cols = _activeCols == null?null:new int[Math.max(1,_activeCols.cardinality())];
-        int nactive_cols = active_cols == null?ncols:active_cols.length;
-        final int numWrks = _hcs.length*nactive_cols < 16*1024?H2O.NUMCPUS:Math.min(H2O.NUMCPUS,Math.max(4*H2O.NUMCPUS/nactive_cols,1));
-        final int rem = H2O.NUMCPUS-numWrks*ncols;
-        ScoreBuildHistogram2.this.addToPendingCount(1+nactive_cols);
-        if(active_cols != null) {
+        int [] acs = _activeCols == null?null:new int[Math.max(1,_activeCols.cardinality())];
+        if(acs != null) {
           int j = 0;
           for (int i = 0; i < ncols; ++i)
             if (_activeCols.contains(i))
-              active_cols[j++] = i;
+              acs[j++] = i;
         }
+        // Bundled columns are histogramed per bundle, not on their own
+        final int [] bundles = activeBundles(acs);
+        if(_bundles != null) {
+          int [] cols = acs == null?ArrayUtils.seq(0,ncols):acs;
+          int j = 0;
+          for (int c : cols)
+            if (_bundles._bundleOf[c] == -1)
+              cols[j++] = c;
+          acs = Arrays.copyOf(cols,j);
+        }
+        final int [] active_cols = acs;
+        final int nactive_cols = active_cols == null?ncols:active_cols.length;
+        final int nwork = nactive_cols + bundles.length;
+        final int numWrks = _hcs.length*nwork < 16*1024?H2O.NUMCPUS:Math.min(H2O.NUMCPUS,Math.max(4*H2O.NUMCPUS/nwork,1));
+        final int rem = H2O.NUMCPUS-numWrks*ncols;
+        ScoreBuildHistogram2.this.addToPendingCount(1+nwork);
         // MRTask (over columns) launching MrTasks (over number of workers) for each column.
         // We want FJ to start processing all the columns before parallelizing within column to reduce memory overhead.
         // (running single column in n threads means n-copies of the histogram)
@@ -261,10 +287,17 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
         new LocalMR(new MrFun() {
           @Override
           protected void map(int c) {
+            if (c >= nactive_cols) {
+              final ComputeBundleThread cbt = new ComputeBundleThread(bundles[c-nactive_cols],fLargestChunkSz,new AtomicInteger());
+              new LocalMR(cbt,numWrks,new H2O.H2OCountedCompleter(ScoreBuildHistogram2.this){
+                public void onCompletion(CountedCompleter cc){ cbt.unbundle(); }
+              }).fork();
+              return;
+            }
             c = active_cols == null?c:active_cols[c];
             new LocalMR(new ComputeHistoThread(_hcs.length == 0?new DHistogram[0]:_hcs[c],c,fLargestChunkSz,new AtomicInteger()),numWrks + (c < rem?1:0),ScoreBuildHistogram2.this).fork();
           }
-        },nactive_cols,ScoreBuildHistogram2.this).fork();
+        },nwork,ScoreBuildHistogram2.this).fork();
       }
     }).fork();
   }
@@ -279,6 +312,122 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     }
   }
 
+  // Bundles with at least one active column (all bundles if acs is null)
+  private int[] activeBundles(int [] acs) {
+    if (_bundles == null) return new int[0];
+    if (acs == null) return ArrayUtils.seq(0,_bundles.nbundles());
+    boolean [] active = new boolean[_bundles.nbundles()];
+    for (int c : acs)
+      if (_bundles._bundleOf[c] != -1)
+        active[_bundles._bundleOf[c]] = true;
+    int [] res = new int[_bundles.nbundles()];
+    int j = 0;
+    for (int b = 0; b < active.length; b++)
+      if (active[b]) res[j++] = b;
+    return Arrays.copyOf(res,j);
+  }
+
+  // Leaf n needs column col histogramed in this pass
+  private boolean needsHisto(int n, int col) {
+    int sCols[] = _tree.undecided(n + _leaf)._scoreCols;
+    return _hcs[col][n] != null && (sCols == null || ArrayUtils.find(sCols, col) >= 0) && (_derived[n] == null || ArrayUtils.find(_derived[n], col) < 0);
+  }
+
+  /**
+   * Histograms all columns of a feature bundle in one pass over the bundle
+   * column: per leaf, one combined histogram over the bundle bins followed by
+   * the leaf totals.  unbundle() then fills the members' histograms from it.
+   */
+  private class ComputeBundleThread extends MrFun<ComputeBundleThread> {
+    final int _bundle;
+    final int _maxChunkSz;
+    final double [][] _vals; // Per leaf, 3 per bundle bin then 3 for the totals (null: not needed)
+    AtomicInteger _cidx;
+
+    ComputeBundleThread(int bundle, int maxChunkSz, AtomicInteger cidx) {
+      this(bundle, maxChunkSz, new double[_numLeafs][], cidx);
+      for (int n = 0; n < _numLeafs; n++)
+        for (int c : _bundles._cols[bundle])
+          if (needsHisto(n, c)) {
+            _vals[n] = MemoryManager.malloc8d(3*_bundles._nbins[bundle]+3);
+            break;
+          }
+    }
+    private ComputeBundleThread(int bundle, int maxChunkSz, double [][] vals, AtomicInteger cidx) {
+      _bundle = bundle; _maxChunkSz = maxChunkSz; _vals = vals; _cidx = cidx;
+    }
+
+    @Override
+    public ComputeBundleThread makeCopy() {
+      double [][] vals = new double[_numLeafs][]; // Private, empty copy
+      for (int n = 0; n < _numLeafs; n++)
+        if (_vals[n] != null) vals[n] = MemoryManager.malloc8d(_vals[n].length);
+      return new ComputeBundleThread(_bundle,_maxChunkSz,vals,_cidx);
+    }
+
+    @Override
+    protected void map(int id){
+      int [] bs = null;
+      for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
+        if(bs == null) bs = MemoryManager.malloc4(_maxChunkSz);
+        computeChunk(i,bs,_ws[i]);
+      }
+    }
+
+    private void computeChunk(int id, int [] bs, double [] ws){
+      int [] nh = _nhs[id];
+      int [] rs = _rss[id];
+      double [] ys = ScoreBuildHistogram2.this._ys[id];
+      boolean extracted = false;
+      for (int n = 0; n < _numLeafs; n++) {
+        double [] vals = _vals[n];
+        int hi = nh[n];
+        int lo = (n == 0 ? 0 : nh[n - 1]);
+        if (hi == lo || vals == null) continue;
+        if (!extracted) {
+          Chunk bc = _chks[id][_bundleIdx[_bundle]];
+          bc.getIntegers(bs,0,bc._len,0);
+          extracted = true;
+        }
+        int t = vals.length - 3;
+        for (int r = lo; r < hi; ++r) {
+          int k = rs[r];
+          double w = ws[k];
+          if (w == 0) continue;
+          double wy = w * ys[k];
+          double wyy = wy * ys[k];
+          vals[t] += w; vals[t+1] += wy; vals[t+2] += wyy;
+          int b = bs[k];
+          if (b == 0) continue; // All members zero
+          b = 3*(b-1);
+          vals[b] += w; vals[b+1] += wy; vals[b+2] += wyy;
+        }
+      }
+    }
+
+    @Override
+    protected void reduce(ComputeBundleThread cc) {
+      assert _vals != cc._vals;
+      for (int n = 0; n < _numLeafs; n++)
+        if (_vals[n] != null) ArrayUtils.add(_vals[n],cc._vals[n]);
+    }
+
+    // Fill the member histograms of every leaf from the combined ones
+    void unbundle() {
+      int [] cols = _bundles._cols[_bundle];
+      for (int n = 0; n < _numLeafs; n++) {
+        double [] vals = _vals[n];
+        if (vals == null || vals[vals.length-3] == 0) continue;
+        for (int j = 0; j < cols.length; j++) {
+          if (!needsHisto(n, cols[j])) continue;
+          DHistogram h = _hcs[cols[j]][n];
+          if (h._vals == null) h.init();
+          h.updateHistoBundled(vals, _bundles._offsets[_bundle][j], _bundles._nvals[_bundle][j], _bundles._mins[_bundle][j]);
+        }
+      }
+    }
+  }
+
   private class ComputeHistoThread extends MrFun<ComputeHistoThread> {
     final int _maxChunkSz;
     final int _col;
@@ -303,29 +452,38 @@ public class ScoreBuildHistogram2 extends ScoreBuildHistogram {
     @Override
     protected void map(int id){
       double [] cs = null;
+      int [] bs = null;
       for(int i = _cidx.getAndIncrement(); i < _cids.length; i = _cidx.getAndIncrement()) {
         if(cs == null) cs = MemoryManager.malloc8d(_maxChunkSz);
-        computeChunk(i,cs,_ws[i]);
+        if(bs == null && _binIdx != null && _binIdx[_col] != -1) bs = MemoryManager.malloc4(_maxChunkSz);
+        computeChunk(i,cs,bs,_ws[i]);
       }
     }
 
-    private void computeChunk(int id, double [] cs, double [] ws){
+    private void computeChunk(int id, double [] cs, int [] bs, double [] ws){
       int [] nh = _nhs[id];
       int [] rs = _rss[id];
       Chunk resChk = _chks[id][_workIdx];
       int len = resChk._len;
       double [] ys = ScoreBuildHistogram2.this._ys[id];
-      if(_weightIdx != -1) _chks[id][_weightIdx].getDoubles(ws, 0, len);
       final int hcslen = _lh.length;
-      boolean extracted = false;
+      boolean extracted = false, extractedBins = false;
       for (int n = 0; n < hcslen; n++) {
         int sCols[] = _tree.undecided(n + _leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
-        if (sCols == null || ArrayUtils.find(sCols, _col) >= 0) {
+        if ((sCols == null || ArrayUtils.find(sCols, _col) >= 0) && (_derived[n] == null || ArrayUtils.find(_derived[n], _col) < 0)) {
           DHistogram h = _lh[n];
           int hi = nh[n];
           int lo = (n == 0 ? 0 : nh[n - 1]);
           if (hi == lo || h == null) continue; // Ignore untracked columns in this split
           if (h._vals == null) h.init();
+          if (bs != null && h._globalOffset >= 0) { // Aligned with the global bins: read the pre-binned column
+            if (!extractedBins) {
+              _chks[id][_binIdx[_col]].getIntegers(bs,0,len,-1);
+              extractedBins = true;
+            }
+            h.updateHistoBinned(ws, bs, ys, rs, hi, lo);
+            continue;
+          }
           if (!extracted) {
             _chks[id][_col].getDoubles(cs,0,len);
             extracted = true;
@@ -23,6 +23,8 @@ import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 
@@ -55,6 +57,15 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
 
   protected Random _rand;
 
+  // Pre-binned predictors (see PrebinTask), null for columns read raw
+  private transient Vec[] _binVecs;
+
+  // Exclusive feature bundles (see FeatureBundles) and their columns, null if not bundling
+  private transient FeatureBundles _bundles;
+  private transient Vec[] _bundleVecs;
+
+  private boolean isBundled(int c) { return _bundles != null && _bundles._bundleOf[c] != -1; }
+
   public boolean isSupervised(){return true;}
 
   @Override public boolean haveMojo() { return true; }
@@ -122,7 +133,11 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     if (_parms._nbins_cats >= 1<<16) error ("_nbins_cats", "nbins_cats must be < " + (1<<16));
     if (_parms._nbins_top_level < _parms._nbins) error ("_nbins_top_level", "nbins_top_level must be >= nbins (" + _parms._nbins + ").");
     if (_parms._nbins_top_level >= 1<<16) error ("_nbins_top_level", "nbins_top_level must be < " + (1<<16));
+    if (_parms._prebin && _parms._histogram_type != SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
+            && _parms._histogram_type != SharedTreeModel.SharedTreeParameters.HistogramType.RoundRobin)
+      error("_prebin", "prebin requires histogram_type QuantilesGlobal (or RoundRobin).");
     if (_parms._max_depth <= 0) error ("_max_depth", "_max_depth must be > 0.");
+    if (_parms._max_leaves < 0 || _parms._max_leaves == 1) error ("_max_leaves", "_max_leaves must be 0 (grow level by level) or >= 2.");
     if (_parms._min_rows <=0) error ("_min_rows", "_min_rows must be > 0.");
     if (_parms._r2_stopping!=Double.MAX_VALUE) warn("_r2_stopping", "_r2_stopping is no longer supported - please use stopping_rounds, stopping_metric and stopping_tolerance instead.");
     if (_parms._score_tree_interval < 0) error ("_score_tree_interval", "_score_tree_interval must be >= 0.");
@@ -222,6 +237,19 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
           }
         }
 
+        // Exclusive feature bundling: sparse columns which are never non-zero
+        // together share a histogram pass
+        if (_parms._bundle_sparse) {
+          _bundles = FeatureBundles.find(_train, _ncols, _parms._seed);
+          if (_bundles != null) {
+            _job.update(0, "Bundling sparse columns.");
+            _bundleVecs = _bundles.makeBundleVecs(_train);
+            int bundled = 0;
+            for (int[] cols : _bundles._cols) bundled += cols.length;
+            Log.info("Bundled " + bundled + " sparse columns into " + _bundles.nbundles() + " histogram columns.");
+          }
+        }
+
         // top-level quantiles for all columns
         // non-numeric columns get a vector full of NAs
         if (_parms._histogram_type == SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal
@@ -266,6 +294,22 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
           }
           qm.delete();
           DKV.remove(rndKey);
+          if (_parms._prebin) {
+            // Quantize the predictors once; every histogram pass reads the bin indices
+            Frame raw = new Frame();
+            double[][] pts = new double[_ncols][];
+            int n = 0;
+            for (int i = 0; i < _ncols; ++i)
+              if (keys[i] != null && splitPoints[i] != null && !isBundled(i)) {
+                raw.add(_train.name(i), _train.vec(i));
+                pts[n++] = splitPoints[i];
+              }
+            Vec[] bins = new PrebinTask(Arrays.copyOf(pts, n)).doAll(n, Vec.T_NUM, raw).outputFrame().vecs();
+            _binVecs = new Vec[_ncols];
+            for (int i = 0, j = 0; i < _ncols; ++i)
+              if (keys[i] != null && splitPoints[i] != null && !isBundled(i))
+                _binVecs[i] = bins[j++];
+          }
         }
 
         // Also add to the basic working Frame these sets:
@@ -308,6 +352,8 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       } finally {
         if( _model!=null ) _model.unlock(_job);
         for (Key k : getGlobalQuantilesKeys()) if (k!=null) k.remove();
+        if (_binVecs != null) for (Vec v : _binVecs) if (v != null) v.remove();
+        if (_bundleVecs != null) for (Vec v : _bundleVecs) v.remove();
       }
     }
 
@@ -405,13 +451,32 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       fr2.add(fr._names[idx_tree(k)],vecs[idx_tree(k)]);                              //tree predictions
       int workIdx = fr2.numCols(); fr2.add(fr._names[idx_work(k)],vecs[idx_work(k)]); //target value to fit (copy of actual response for DRF, residual for GBM)
       int nidIdx  = fr2.numCols(); fr2.add(fr._names[idx_nids(k)],vecs[idx_nids(k)]); //node indices for tree construction
+      Vec treeWeights = vec_tree_weights(k);
+      if (treeWeights != null) {                                                      //builder-specific weights replace the observation weights
+        weightIdx = fr2.numCols(); fr2.add("Weights_" + k, treeWeights);
+      }
+      int[] binIdx = null;                                                            //pre-binned predictors, if any
+      if (_binVecs != null) {
+        binIdx = new int[_ncols];
+        for (int c = 0; c < _ncols; c++) {
+          binIdx[c] = _binVecs[c] == null ? -1 : fr2.numCols();
+          if (_binVecs[c] != null) fr2.add(fr._names[c] + "_bin", _binVecs[c]);
+        }
+      }
+      int[] bundleIdx = null;                                                         //feature bundles, if any
+      if (_bundleVecs != null) {
+        bundleIdx = new int[_bundleVecs.length];
+        for (int b = 0; b < _bundleVecs.length; b++) {
+          bundleIdx[b] = fr2.numCols(); fr2.add("Bundle_" + b, _bundleVecs[b]);
+        }
+      }
       if (DEV_DEBUG) {
         System.out.println("Building a layer for class " + k + ":\n" + fr2.toString());
       }
       // Async tree building
       // step 1: build histograms
       // step 2: split nodes
-      H2O.submitTask(sb1ts[k] = new ScoreBuildOneTree(this,k,nbins, nbins_cats, tree, leafs, hcs, fr2, build_tree_one_node, _improvPerVar, _model._parms._distribution, weightIdx, workIdx, nidIdx));
+      H2O.submitTask(sb1ts[k] = new ScoreBuildOneTree(this,k,nbins, nbins_cats, tree, leafs, hcs, fr2, build_tree_one_node, _improvPerVar, _model._parms._distribution, weightIdx, workIdx, nidIdx, binIdx, bundleIdx));
     }
     // Block for all K trees to complete.
     boolean did_split=false;
@@ -450,10 +515,12 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     final int _weightIdx;
     final int _workIdx;
     final int _nidIdx;
+    final int[] _binIdx;
+    final int[] _bundleIdx;
 
     boolean _did_split;
 
-    ScoreBuildOneTree(SharedTree st, int k, int nbins, int nbins_cats, DTree tree, int leafs[], DHistogram hcs[][][], Frame fr2, boolean build_tree_one_node, float[] improvPerVar, DistributionFamily family, int weightIdx, int workIdx, int nidIdx) {
+    ScoreBuildOneTree(SharedTree st, int k, int nbins, int nbins_cats, DTree tree, int leafs[], DHistogram hcs[][][], Frame fr2, boolean build_tree_one_node, float[] improvPerVar, DistributionFamily family, int weightIdx, int workIdx, int nidIdx, int[] binIdx, int[] bundleIdx) {
       _st   = st;
       _k    = k;
       _nbins= nbins;
@@ -468,6 +535,8 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       _weightIdx = weightIdx;
       _workIdx = workIdx;
       _nidIdx = nidIdx;
+      _binIdx = binIdx;
+      _bundleIdx = bundleIdx;
     }
     @Override public void compute2() {
       // Fuse 2 conceptual passes into one:
@@ -479,13 +548,23 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       // got assigned into.  Collect counts, mean, variance, min, max per bin,
       // per column.
 //      new ScoreBuildHistogram(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
-      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx).dfork2(null,_fr2,_build_tree_one_node);
+      new ScoreBuildHistogram2(this,_k, _st._ncols, _nbins, _nbins_cats, _tree, _leafOffsets[_k], _hcs[_k], _family, _weightIdx, _workIdx, _nidIdx, _binIdx, _st._bundles, _bundleIdx).dfork2(null,_fr2,_build_tree_one_node);
     }
     @Override public void onCompletion(CountedCompleter caller) {
       ScoreBuildHistogram sbh = (ScoreBuildHistogram) caller;
       final int leafOffset = _leafOffsets[_k];
       int tmax = _tree.len();   // Number of total splits in tree K
-      for (int leaf = leafOffset; leaf < tmax; leaf++) { // Visit all the new splits (leaves)
+      // Histogram subtraction: complete the children which were not built from the data
+      if (sbh instanceof ScoreBuildHistogram2) {
+        int[][] derived = ((ScoreBuildHistogram2) sbh)._derived;
+        for (int leaf = leafOffset; leaf < tmax; leaf++) {
+          DTree.UndecidedNode udn = _tree.undecided(leaf);
+          if (udn._sibling != -1)
+            udn.deriveHistos(sbh._hcs[leaf - leafOffset], sbh._hcs[udn._sibling - leafOffset], derived[leaf - leafOffset]);
+        }
+      }
+      if (_tree._parms._max_leaves > 0) growBestFirst(sbh, leafOffset, tmax);
+      else for (int leaf = leafOffset; leaf < tmax; leaf++) { // Visit all the new splits (leaves)
         DTree.UndecidedNode udn = _tree.undecided(leaf);
 //        System.out.println((_st._nclass==1?"Regression":("Class "+_st._response.domain()[_k]))+",\n  Undecided node:"+udn);
         // Replace the Undecided with the Split decision
@@ -506,7 +585,50 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
       for (int nl = tmax; nl < _tree.len(); nl++)
         _hcs[_k][nl - tmax] = _tree.undecided(nl)._hs;
 //      if (_did_split && new_leafs > 0) _tree._depth++;
-      if (_did_split) _tree._depth++; //
+      if (_did_split && _tree._parms._max_leaves == 0) _tree._depth++; //
+    }
+
+    // Best-first growth: find the split of every new leaf, but only expand the
+    // waiting leaves with the largest improvement - up to half of what is left
+    // of the max_leaves budget per pass, so a tree takes about log2(max_leaves)
+    // passes.  The others keep their histograms and split, and their rows stay
+    // put until a later pass picks them; if none does, they end up as leaves.
+    private void growBestFirst(ScoreBuildHistogram sbh, int leafOffset, int tmax) {
+      for (int leaf = leafOffset; leaf < tmax; leaf++) {
+        DTree.UndecidedNode udn = _tree.undecided(leaf);
+        udn._hs = sbh._hcs[leaf - leafOffset];
+        udn._best = DTree.DecidedNode.bestCol(udn, udn._hs, _st._parms._seed);
+        if (udn._best == null) {   // Cannot split, same as level-wise
+          _st.makeDecided(udn, udn._hs);
+          udn.do_not_split();
+        }
+      }
+      List<DTree.UndecidedNode> waiting = new ArrayList<>();
+      int splits = 0;
+      for (int nid = 0; nid < tmax; nid++) {
+        DTree.Node n = _tree.node(nid);
+        if (n instanceof DTree.DecidedNode) {
+          if (((DTree.DecidedNode) n)._split != null) splits++;
+        } else if (((DTree.UndecidedNode) n)._best != null && _tree.depth(nid) < _tree._parms._max_depth)
+          waiting.add((DTree.UndecidedNode) n);
+      }
+      int budget = _tree._parms._max_leaves - 1 - splits; // Every split adds one leaf
+      if (budget <= 0 || waiting.isEmpty()) return;
+      Collections.sort(waiting, new Comparator<DTree.UndecidedNode>() {
+        @Override public int compare(DTree.UndecidedNode a, DTree.UndecidedNode b) {
+          return Double.compare(b._best.pre_split_se() - b._best.se(), a._best.pre_split_se() - a._best.se());
+        }
+      });
+      int n = Math.min(waiting.size(), Math.max(1, (budget + 1) / 2));
+      for (int i = 0; i < n; i++) {
+        DTree.UndecidedNode udn = waiting.get(i);
+        DTree.Split s = _st.makeDecided(udn, udn._hs)._split;
+        _did_split = true;
+        float improvement = (float) (s.pre_split_se() - s.se());
+        assert (improvement >= 0);
+        AtomicUtils.FloatArray.add(_improvPerVar, s.col(), improvement);
+        _tree._depth = Math.max(_tree._depth, _tree.depth(udn.nid()) + 1);
+      }
     }
   }
 
@@ -543,6 +665,10 @@ public abstract class SharedTree<M extends SharedTreeModel<M,P,O>, P extends Sha
     return data;
   }
 
+  // Builder-specific row weights for growing the tree of class c (already
+  // including the observation weights), or null to use the observation weights
+  protected Vec vec_tree_weights(int c) { return null; }
+
   // Builder-specific decision node
   protected DTree.DecidedNode makeDecided( DTree.UndecidedNode udn, DHistogram hs[] ) {
     return new DTree.DecidedNode(udn, hs, _parms._seed);
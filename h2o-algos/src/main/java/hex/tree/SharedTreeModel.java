@@ -44,6 +44,8 @@ public abstract class SharedTreeModel<
 
     public int _max_depth = 5; // Maximum tree depth. Grid Search, comma sep values:5,7
 
+    public int _max_leaves = 0; // If > 0, grow trees best-first (GBM only) up to this many leaves, instead of level by level
+
     public double _min_rows = 10; // Fewest allowed observations in a leaf (in R called 'nodesize'). Grid Search, comma sep values
 
     public int _nbins = 20; // Numerical (real/int) cols: Build a histogram of this many bins, then split at the best point
@@ -61,6 +63,12 @@ public abstract class SharedTreeModel<
 
     public boolean _build_tree_one_node = false;
 
+    public boolean _prebin = false; // Quantize predictors once per model into global quantile bin indices (QuantilesGlobal only)
+
+    public boolean _bundle_sparse = false; // Histogram mutually exclusive sparse integer columns (e.g. one-hot) together, see FeatureBundles
+
+    public boolean _histogram_subtraction = false; // Derive the larger child's histograms as parent minus smaller sibling; children keep the parent's bins
+
     public int _score_tree_interval = 0; // score every so many trees (no matter what)
 
     public int _initial_score_interval = 4000; //Adding this parameter to take away the hard coded value of 4000 for scoring the first  4 secs
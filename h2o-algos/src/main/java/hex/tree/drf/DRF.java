@@ -52,6 +52,8 @@ public class DRF extends SharedTree<hex.tree.drf.DRFModel, hex.tree.drf.DRFModel
   @Override public void init(boolean expensive) {
     super.init(expensive);
     // Initialize local variables
+    if( _parms._max_leaves != 0 )
+      error("_max_leaves", "Best-first tree growth is only supported by GBM.");
     if( _parms._mtries < 1 && _parms._mtries != -1 )
       error("_mtries", "mtries must be -1 (converted to sqrt(features)), or >= 1 but it is " + _parms._mtries);
     if( _train != null ) {
@@ -150,12 +150,27 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       error("_max_abs_leafnode_pred", "max_abs_leafnode_pred must be larger than 0.");
     if (_parms._pred_noise_bandwidth < 0)
       error("_pred_noise_bandwidth", "pred_noise_bandwidth must be >= 0.");
+    if (_parms._goss_top_rate != 0) {
+      if (!(0. < _parms._goss_top_rate && _parms._goss_top_rate < 1.0))
+        error("_goss_top_rate", "goss_top_rate must be between 0 and 1");
+      if (!(0. < _parms._goss_other_rate && _parms._goss_top_rate + _parms._goss_other_rate <= 1.0))
+        error("_goss_other_rate", "goss_other_rate must be larger than 0, and goss_top_rate + goss_other_rate must not exceed 1");
+      if (_parms._sample_rate < 1 || _parms._sample_rate_per_class != null)
+        error("_goss_top_rate", "Gradient-based one-side sampling replaces row sampling; sample_rate and sample_rate_per_class cannot be used with goss_top_rate.");
+    }
   }
 
   // ----------------------
   private class GBMDriver extends Driver {
     @Override protected boolean doOOBScoring() { return false; }
     @Override protected void initializeModelSpecifics() {
+      // Per-class row weights for gradient-based one-side sampling, appended
+      // after the common working columns
+      if (_parms._goss_top_rate > 0) {
+        String[] names = new String[_nclass];
+        for (int k = 0; k < _nclass; k++) names[k] = "GOSS_" + k;
+        _train.add(names, _response.makeVolatileDoubles(_nclass));
+      }
       _mtry_per_tree = Math.max(1, (int)(_parms._col_sample_rate_per_tree * _ncols)); //per-tree
       if (!(1 <= _mtry_per_tree && _mtry_per_tree <= _ncols)) throw new IllegalArgumentException("Computed mtry_per_tree should be in interval <1,"+_ncols+"> but it is " + _mtry_per_tree);
       _mtry = Math.max(1, (int)(_parms._col_sample_rate * _parms._col_sample_rate_per_tree * _ncols)); //per-split
@@ -547,12 +562,25 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
         }
       }
 
+      // Gradient-based one-side sampling - keep the rows with the largest
+      // |residual|, sample the rest and up-weight them in the GOSS column
+      if (_parms._goss_top_rate > 0) {
+        new GossSample(ktrees, gossThresholds(ktrees), rseed).doAll(_train, _parms._build_tree_one_node);
+        for (int k = 0; k < _nclass; k++) {
+          if (DEV_DEBUG && ktrees[k]!=null) {
+            System.out.println("GOSS sampled rows. NIDS:\n" + new Frame(vec_nids(_train, k)).toString());
+          }
+        }
+      }
+
       // ----
       // ESL2, page 387.  Step 2b ii.
       // One Big Loop till the ktrees are of proper depth.
       // Adds a layer to the trees each pass.
+      // Best-first growth (max_leaves) enforces max_depth per node, and stops
+      // by itself once the leaf budget is spent.
       int depth = 0;
-      for (; depth < _parms._max_depth; depth++) {
+      for (; _parms._max_leaves > 0 || depth < _parms._max_depth; depth++) {
         hcs = buildLayer(_train, _parms._nbins, _parms._nbins_cats, ktrees, leaves, hcs, _parms._build_tree_one_node);
         // If we did not make any new splits, then the tree is split-to-death
         if (hcs == null) break;
@@ -586,6 +614,84 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
       } // -- k-trees are done
     }
 
+    /**
+     * Per class, the smallest |residual| of the rows GOSS keeps unconditionally:
+     * the top goss_top_rate of the (weighted) rows, read off a fine histogram
+     * of |residual| over [0, max].  Ties at the threshold are all kept.
+     */
+    private double[] gossThresholds(DTree[] ktrees) {
+      double[] max = new AbsResMax(ktrees).doAll(_train)._max;
+      double[][] hist = new AbsResHisto(ktrees, max).doAll(_train)._hist;
+      double[] thresholds = new double[_nclass];
+      for (int k = 0; k < _nclass; k++)
+        if (ktrees[k] != null) thresholds[k] = gossThreshold(hist[k], max[k], _parms._goss_top_rate);
+      return thresholds;
+    }
+
+    private class AbsResMax extends MRTask<AbsResMax> {
+      final DTree _trees[];
+      double[] _max;
+      AbsResMax(DTree trees[]) { _trees = trees; }
+      @Override public void map(Chunk[] chks) {
+        _max = new double[_nclass];
+        final Chunk resp = chk_resp(chks);
+        final Chunk weights = hasWeightCol() ? chk_weight(chks) : new C0DChunk(1, chks[0]._len);
+        for (int k = 0; k < _nclass; k++) {
+          if (_trees[k] == null) continue;
+          final Chunk ress = chk_work(chks, k);
+          for (int row = 0; row < chks[0]._len; row++)
+            if (weights.atd(row) != 0 && !resp.isNA(row))
+              _max[k] = Math.max(_max[k], Math.abs(ress.atd(row)));
+        }
+      }
+      @Override public void reduce(AbsResMax mrt) {
+        for (int k = 0; k < _nclass; k++) _max[k] = Math.max(_max[k], mrt._max[k]);
+      }
+    }
+
+    private class AbsResHisto extends MRTask<AbsResHisto> {
+      final DTree _trees[];
+      final double[] _max;
+      double[][] _hist;
+      AbsResHisto(DTree trees[], double[] max) { _trees = trees; _max = max; }
+      @Override public void map(Chunk[] chks) {
+        _hist = new double[_nclass][GOSS_BINS];
+        final Chunk resp = chk_resp(chks);
+        final Chunk weights = hasWeightCol() ? chk_weight(chks) : new C0DChunk(1, chks[0]._len);
+        for (int k = 0; k < _nclass; k++) {
+          if (_trees[k] == null || _max[k] == 0) continue;
+          final Chunk ress = chk_work(chks, k);
+          for (int row = 0; row < chks[0]._len; row++) {
+            double w = weights.atd(row);
+            if (w == 0 || resp.isNA(row)) continue;
+            int b = (int) (Math.abs(ress.atd(row)) / _max[k] * GOSS_BINS);
+            _hist[k][Math.min(b, GOSS_BINS - 1)] += w;
+          }
+        }
+      }
+      @Override public void reduce(AbsResHisto mrt) { ArrayUtils.add(_hist, mrt._hist); }
+    }
+
+    // Keep rows with |residual| >= threshold at their observation weight;
+    // sample goss_other_rate of all rows from the rest, scaled up by
+    // (1-goss_top_rate)/goss_other_rate, and flag the others OUT_OF_BAG.
+    // Sampled-out rows keep their weight, so GammaPass still routes them.
+    private class GossSample extends MRTask<GossSample> {
+      final DTree _trees[];
+      final double[] _thresholds;
+      final long _seed;
+      GossSample(DTree trees[], double[] thresholds, long seed) { _trees = trees; _thresholds = thresholds; _seed = seed; }
+      @Override public void map(Chunk[] chks) {
+        final Chunk resp = chk_resp(chks);
+        final Chunk weights = hasWeightCol() ? chk_weight(chks) : new C0DChunk(1, chks[0]._len);
+        for (int k = 0; k < _nclass; k++) {
+          if (_trees[k] == null) continue;
+          gossSample(weights, resp, chk_work(chks, k), _thresholds[k], _parms._goss_top_rate, _parms._goss_other_rate, _seed,
+                  ((C4VolatileChunk) chk_nids(chks, k)).getValues(), ((C8DVolatileChunk) chk_goss(chks, k)).getValues());
+        }
+      }
+    }
+
     private class ComputeDiff extends MRTask<ComputeDiff> {
       @Override
       public void map(Chunk[] chks, NewChunk[] nc) {
@@ -848,7 +954,7 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
           final Chunk ress = chk_work(chks, k); // Residuals for this tree/class
           final Chunk offset = hasOffsetCol() ? chk_offset(chks) : new C0DChunk(0, chks[0]._len); // Residuals for this tree/class
           final Chunk preds = chk_tree(chks,k);
-          final Chunk weights = hasWeightCol() ? chk_weight(chks) : new C0DChunk(1, chks[0]._len);
+          final Chunk weights = _parms._goss_top_rate > 0 ? chk_goss(chks, k) : hasWeightCol() ? chk_weight(chks) : new C0DChunk(1, chks[0]._len);
 
           // If we have all constant responses, then we do not split even the
           // root and the residuals should be zero.
@@ -944,6 +1050,42 @@ public class GBM extends SharedTree<GBMModel,GBMModel.GBMParameters,GBMModel.GBM
 
   }
 
+  // GOSS weight columns (one per class) follow the common working columns
+  static final int GOSS_BINS = 1024; // Resolution of the |residual| histogram for the GOSS threshold
+
+  // Smallest |residual| of the top topRate of the weight in hist, a histogram
+  // of |residual| in GOSS_BINS bins over [0, max]
+  static double gossThreshold(double[] hist, double max, double topRate) {
+    double top = topRate * ArrayUtils.sum(hist);
+    double sum = 0;
+    int b = GOSS_BINS - 1;
+    for (; b > 0; b--)
+      if ((sum += hist[b]) >= top) break;
+    return max * b / GOSS_BINS;
+  }
+
+  // GOSS over one chunk of one class: rows with |residual| >= threshold keep
+  // their weight in gw; otherRate of all rows is sampled from the rest with
+  // weight scaled up by (1-topRate)/otherRate, and the others are flagged
+  // OUT_OF_BAG in nids.
+  static void gossSample(Chunk weights, Chunk resp, Chunk ress, double threshold, double topRate, double otherRate, long seed, int[] nids, double[] gw) {
+    final double rate = otherRate / (1 - topRate);
+    final double amplify = 1 / rate;
+    Random rand = RandomUtils.getRNG(0);
+    for (int row = 0; row < ress._len; row++) {
+      double w = gw[row] = weights.atd(row);
+      if (w == 0 || resp.isNA(row) || Math.abs(ress.atd(row)) >= threshold) continue;
+      rand.setSeed(seed + row + ress.start()); //seeding is independent of chunking
+      if (rand.nextFloat() < rate) gw[row] = w * amplify;
+      else nids[row] = ScoreBuildHistogram.OUT_OF_BAG;
+    }
+  }
+  private int idx_goss(int c) { return idx_oobt() + 1 + c; }
+  private Chunk chk_goss(Chunk chks[], int c) { return chks[idx_goss(c)]; }
+  @Override protected Vec vec_tree_weights(int c) {
+    return _parms._goss_top_rate > 0 ? _train.vecs()[idx_goss(c)] : null;
+  }
+
   // Read the 'tree' columns, do model-specific math and put the results in the
   // fs[] array, and return the sum.  Dividing any fs[] element by the sum
   // turns the results into a probability distribution.
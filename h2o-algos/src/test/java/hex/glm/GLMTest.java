@@ -847,7 +847,46 @@ public class GLMTest  extends TestUtil {
   }
 
 
-//  // test categorical autoexpansions, run on airlines which has several categorical columns,
+//  // On clouds of 4 or more nodes the Gram is reduce-scattered over the nodes;
+  // it must sum up to the same as computed all on the caller
+  @Test public void testGramReduceScatter() {
+    Vec seq = Vec.makeCon(0, 20000, 8, false);
+    Frame f = null;
+    DataInfo dinfo = null;
+    try {
+      f = new MRTask() {
+        @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+          for (int i = 0; i < cs[0]._len; ++i) {
+            Random rnd = new Random(cs[0].start() + i);
+            double x0 = rnd.nextDouble(), x1 = rnd.nextGaussian();
+            ncs[0].addNum(x0);
+            ncs[1].addNum(x1);
+            ncs[2].addNum(rnd.nextInt(5));
+            ncs[3].addNum(2 * x0 - x1 + rnd.nextGaussian());
+          }
+        }
+      }.doAll(4, Vec.T_NUM, new Frame(seq)).outputFrame(Key.<Frame>make("GramRS"), new String[]{"x0", "x1", "x2", "y"}, null);
+      dinfo = new DataInfo(f, null, 1, true, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE, true, false, false, false, false, false);
+      GLMParameters params = new GLMParameters(Family.gaussian);
+      GLMIterationTask dist = new GLMIterationTask(null, dinfo, new GLMWeightsFun(params), null).withThreadAccumulators().doAll(dinfo._adaptedFrame);
+      GLMIterationTask local = new GLMIterationTask(null, dinfo, new GLMWeightsFun(params), null).doAll(dinfo._adaptedFrame, true);
+      assertEquals(local._nobs, dist._nobs);
+      assertEquals(local._yy, dist._yy, 1e-8 * Math.abs(local._yy));
+      for (int i = 0; i < local._xy.length; ++i) {
+        for (int j = 0; j <= i; ++j) {
+          double v = local._gram.get(i, j);
+          assertEquals(v, dist._gram.get(i, j), 1e-8 * Math.max(1, Math.abs(v)));
+        }
+        assertEquals(local._xy[i], dist._xy[i], 1e-8 * Math.max(1, Math.abs(local._xy[i])));
+      }
+    } finally {
+      seq.remove();
+      if (dinfo != null) dinfo.remove();
+      if (f != null) f.delete();
+    }
+  }
+
+  // test categorical autoexpansions, run on airlines which has several categorical columns,
 //  // once on explicitly expanded data, once on h2o autoexpanded and compare the results
 //  @Test public void testSparseCategoricals() {
 //    GLMModel model1 = null, model2 = null, model3 = null, model4 = null;
@@ -1027,6 +1066,15 @@ public class GLMTest  extends TestUtil {
       }
       assertEquals(glmtDense._xy[i], glmtSparse._xy[i], 1e-8);
     }
+    // One Gram per worker thread, as GLM runs it, sums up the same
+    final GLMIterationTask glmtAcc = new GLMIterationTask(null, dinfo, new GLMWeightsFun(params), null).setSparse(true).withThreadAccumulators().doAll(dinfo._adaptedFrame);
+    assertEquals(glmtSparse._nobs, glmtAcc._nobs);
+    for (int i = 0; i < glmtSparse._xy.length; ++i) {
+      for (int j = 0; j <= i; ++j) {
+        assertEquals(glmtSparse._gram.get(i, j), glmtAcc._gram.get(i, j), 1e-8);
+      }
+      assertEquals(glmtSparse._xy[i], glmtAcc._xy[i], 1e-8);
+    }
     final double[] beta = MemoryManager.malloc8d(dinfo.fullN() + 1);
     // now do the same but weighted, use LSM solution as beta to generate meaningfull weights
     H2O.submitTask(new H2OCountedCompleter() {
@@ -4,6 +4,9 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import water.*;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
 import water.util.*;
 
 import java.util.Arrays;
@@ -313,4 +316,140 @@ public class HistogramTest extends TestUtil {
       Log.info("N=" + N + " Sum:" + sum + " Time: " + PrettyPrint.msecs(done - start, true));
     }
   }
+
+  @Test public void testSubtraction() {
+    for (SharedTreeModel.SharedTreeParameters.HistogramType histoType : new SharedTreeModel.SharedTreeParameters.HistogramType[]{
+            SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, SharedTreeModel.SharedTreeParameters.HistogramType.Random}) {
+      DHistogram parent = new DHistogram("myhisto", 13, 13, (byte)0, 1, 6.9, 0, histoType, 1234, null);
+      DHistogram left = parent.emptyCopy(), right = parent.emptyCopy(), derived = parent.emptyCopy();
+      parent.init(); left.init(); right.init();
+      Random rng = new Random(0xDECAF);
+      for (int i = 0; i < 1000; ++i) {
+        double x = rng.nextInt(10) == 0 ? Double.NaN : 1 + 5.8 * rng.nextDouble();
+        double y = rng.nextGaussian(), w = 1 + rng.nextInt(3);
+        parent.incr(x, y, w);
+        (x < 3 ? left : right).incr(x, y, w); // NAs go right
+      }
+      derived.subtract(parent, left);
+      Assert.assertTrue(derived.sameLayout(right));
+      for (int b = 0; b < right.nbins(); ++b) {
+        Assert.assertEquals(right.w(b), derived.w(b), 1e-6);
+        Assert.assertEquals(right.wY(b), derived.wY(b), 1e-4);
+        Assert.assertEquals(right.wYY(b), derived.wYY(b), 1e-4);
+      }
+      Assert.assertEquals(right.wNA(), derived.wNA(), 1e-6);
+      Assert.assertEquals(right.wYNA(), derived.wYNA(), 1e-6);
+      Assert.assertEquals(right.wYYNA(), derived.wYYNA(), 1e-6);
+      if (histoType == SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive)
+        Assert.assertEquals(0, derived.w(0), 0); // [1,1.45) went left only
+    }
+  }
+
+  @Test public void testPrebinnedBins() {
+    double[] splitPts = new double[]{1,1.5,2,2.5,3,4,5,6.1,6.2,6.3,6.7,6.8,6.85};
+    Key k = Key.make();
+    DKV.put(new DHistogram.HistoQuantiles(k,splitPts));
+    try {
+      // A deeper level's histogram over part of the range stays on whole global bins
+      DHistogram hist = new DHistogram("myhisto", 20, 20, (byte)0, 2.2, 6.25, 0, SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal, 1234, k);
+      hist._prebinned = true;
+      hist.init();
+      Assert.assertEquals(2, hist._globalOffset);
+      Assert.assertEquals(7, hist.nbins());
+      Random rng = new Random(0xDECAF);
+      for (int i = 0; i < 10000; ++i) {
+        double x = 2.2 + 4.05 * rng.nextDouble();
+        Assert.assertEquals(hist.bin(x), PrebinTask.bin(splitPts, x) - hist._globalOffset);
+      }
+    } finally {
+      k.remove();
+    }
+  }
+
+  // Rows histogramed from their PrebinTask index land in exactly the bins, and
+  // sum to exactly the values, of rows histogramed from their raw value
+  @Test public void testPrebinnedHistoIdentical() {
+    double[] splitPts = new double[]{0,0.4,1,1.5,2,2.5,3,4,5,6.1,6.2,6.3,6.7,6.8,6.85,8,9.5};
+    Key k = Key.make();
+    DKV.put(new DHistogram.HistoQuantiles(k,splitPts));
+    Vec raw = null, bins = null;
+    try {
+      int n = 10000;
+      Random rng = new Random(0xDECAF);
+      double[] xs = new double[n], ys = new double[n], ws = new double[n];
+      for (int i = 0; i < n; ++i) {
+        xs[i] = 10 * rng.nextDouble();
+        ys[i] = rng.nextGaussian();
+        ws[i] = rng.nextInt(5) == 0 ? 0 : 1 + rng.nextInt(3);
+      }
+      raw = Vec.makeVec(xs, Vec.newKey());
+      bins = new PrebinTask(new double[][]{splitPts}).doAll(1, Vec.T_NUM, new Frame(raw)).outputFrame().anyVec();
+      int[] bs = new int[n];
+      for (int c = 0; c < bins.nChunks(); ++c) {
+        Chunk chk = bins.chunkForChunkIdx(c);
+        int[] cbs = chk.getIntegers(new int[chk._len], 0, chk._len, -1);
+        System.arraycopy(cbs, 0, bs, (int) chk.start(), chk._len);
+      }
+      // The top level, and a deeper node over part of the range
+      for (double[] range : new double[][]{{0, 10}, {2.2, 6.25}}) {
+        int[] rows = new int[n];
+        int nrows = 0;
+        for (int i = 0; i < n; ++i)
+          if (xs[i] >= range[0] && xs[i] < range[1]) rows[nrows++] = i;
+        DHistogram hRaw = new DHistogram("raw", 20, 20, (byte)0, range[0], range[1], 0, SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal, 1234, k);
+        DHistogram hBin = new DHistogram("binned", 20, 20, (byte)0, range[0], range[1], 0, SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal, 1234, k);
+        hRaw._prebinned = hBin._prebinned = true;
+        hRaw.init();
+        hBin.init();
+        Assert.assertTrue(hBin._globalOffset >= 0);
+        hRaw.updateHisto(ws, xs, ys, rows, nrows, 0);
+        hBin.updateHistoBinned(ws, bs, ys, rows, nrows, 0);
+        Assert.assertEquals(hRaw.nbins(), hBin.nbins());
+        for (int b = 0; b < hRaw.nbins(); ++b) {
+          Assert.assertEquals(hRaw.w(b), hBin.w(b), 0);
+          Assert.assertEquals(hRaw.wY(b), hBin.wY(b), 0);
+          Assert.assertEquals(hRaw.wYY(b), hBin.wYY(b), 0);
+        }
+      }
+    } finally {
+      k.remove();
+      if (raw != null) raw.remove();
+      if (bins != null) bins.remove();
+    }
+  }
+
+  @Test public void testBundledHisto() {
+    DHistogram direct = new DHistogram("direct", 20, 20, (byte)1, 0, 4, 0, SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, null);
+    DHistogram bundled = new DHistogram("bundled", 20, 20, (byte)1, 0, 4, 0, SharedTreeModel.SharedTreeParameters.HistogramType.UniformAdaptive, 1234, null);
+    direct.init();
+    bundled.init();
+    // Member column with values 0..3 at offset 5 of a bundle with 10 bins, totals last
+    int n = 1000;
+    double[] ws = new double[n], cs = new double[n], ys = new double[n];
+    int[] rows = new int[n];
+    double[] vals = new double[3*10+3];
+    Random rng = new Random(0xDECAF);
+    for (int i = 0; i < n; ++i) {
+      rows[i] = i;
+      ws[i] = 1 + rng.nextInt(3);
+      ys[i] = rng.nextGaussian();
+      cs[i] = rng.nextDouble() < 0.9 ? 0 : 1 + rng.nextInt(3);
+      double wy = ws[i] * ys[i];
+      vals[30] += ws[i]; vals[31] += wy; vals[32] += wy * ys[i];
+      if (cs[i] != 0) {
+        int b = 3 * (5 + (int) cs[i]);
+        vals[b] += ws[i]; vals[b+1] += wy; vals[b+2] += wy * ys[i];
+      }
+    }
+    direct.updateHisto(ws, cs, ys, rows, n, 0);
+    bundled.updateHistoBundled(vals, 5, 4, 0);
+    Assert.assertEquals(direct.nbins(), bundled.nbins());
+    for (int b = 0; b < direct.nbins(); ++b) {
+      Assert.assertEquals(direct.w(b), bundled.w(b), 1e-8);
+      Assert.assertEquals(direct.wY(b), bundled.wY(b), 1e-8);
+      Assert.assertEquals(direct.wYY(b), bundled.wYY(b), 1e-8);
+    }
+    Assert.assertEquals(direct.find_min(), bundled.find_min(), 0);
+    Assert.assertEquals(direct.find_maxIn(), bundled.find_maxIn(), 0);
+  }
 }
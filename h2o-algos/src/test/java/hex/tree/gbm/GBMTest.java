@@ -2,13 +2,17 @@ package hex.tree.gbm;
 
 import hex.*;
 import hex.genmodel.utils.DistributionFamily;
+import hex.tree.FeatureBundles;
+import hex.tree.ScoreBuildHistogram;
 import hex.tree.SharedTreeModel;
+import hex.tree.TreeStats;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 import water.*;
 import water.exceptions.H2OModelBuilderIllegalArgumentException;
+import water.fvec.C0DChunk;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.RebalanceDataSet;
@@ -18,6 +22,7 @@ import water.util.*;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Random;
 import java.util.TreeMap;
 
 import static hex.genmodel.utils.DistributionFamily.*;
@@ -1920,6 +1925,215 @@ public class GBMTest extends TestUtil {
     }
   }
 
+  @Test public void prebinnedQuantilesGlobal() {
+    Frame tfr = null;
+    GBMModel gbm = null, gbmPrebin = null;
+    try {
+      tfr = parse_test_file("smalldata/logreg/prostate.csv");
+      tfr.remove("ID").remove();
+      DKV.put(tfr);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "VOL";
+      parms._histogram_type = SharedTreeModel.SharedTreeParameters.HistogramType.QuantilesGlobal;
+      parms._ntrees = 10;
+      parms._max_depth = 5;
+      parms._seed = 0xDECAFFEE;
+      gbm = new GBM(parms).trainModel().get();
+
+      parms._prebin = true;
+      gbmPrebin = new GBM(parms).trainModel().get();
+      double mse = gbm._output._training_metrics.mse(), msePrebin = gbmPrebin._output._training_metrics.mse();
+      Log.info("MSE: " + mse + ", pre-binned: " + msePrebin);
+      // Same global bins; only the per-node refinement of sparse ranges differs
+      assertEquals(mse, msePrebin, 0.1 * mse);
+    } finally {
+      if (tfr != null) tfr.delete();
+      if (gbm != null) gbm.delete();
+      if (gbmPrebin != null) gbmPrebin.delete();
+    }
+  }
+
+  @Test public void bestFirstMaxLeaves() {
+    Frame tfr = null;
+    GBMModel gbm = null, gbmLevel = null, gbmDeep = null;
+    try {
+      tfr = parse_test_file("smalldata/logreg/prostate.csv");
+      tfr.remove("ID").remove();
+      DKV.put(tfr);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "VOL";
+      parms._ntrees = 10;
+      parms._seed = 0xDECAFFEE;
+      parms._max_depth = 3;         // Level-wise: up to 8 leaves
+      gbmLevel = new GBM(parms).trainModel().get();
+
+      parms._max_depth = 10;        // Level-wise and this deep, every tree grows well past 8 leaves
+      gbmDeep = new GBM(parms).trainModel().get();
+      assertTrue(gbmDeep._output._treeStats._min_leaves > 8);
+
+      parms._max_leaves = 8;
+      gbm = new GBM(parms).trainModel().get();
+      TreeStats ts = gbm._output._treeStats;
+      Log.info("Best-first tree stats: " + ts);
+      // The data can split further, so the leaf budget is spent exactly
+      assertEquals(8, ts._min_leaves);
+      assertEquals(8, ts._max_leaves);
+      assertTrue(ts._max_depth <= 7);
+      double mse = gbm._output._training_metrics.mse(), mseLevel = gbmLevel._output._training_metrics.mse();
+      Log.info("MSE best-first: " + mse + ", level-wise: " + mseLevel);
+      assertTrue(mse < 1.25 * mseLevel);
+    } finally {
+      if (tfr != null) tfr.delete();
+      if (gbm != null) gbm.delete();
+      if (gbmLevel != null) gbmLevel.delete();
+      if (gbmDeep != null) gbmDeep.delete();
+    }
+  }
+
+  @Test public void gossSampling() {
+    GBMModel gbm = null, gbmFull = null;
+    try {
+      Scope.enter();
+      Frame tfr = parse_test_file("smalldata/logreg/prostate.csv");
+      Scope.track(tfr);
+      tfr.remove("ID").remove();
+      int ci = tfr.find("CAPSULE");
+      Scope.track(tfr.replace(ci, tfr.vecs()[ci].toCategoricalVec()));
+      DKV.put(tfr);
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = "CAPSULE";
+      parms._ntrees = 20;
+      parms._max_depth = 3;
+      parms._seed = 0xDECAFFEE;
+      gbmFull = new GBM(parms).trainModel().get();
+
+      parms._goss_top_rate = 0.2;
+      parms._goss_other_rate = 0.3;
+      gbm = new GBM(parms).trainModel().get();
+      double ll = ((ModelMetricsBinomial) gbm._output._training_metrics).logloss();
+      double llFull = ((ModelMetricsBinomial) gbmFull._output._training_metrics).logloss();
+      Log.info("Logloss GOSS: " + ll + ", all rows: " + llFull);
+      assertTrue(ll < 1.2 * llFull);
+
+      parms._goss_other_rate = 0.9; // top + other > 1
+      try {
+        new GBM(parms).trainModel().get();
+        Assert.fail("Should toss H2OModelBuilderIllegalArgumentException instead of reaching here");
+      } catch (H2OModelBuilderIllegalArgumentException e) {}
+    } finally {
+      if (gbm != null) gbm.delete();
+      if (gbmFull != null) gbmFull.delete();
+      Scope.exit();
+    }
+  }
+
+  // One chunk of uniform |residual|s: GOSS keeps the top 20% as they are, and
+  // samples 30% of all rows from the other 80% at weight (1-0.2)/0.3
+  @Test public void gossSampleRows() {
+    int n = 10000;
+    double[] res = new double[n];
+    Random rng = new Random(0xDECAF);
+    for (int i = 0; i < n; i++) res[i] = (rng.nextBoolean() ? 1 : -1) * rng.nextDouble();
+    Vec resVec = Vec.makeVec(res, Vec.newKey());
+    try {
+      double max = 0;
+      for (double r : res) max = Math.max(max, Math.abs(r));
+      double[] hist = new double[GBM.GOSS_BINS];
+      for (double r : res) hist[Math.min((int) (Math.abs(r) / max * GBM.GOSS_BINS), GBM.GOSS_BINS - 1)]++;
+      double threshold = GBM.gossThreshold(hist, max, 0.2);
+
+      int[] nids = new int[n];
+      double[] gw = new double[n];
+      Chunk ones = new C0DChunk(1, n);
+      GBM.gossSample(ones, ones, resVec.chunkForChunkIdx(0), threshold, 0.2, 0.3, 0xDECAFFEE, nids, gw);
+      int top = 0, oob = 0, sampled = 0;
+      for (int i = 0; i < n; i++) {
+        if (Math.abs(res[i]) >= threshold) {
+          top++;
+          assertEquals(0, nids[i]);
+          assertEquals(1, gw[i], 0);
+        } else if (nids[i] == ScoreBuildHistogram.OUT_OF_BAG) {
+          oob++;
+          assertEquals(1, gw[i], 0);
+        } else {
+          sampled++;
+          assertEquals(0, nids[i]);
+          assertEquals((1 - 0.2) / 0.3, gw[i], 1e-12);
+        }
+      }
+      Log.info("GOSS top: " + top + ", sampled: " + sampled + ", out of bag: " + oob);
+      assertEquals(0.2 * n, top, 0.01 * n);
+      assertEquals(0.3 * n, sampled, 0.02 * n);
+      assertEquals(0.5 * n, oob, 0.02 * n);
+    } finally {
+      resVec.remove();
+    }
+  }
+
+  // Rows where more than one of the columns is non-zero
+  private static class CountOverlaps extends MRTask<CountOverlaps> {
+    long _overlaps;
+    @Override public void map(Chunk[] cs) {
+      for (int row = 0; row < cs[0]._len; row++) {
+        int nnz = 0;
+        for (Chunk c : cs) if (c.atd(row) != 0) nnz++;
+        if (nnz > 1) _overlaps++;
+      }
+    }
+    @Override public void reduce(CountOverlaps co) { _overlaps += co._overlaps; }
+  }
+
+  @Test public void bundleSparse() {
+    GBMModel gbm = null, gbmBundled = null;
+    try {
+      Scope.enter();
+      // Columns 0-9 are numeric; wilderness area (10-13) and soil type (14-53)
+      // are one-hot encodings; 54 is the cover type
+      Frame tfr = parse_test_file("smalldata/covtype/covtype.20k.data");
+      Scope.track(tfr);
+      int resp = 54;
+      Scope.track(tfr.replace(resp, tfr.vecs()[resp].toCategoricalVec()));
+      DKV.put(tfr);
+
+      // All 20k rows fit the exclusivity sample, so bundle members never overlap
+      FeatureBundles fb = FeatureBundles.find(tfr, resp, 0xDECAFFEE);
+      assertTrue(fb != null && fb.nbundles() > 0);
+      for (int c = 0; c < resp; c++) {
+        Vec v = tfr.vec(c);
+        boolean sparse = v.isInt() && v.min() <= 0 && v.max() >= 0 && v.sparseRatio() <= 0.1;
+        if (c < 10 || !sparse)
+          assertEquals("column " + tfr.name(c), -1, fb._bundleOf[c]);
+        else if (c >= 14)  // Sparse soil types are exclusive with each other, so all get bundled
+          assertTrue("column " + tfr.name(c), fb._bundleOf[c] >= 0);
+      }
+      for (int[] cols : fb._cols) {
+        Frame members = new Frame();
+        for (int c : cols) members.add(tfr.name(c), tfr.vec(c));
+        assertEquals(0, new CountOverlaps().doAll(members)._overlaps);
+      }
+
+      GBMModel.GBMParameters parms = new GBMModel.GBMParameters();
+      parms._train = tfr._key;
+      parms._response_column = tfr.names()[resp];
+      parms._ntrees = 5;
+      parms._seed = 0xDECAFFEE;
+      gbm = new GBM(parms).trainModel().get();
+
+      parms._bundle_sparse = true;
+      gbmBundled = new GBM(parms).trainModel().get();
+      double mse = gbm._output._training_metrics.mse(), mseBundled = gbmBundled._output._training_metrics.mse();
+      Log.info("MSE bundled: " + mseBundled + ", unbundled: " + mse);
+      assertEquals(mse, mseBundled, 1e-3 * mse);
+    } finally {
+      if (gbm != null) gbm.delete();
+      if (gbmBundled != null) gbmBundled.delete();
+      Scope.exit();
+    }
+  }
+
   @Test public void sampleRatePerClass() {
     Frame tfr = null;
     Key[] ksplits = null;
@@ -7,8 +7,10 @@ import java.nio.*;
 import java.nio.channels.*;
 import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 import water.network.SocketChannelUtils;
+import water.util.BlockCodec;
 import water.util.Log;
 import water.util.TwoDimTable;
 
@@ -383,6 +385,23 @@ public final class AutoBuffer {
   static BBPool BBP_SML = new BBPool( 2*1024); // Bytebuffer "common small size", for UDP
   static BBPool BBP_BIG = new BBPool(64*1024); // Bytebuffer "common  big  size", for TCP
   public static int TCP_BUF_SIZ = BBP_BIG._size;
+  // Byte arrays at least this big move between nodes without passing
+  // through the ByteBuffer
+  static final int DIRECT_XFER = BBP_BIG._size;
+
+  // True for a big byte array on a TCP stream between two nodes; these may be
+  // compressed (see -wire_codec).  Small control messages never are.  A
+  // compressed array may shrink the whole message below the MTU, so putZipped
+  // forces the TCP send: the reader is then always the TCP one, and agrees.
+  private boolean nodeWire( int len ) { return len >= DIRECT_XFER && _h2o != null && _persist == Value.TCP; }
+
+  // Set once a flagged big array has been written: the message must go by TCP
+  // (the TCP reader is the only one decoding the flag), however small it is.
+  private boolean _forceTCP;
+
+  /** Wire compression totals on this node: bytes given to the codec, bytes
+   *  sent after it, and nanoseconds spent compressing and decompressing. */
+  public static final AtomicLong WIRE_RAW = new AtomicLong(), WIRE_ZIPPED = new AtomicLong(), WIRE_ZIP_NS = new AtomicLong();
 
   private int bbFree() {
     if(_bb != null && _bb.isDirect())
@@ -426,7 +445,7 @@ public final class AutoBuffer {
             // For small-packet write, send via UDP.  Since nothing is sent until
             // now, this close() call trivially orders - since the reader will not
             // even start (much less close()) until this packet is sent.
-            if( _bb.position() < MTU) return udpSend();
+            if( _bb.position() < MTU && !_forceTCP ) return udpSend();
           }
           // oops - Big Write, switch to TCP and finish out there
         }
@@ -512,7 +531,7 @@ public final class AutoBuffer {
   }
 
   // True if we opened a TCP channel, or will open one to close-and-send
-  boolean hasTCP() { assert !isClosed(); return SocketChannelUtils.isSocketChannel(_chan) || (_h2o!=null && _bb.position() >= MTU); }
+  boolean hasTCP() { assert !isClosed(); return SocketChannelUtils.isSocketChannel(_chan) || (_h2o!=null && (_forceTCP || _bb.position() >= MTU)); }
 
   // Size in bytes sent, after a close()
   int size() { return _size; }
@@ -684,6 +703,36 @@ public final class AutoBuffer {
     return _bb;
   }
 
+  // Big byte arrays headed for another node (Chunks, models) skip the
+  // buffer: whatever is buffered and the array go out in one gathering write.
+  private AutoBuffer putDirect( byte[] ary, int off, int len ) {
+    _size += _bb.position()+len;
+    if( _chan == null )
+      TimeLine.record_send(this, true);
+    _bb.flip();
+    ByteBuffer[] bbs = new ByteBuffer[]{_bb, ByteBuffer.wrap(ary, off, len)};
+    try {
+      if( _chan == null )
+        tcpOpen();
+      long ns = System.nanoTime();
+      if( _chan instanceof GatheringByteChannel ) {
+        GatheringByteChannel chan = (GatheringByteChannel)_chan;
+        while( bbs[1].hasRemaining() ) chan.write(bbs);
+      } else {
+        for( ByteBuffer bb : bbs )
+          while( bb.hasRemaining() ) _chan.write(bb);
+      }
+      if( RANDOM_TCP_DROP != null && SocketChannelUtils.isSocketChannel(_chan) && RANDOM_TCP_DROP.nextInt(100) == 0 )
+        throw new IOException("Random TCP Write Fail");
+      _time_io_ns += (System.nanoTime()-ns);
+    } catch( IOException e ) {  // Retried at a higher level, as in sendPartial
+      throw new AutoBufferException(e);
+    }
+    _firstPage = false;
+    _bb.clear();
+    return this;
+  }
+
   // Called when the byte buffer doesn't have enough room
   // If buffer is array backed, and the needed room is small,
   // increase the size of the backing array,
@@ -1018,7 +1067,20 @@ public final class AutoBuffer {
   public byte[] getA1( ) {
     //_arys++;
     int len = getInt();
-    return len == -1 ? null : getA1(len);
+    if( len == -1 ) return null;
+    return nodeWire(len) ? getZipped(len) : getA1(len);
+  }
+
+  // Big arrays between nodes carry a flag byte: 0 for raw bytes, 1 for a
+  // compressed length and a BlockCodec block.  Any node decodes either, so
+  // nodes need not agree on the codec.
+  private byte[] getZipped( int len ) {
+    if( get1() == 0 ) return getA1(len);
+    byte[] z = getA1(getInt());
+    long ns = System.nanoTime();
+    byte[] ary = BlockCodec.decode(z, MemoryManager.malloc1(len));
+    WIRE_ZIP_NS.addAndGet(System.nanoTime()-ns);
+    return ary;
   }
   public byte[] getA1( int len ) {
     byte[] buf = MemoryManager.malloc1(len);
@@ -1027,11 +1089,36 @@ public final class AutoBuffer {
       int more = Math.min(_bb.remaining(), len - sofar);
       _bb.get(buf, sofar, more);
       sofar += more;
+      if( len-sofar >= DIRECT_XFER && (_chan != null || _is != null) ) {
+        getDirect(buf, sofar, len-sofar); // Skip the buffer for the big rest
+        break;
+      }
       if( sofar < len ) getSp(Math.min(_bb.capacity(), len-sofar));
     }
     return buf;
   }
 
+  // Read len bytes straight from the channel or stream into buf; the buffer
+  // has been emptied by the caller.
+  private void getDirect( byte[] buf, int off, int len ) {
+    assert _read && !_bb.hasRemaining();
+    ByteBuffer dst = ByteBuffer.wrap(buf, off, len);
+    long ns = System.nanoTime();
+    try {
+      while( dst.hasRemaining() ) {
+        int res = _is == null ? _chan.read(dst) : _is.read(buf, dst.position(), dst.remaining());
+        if( res <= 0 )
+          throw new AutoBufferException(new EOFException("Reading "+len+" bytes, AB="+this));
+        if( _is != null ) dst.position(dst.position()+res);
+        _size += res;
+      }
+    } catch( IOException e ) {
+      throw new AutoBufferException(e);
+    }
+    _time_io_ns += (System.nanoTime()-ns);
+    _firstPage = false;
+  }
+
   public short[] getA2( ) {
     //_arys++;
     int len = getInt(); if( len == -1 ) return null;
@@ -1243,10 +1330,27 @@ public final class AutoBuffer {
     //_arys++;
     if( ary == null ) return putInt(-1);
     putInt(ary.length);
-    return putA1(ary,ary.length);
+    return nodeWire(ary.length) ? putZipped(ary) : putA1(ary,ary.length);
+  }
+
+  // Compress with the -wire_codec, if set and the array shrinks
+  private AutoBuffer putZipped( byte[] ary ) {
+    _forceTCP = true;
+    BlockCodec codec = BlockCodec.forName(H2O.ARGS.wire_codec);
+    byte[] z = null;
+    if( codec != null ) {
+      long ns = System.nanoTime();
+      z = codec.encode(ary, 1);
+      WIRE_ZIP_NS.addAndGet(System.nanoTime()-ns);
+      WIRE_RAW.addAndGet(ary.length);
+      WIRE_ZIPPED.addAndGet(z == null ? ary.length : z.length);
+    }
+    if( z == null ) return put1(0).putA1(ary,ary.length);
+    return put1(1).putInt(z.length).putA1(z,z.length);
   }
   public AutoBuffer putA1( byte[] ary, int length ) { return putA1(ary,0,length); }
   public AutoBuffer putA1( byte[] ary, int sofar, int length ) {
+    if( _h2o != null && length-sofar >= DIRECT_XFER ) return putDirect(ary, sofar, length-sofar);
     if (length - sofar > _bb.remaining()) expandByteBuffer(length-sofar);
     while( sofar < length ) {
       int len = Math.min(length - sofar, _bb.remaining());
@@ -2,8 +2,13 @@ package water;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Arrays;
-import water.fvec.Chunk;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import water.fvec.*;
+import water.util.BlockCodec;
 import water.util.Log;
 import water.util.PrettyPrint;
 
@@ -43,13 +48,15 @@ class Cleaner extends Thread {
   // Desired cache level. Set by the MemoryManager asynchronously.
   static volatile long DESIRED;
 
+  // Metrics from the last completed pass, reported in the HeartBeat
+  static volatile long LAST_PASS_MSEC;  // Cleaner pass latency
+  static volatile long LAST_PASS_FREED; // Heap bytes freed by the pass
+
   Cleaner() {
     super("MemCleaner");
     setDaemon(true);
     setPriority(MAX_PRIORITY-2);
     _dirty = Long.MAX_VALUE;  // Set to clean-store
-    Histo.current(true);      // Build/allocate a first histogram
-    Histo.current(true);      // Force a recompute with a good eldest
     MemoryManager.set_goals("init",false);
   }
 
@@ -63,131 +70,87 @@ class Cleaner extends Thread {
   // async callbacks attempt to "kick" the Cleaner awake - which will require
   // taking the lock... blocking the kicking thread for the duration.
   @Override /*synchronized*/ public void run() {
-    boolean diskFull = false;
     while( true ) {
-      // Sweep the K/V store, writing out Values (cleaning) and free'ing
-      // - Clean all "old" values (lazily, optimistically)
+      Clock.catchUp();          // Link in (and out) the Values put since the last pass
+      // Clean the K/V store, writing out Values (cleaning) and free'ing
+      // - Clean all "old" newly-put values (lazily, optimistically)
       // - Clean and free old values if above the desired cache level
       // Do not let optimistic cleaning get in the way of emergency cleaning.
-
-      // Get a recent histogram, computing one as needed
-      Histo h = Histo.current(false);
       long now = System.currentTimeMillis();
       long dirty = _dirty; // When things first got dirtied
 
       // Start cleaning if: "dirty" was set a "long" time ago, or we beyond
       // the desired cache levels. Inverse: go back to sleep if the cache
       // is below desired levels & nothing has been dirty awhile.
-      if( h._cached < DESIRED && // Cache is low and
+      if( Clock.cached() < DESIRED && // Cache is low and
           (now-dirty < 5000) ) { // not dirty a long time
         // Block asleep, waking every 5 secs to check for stuff, or when poked
         block_store_cleaner();
-        continue; // Awoke; loop back and re-check histogram.
+        continue; // Awoke; loop back and re-check the cache level.
       }
 
       now = System.currentTimeMillis();
       _dirty = Long.MAX_VALUE; // Reset, since we are going write stuff out
       MemoryManager.set_goals("preclean",false);
 
-      // The age beyond which we need to toss out things to hit the desired
-      // caching levels. If forced, be exact (toss out the minimal amount).
-      // If lazy, store-to-disk things down to 1/2 the desired cache level
-      // and anything older than 5 secs.
-      boolean force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
-      if( force && diskFull )   // Try to clean the diskFull flag
-        diskFull = isDiskFull();
-      long clean_to_age = h.clean_to(force ? DESIRED : (DESIRED>>1));
-      // If not forced cleaning, expand the cleaning age to allows Values
-      // more than 5sec old
-      if( !force ) clean_to_age = Math.max(clean_to_age,now-5000);
-      if( DESIRED == -1 ) clean_to_age = now;  // Test mode: clean all
+      // Lazily write out new Values once they are 5 secs old.  Forced
+      // cleaning is driven by the clock instead: evict whatever was not
+      // touched since the clock hand last passed it.
+      boolean force = (Clock.cached() >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
+      if( force && _diskFull )  // Try to clean the diskFull flag
+        _diskFull = isDiskFull();
+      final boolean test = DESIRED == -1; // Test mode: clean all
+      long clean_to_age = test ? now : now-5000;
 
       // No logging if under memory pressure: can deadlock the cleaner thread
-      String s = h+" DESIRED="+(DESIRED>>20)+"M dirtysince="+(now-dirty)+" force="+force+" clean2age="+(now-clean_to_age);
+      String s = Clock.string()+" DESIRED="+(DESIRED>>20)+"M dirtysince="+(now-dirty)+" force="+force;
       if( MemoryManager.canAlloc() ) Log.debug(s);
       else                           System.err.println(s);
-      long cleaned = 0;         // Disk i/o bytes
-      long freed = 0;           // memory freed bytes
-      long io_ns = 0;           // i/o ns writing
+      _cleaned = _freed = _io_ns = _offheaped = _offfreed = _zipped = 0;
+      OffHeapMem.reap();        // Free the off-heap blocks no reader holds anymore
+      _offHigh = MemoryManager.offHeapHigh();
+      _codec = BlockCodec.forName(H2O.ARGS.chunk_codec);
 
-      // For faster K/V store walking get the NBHM raw backing array,
-      // and walk it directly.
-      Object[] kvs = H2O.STORE.raw_array();
-
-      // Start the walk at slot 2, because slots 0,1 hold meta-data
-      for( int i=2; i<kvs.length; i += 2 ) {
-        // In the raw backing array, Keys and Values alternate in slots
-        Object ok = kvs[i], ov = kvs[i+1];
-        if( !(ok instanceof Key  ) ) continue; // Ignore tombstones and Primes and null's
-        if( !(ov instanceof Value) ) continue; // Ignore tombstones and Primes and null's
-        Value val = (Value)ov;
-        byte[] m = val.rawMem();
-        Object p = val.rawPOJO();
-        if( m == null && p == null ) continue; // Nothing to throw out
-        if( val.isLockable() ) continue; // we do not want to throw out Lockables.
-        boolean isChunk = p instanceof Chunk && !((Chunk)p).isVolatile();
-        // Ignore things younger than the required age.  In particular, do
-        // not spill-to-disk all dirty things we find.
+      // Write-behind: visit the Values put since the last pass.  The ones
+      // still too young go back on the queue for a later pass.
+      ArrayList<Value> young = new ArrayList<>();
+      Value val;
+      while( (val = Clock.DIRTY.poll()) != null ) {
+        if( !val.onClock() ) continue; // Removed or replaced since
+        if( val.isNull() ) { Value.STORE_get(val._key); continue; } // Another flavor of NULL
         long touched = val._lastAccessedTime;
-        if( touched > clean_to_age ) { // Too recently touched?
-          // But can toss out a byte-array if already deserialized & on disk
-          // (no need for both forms).  Note no savings for Chunks, for which m==p._mem
-          if( val.isPersisted() && m != null && p != null && !isChunk ) {
-            val.freeMem();      // Toss serialized form, since can rebuild from POJO
-            freed += val._max;
-          }
-          dirty_store(touched); // But may write it out later
-          continue;             // Too young
-        }
-        // Spiller turned off?
-        if( !H2O.ARGS.cleaner ) continue;
-
-        // CNC - Memory cleaning turned off, except for Chunks
-        // Too many POJOs are written to dynamically; cannot spill & reload
-        // them without losing changes.
-
-        // Should I write this value out to disk?
-        // Should I further force it from memory?
-        if( isChunk && !val.isPersisted() && !diskFull && ((Key)ok).home() ) { // && (force || (lazyPersist() && lazy_clean(key)))) {
-          long now_ns = System.nanoTime();
-          try { val.storePersist(); } // Write to disk
-          catch( FileNotFoundException fnfe ) { continue; } // Can happen due to racing key delete/remove
-          catch( IOException e ) {
-            Log.warn( isDiskFull()
-                      ? "Disk full! Disabling swapping to disk." + (force?" Memory low! Please free some space in " + H2O.ICE_ROOT + "!":"")
-                      : "Disk swapping failed! " + e.getMessage());
-            // Something is wrong so mark disk as full anyways so we do not
-            // attempt to write again.  (will retry next run when memory is low)
-            diskFull = true;
-          }
-          if( m == null ) m = val.rawMem();
-          if( m != null ) cleaned += m.length; // Accumulate i/o bytes
-          io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
-        }
-        // And, under pressure, free all
-        if( isChunk && force && (val.isPersisted() || !((Key)ok).home()) ) {
-          val.freeMem ();  if( m != null ) freed += val._max;  m = null;
-          val.freePOJO();  if( p != null ) freed += val._max;  p = null;
-          if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
-        }
-        // If we have both forms, toss the byte[] form - can be had by
-        // serializing again.
-        if( m != null && p != null && !isChunk ) {
-          val.freeMem();
-          freed += val._max;
-        }
+        boolean old = touched <= clean_to_age;
+        clean(val,false,old);
+        if( !old ) { young.add(val); dirty_store(touched); } // May write it out later
+      }
+      Clock.DIRTY.addAll(young);
 
-        // If a GC cycle happened and we can no longer alloc, start forcing
+      // Under pressure, sweep the clock.  Values touched since the hand last
+      // passed get a second chance, the rest are evicted.  Stop as soon as
+      // the cache is back under the desired level; go at most twice around,
+      // as the first lap may be only clearing second chances.
+      long laps = 2L*Clock.size();
+      for( long i=0; force && i<laps; i++ ) {
+        if( (val = Clock.next()) == null ) break;
+        if( val.isNull() ) continue;
+        boolean old = test || val._lastAccessedTime <= val._clkSeen;
+        val._clkSeen = now;
+        clean(val,true,old);
+        // If a GC cycle happened and we can no longer alloc, keep forcing
         // from RAM as we go
-        force = (h._cached >= DESIRED || !MemoryManager.CAN_ALLOC); // Forced to clean
+        force = (Clock.cached() >= DESIRED || !MemoryManager.CAN_ALLOC);
       }
 
-      String s1 = "Cleaner pass took: "+PrettyPrint.msecs(System.currentTimeMillis()-now,true)+
-                  ", spilled "+PrettyPrint.bytes(cleaned)+" in "+PrettyPrint.usecs(io_ns>>10);
-      h = Histo.current(true); // Force a new histogram
+      long pass = System.currentTimeMillis()-now;
+      LAST_PASS_MSEC = pass;
+      LAST_PASS_FREED = _freed;
+      String s1 = "Cleaner pass took: "+PrettyPrint.msecs(pass,true)+
+                  ", spilled "+PrettyPrint.bytes(_cleaned)+" in "+PrettyPrint.usecs(_io_ns>>10);
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
-      String s2 = h+" diski_o="+PrettyPrint.bytes(cleaned)+", freed="+(freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
+      String s2 = Clock.string()+" diski_o="+PrettyPrint.bytes(_cleaned)+", freed="+(_freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M"+
+        (MemoryManager.offHeapEnabled() ? ", offheap="+(MemoryManager.offHeapUsed()>>20)+"M (+"+(_offheaped>>20)+"M, -"+(_offfreed>>20)+"M)" : "")+
+        (_codec != null ? ", compressed="+(_zipped>>20)+"M" : "");
       if( MemoryManager.canAlloc() ) Log.debug(s1,s2);
       else                           System.err.println(s1+"\n"+s2);
       // For testing thread
@@ -199,111 +162,248 @@ class Cleaner extends Thread {
     }
   }
 
+  // Per-pass state and counters; only touched by the Cleaner thread
+  private boolean _diskFull;    // Stop spilling until space shows up again
+  private boolean _offHigh;     // Off-heap tier over budget?
+  private long _cleaned;        // Disk i/o bytes
+  private long _freed;          // memory freed bytes
+  private long _io_ns;          // i/o ns writing
+  private long _offheaped;      // bytes moved into the off-heap tier
+  private long _offfreed;       // bytes evicted from the off-heap tier
+  private BlockCodec _codec;    // In-memory compression of cold Chunks, or null
+  private long _zipped;         // bytes saved by compressing
+
+  // Clean one Value: write it out to disk, move it off-heap and/or free its
+  // in-memory forms.  Only "old" Values are written or evicted, and only
+  // forced cleaning evicts.
+  private void clean( Value val, boolean force, boolean old ) {
+    Key key = val._key;
+    byte[] m = val.rawMem();
+    Object p = val.rawPOJO();
+    // A Chunk reading the off-heap copy in place costs no heap
+    if( p instanceof Chunk && ((Chunk)p).readsOffHeap() ) p = null;
+    // Off-heap tier over its budget: evict off-heap-only Values.  The home
+    // node spills them to disk first; caching replicas are just dropped.
+    if( _offHigh && m == null && p == null && val.isOffHeap() ) {
+      if( key.home() ) {
+        if( !H2O.ARGS.cleaner || _diskFull ) return; // Nowhere else to go
+        try { val.storePersist(); }
+        catch( FileNotFoundException fnfe ) { return; } // Racing key delete/remove
+        catch( IOException e ) { _diskFull = true; return; }
+        val.freeMem();      // storePersist rebuilt the byte[]; it is on disk now
+        _cleaned += val._max;
+      }
+      val.freePOJO();           // Any Chunk reading it in place
+      val.freeOffHeap();
+      _offfreed += val._max;
+      _offHigh = MemoryManager.offHeapHigh();
+      return;
+    }
+    boolean z = val.isCompressed(); // Only ever Chunks
+    if( m == null && p == null && !z ) return; // Nothing to throw out
+    if( val.isLockable() ) return; // we do not want to throw out Lockables.
+    boolean isChunk = (p instanceof Chunk && !((Chunk)p).isVolatile()) || (p == null && z);
+    // Ignore things younger than the required age.  In particular, do
+    // not spill-to-disk all dirty things we find.
+    if( !old ) {            // Too recently touched?
+      // But can toss out a byte-array if already deserialized & on disk
+      // (no need for both forms).  Note no savings for Chunks, for which m==p._mem
+      if( val.isPersisted() && m != null && p != null && !isChunk ) {
+        val.freeMem();      // Toss serialized form, since can rebuild from POJO
+        _freed += val._max;
+      }
+      return;               // Too young
+    }
+    int len = val.cachedLen();
+    // A compressed Chunk read since keeps its inflated forms next to the
+    // compressed copy; under pressure those go first, being cheap to rebuild.
+    if( isChunk && force && z && (m != null || p != null) ) {
+      val.freeMem ();
+      val.freePOJO();
+      _freed += len - val.cachedLen();
+      return;
+    }
+    // Under pressure, first shrink cold Chunks in place with the codec (if
+    // any).  Not worth it for Chunks which already have a cheaper copy to
+    // come back from.  Next time around the clock, compressed Chunks move on
+    // to the off-heap tier or to disk like any other.
+    if( isChunk && force && !z && _codec != null && !val.isOffHeap() && !val.isPersisted() &&
+        val.compress(_codec,shuffleWidth(p)) ) {
+      val.freeMem ();
+      val.freePOJO();
+      _freed += len - val.cachedLen();
+      _zipped += len - val.cachedLen();
+      return;
+    }
+    // Under pressure, move cold Chunks into the off-heap tier (if any)
+    // ahead of the disk.  This needs neither the disk nor -cleaner.
+    if( isChunk && force && !val.isOffHeap() && MemoryManager.offHeapEnabled() &&
+        !MemoryManager.offHeapHigh() && val.storeOffHeap() ) {
+      val.freeMem ();
+      val.freePOJO();
+      val.freeZMem();
+      _freed += len - val.cachedLen();
+      _offheaped += val._max;
+      return;
+    }
+    // Spiller turned off?
+    if( !H2O.ARGS.cleaner ) return;
 
-  // Histogram class
-  static class Histo {
-    // Current best histogram
-    static private volatile Histo H;
+    // CNC - Memory cleaning turned off, except for Chunks
+    // Too many POJOs are written to dynamically; cannot spill & reload
+    // them without losing changes.
 
-    // Return the current best histogram, recomputing in-place if it is getting
-    // stale.  Synchronized so the same histogram can be called into here and
-    // will be only computed into one-at-a-time.
-    synchronized static Histo current( boolean force ) {
-      final Histo h = H; // Grab current best histogram
-      if( !force && System.currentTimeMillis() < h._when+2000 )
-        return h; // It is recent; use it
-      if( h != null && h._clean && _dirty==Long.MAX_VALUE )
-        return h; // No change to the K/V store, so no point
-      // Use last oldest value for computing the next histogram in-place
-      return (H = new Histo(h==null ? 0 : h._oldest)); // Record current best histogram & return it
+    // Should I write this value out to disk?
+    // Should I further force it from memory?
+    if( isChunk && !val.isPersisted() && !_diskFull && key.home() ) {
+      long now_ns = System.nanoTime();
+      try { val.storePersist(); } // Write to disk
+      catch( FileNotFoundException fnfe ) { return; } // Can happen due to racing key delete/remove
+      catch( IOException e ) {
+        Log.warn( isDiskFull()
+                  ? "Disk full! Disabling swapping to disk." + (force?" Memory low! Please free some space in " + H2O.ICE_ROOT + "!":"")
+                  : "Disk swapping failed! " + e.getMessage());
+        // Something is wrong so mark disk as full anyways so we do not
+        // attempt to write again.  (will retry next run when memory is low)
+        _diskFull = true;
+      }
+      if( m == null ) m = val.rawMem();
+      if( m != null ) _cleaned += m.length; // Accumulate i/o bytes
+      _io_ns += System.nanoTime() - now_ns; // Accumulate i/o time
     }
+    // And, under pressure, free all
+    if( isChunk && force && (val.isPersisted() || val.isOffHeap() || !key.home()) ) {
+      val.freeMem ();  m = null;
+      val.freePOJO();  p = null;
+      val.freeZMem();
+      _freed += len - val.cachedLen();
+    }
+    // If we have both forms, toss the byte[] form - can be had by
+    // serializing again.
+    if( m != null && p != null && !isChunk ) {
+      val.freeMem();
+      _freed += val._max;
+    }
+  }
+
 
-    // Latest best-effort cached amount, without forcing a histogram to be
-    // built nor blocking for one being in-progress.
-    static long cached() { return H._cached; }
-    static long swapped(){ return H._swapped;}
+  // Byte-shuffle width for Chunks of fixed-width elements; 1 for none
+  private static int shuffleWidth( Object p ) {
+    if( p instanceof C8DChunk || p instanceof C8Chunk ) return 8;
+    if( p instanceof C4FChunk || p instanceof C4Chunk ) return 4;
+    if( p instanceof C2Chunk || p instanceof C2SChunk ) return 2;
+    return 1;
+  }
 
-    final long[] _hs = new long[128];
-    long _oldest; // Time of the oldest K/V discovered this pass
-    long _eldest; // Time of the eldest K/V found in some prior pass
-    long _hStep;  // Histogram step: (now-eldest)/histogram.length
-    long _cached; // Total alive data in the histogram
-    long _total;  // Total data in local K/V
-    long _when;   // When was this histogram computed
-    long _swapped;// On-disk stuff
-    Value _vold;  // For assertions: record the oldest Value
-    boolean _clean; // Was "clean" K/V when built?
 
-    // Compute a histogram
-    Histo( long eldest ) {
-      Arrays.fill(_hs, 0);
-      _when = System.currentTimeMillis();
-      _eldest = eldest; // Eldest seen in some prior pass
-      _hStep = Math.max(1,(_when-eldest)/_hs.length);
-      boolean clean = _dirty==Long.MAX_VALUE;
-      // Compute the hard way
-      Object[] kvs = H2O.STORE.raw_array();
-      long cached = 0; // Total K/V cached in ram
-      long total = 0;  // Total K/V in local node
-      long swapped=0;  // Total K/V persisted
-      long oldest = Long.MAX_VALUE; // K/V with the longest time since being touched
-      Value vold = null;
-      // Start the walk at slot 2, because slots 0,1 hold meta-data
-      for( int i=2; i<kvs.length; i += 2 ) {
-        // In the raw backing array, Keys and Values alternate in slots
-        Object ok = kvs[i], ov = kvs[i+1];
-        if( !(ok instanceof Key  ) ) continue; // Ignore tombstones and Primes and null's
-        if( !(ov instanceof Value) ) continue; // Ignore tombstones and Primes and null's
-        Value val = (Value)ov;
-        if( val.isNull() ) { Value.STORE_get(val._key); continue; } // Another flavor of NULL
-        total += val._max;
-        if( val.isPersisted() ) swapped += val._max;
-        int len = 0;
-        byte[] m = val.rawMem();
-        Object p = val.rawPOJO();
-        if( m != null ) len += val._max;
-        if( p != null ) len += val._max;
-        if( m != null && p instanceof Chunk ) len -= val._max; // Do not double-count Chunks
-        if( len == 0 ) continue;
-        cached += len; // Accumulate total amount of cached keys
+  /** Eviction index over the local K/V store.  Every Value mapped in the
+   *  local STORE sits on a circular doubly-linked list; the links live in the
+   *  Value itself.  The Cleaner sweeps a clock hand around the list, so
+   *  choosing eviction candidates costs O(evicted) rather than a walk of the
+   *  whole STORE.  Also keeps running totals of the cached and swapped bytes,
+   *  which Values report as their in-memory forms come and go.
+   *
+   *  <p>{@link H2O#putIfMatch} must stay lock-free, so puts and removes only
+   *  flip the Value's clock state with a CAS, adjust the atomic totals and
+   *  queue the Value.  The list itself belongs to the Cleaner thread, which
+   *  links and unlinks the queued Values at the start of every pass and as
+   *  the hand moves. */
+  static final class Clock {
+    private static final int ON=1, GONE=2; // Value._clkState, 0 until first put
+    private static final AtomicIntegerFieldUpdater<Value> STATE   = AtomicIntegerFieldUpdater.newUpdater(Value.class,"_clkState");
+    private static final AtomicIntegerFieldUpdater<Value> CACHED  = AtomicIntegerFieldUpdater.newUpdater(Value.class,"_clkCached");
+    private static final AtomicIntegerFieldUpdater<Value> SWAPPED = AtomicIntegerFieldUpdater.newUpdater(Value.class,"_clkSwapped");
+    private static final Value HEAD = new Value(null,0,null,(short)0,Value.TCP);
+    static { HEAD._clkNext = HEAD._clkPrev = HEAD; }
+    private static Value _hand = HEAD; // Guarded by the Clock class lock, like the links
+    private static final AtomicInteger _size = new AtomicInteger();
+    private static final AtomicLong _cached  = new AtomicLong(); // Total alive data on the clock
+    private static final AtomicLong _swapped = new AtomicLong(); // On-disk stuff
+    // Values put and removed since the Cleaner last linked them in or out
+    private static final ConcurrentLinkedQueue<Value> ADDED   = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Value> REMOVED = new ConcurrentLinkedQueue<>();
+    // Values put since the Cleaner last looked, for write-behind
+    static final ConcurrentLinkedQueue<Value> DIRTY = new ConcurrentLinkedQueue<>();
 
-        if( val._lastAccessedTime < oldest ) { // Found an older Value?
-          vold = val; // Record oldest Value seen
-          oldest = val._lastAccessedTime;
-        }
-        // Compute histogram bucket
-        int idx = (int)((val._lastAccessedTime - eldest)/_hStep);
-        if( idx < 0 ) idx = 0;
-        else if( idx >= _hs.length ) idx = _hs.length-1;
-        _hs[idx] += len;      // Bump histogram bucket
+    // Latest cached amount, without blocking
+    static long cached() { return _cached.get(); }
+    static long swapped(){ return _swapped.get();}
+    static int size() { return _size.get(); }
+    static boolean on( Value v ) { return v._clkState == ON; }
+
+    static void add( Value v ) {
+      while( true ) {
+        int st = v._clkState;
+        if( st == ON ) return;  // Already on the clock
+        if( STATE.compareAndSet(v,st,ON) ) break;
+      }
+      _size.incrementAndGet();
+      account(v);
+      ADDED.add(v);
+      DIRTY.add(v);
+      if( H2O.STORE.get(v._key) != v ) remove(v); // Raced with a later put of the same Key
+    }
+    static void remove( Value v ) {
+      if( STATE.getAndSet(v,GONE) == ON ) {
+        _size.decrementAndGet();
+        REMOVED.add(v);
       }
-      _cached = cached; // Total cached; NOTE: larger than sum of histogram buckets
-      _total = total;   // Total used data
-      _swapped = swapped;
-      _oldest = oldest; // Oldest seen in this pass
-      _vold = vold;
-      _clean = clean && _dirty==Long.MAX_VALUE; // Looks like a clean K/V the whole time?
+      zero(v);
+    }
+    static void clear() {
+      for( Value v : H2O.STORE.values() ) remove(v);
+      DIRTY.clear();
+    }
+    // A Value's in-memory or on-disk forms changed
+    static void recount( Value v ) { if( v._clkState == ON ) account(v); }
+    // Swap in the Value's counts, then back out again if it left the clock
+    // meanwhile: whichever of us and remove() runs last leaves it at zero.
+    private static void account( Value v ) {
+      int c = v.cachedLen(), s = v.isPersisted() ? v._max : 0;
+      _cached .addAndGet(c - CACHED .getAndSet(v,c));
+      _swapped.addAndGet(s - SWAPPED.getAndSet(v,s));
+      if( v._clkState != ON ) zero(v);
+    }
+    private static void zero( Value v ) {
+      _cached .addAndGet(-CACHED .getAndSet(v,0));
+      _swapped.addAndGet(-SWAPPED.getAndSet(v,0));
     }
 
-    // Compute the time (in msec) for which we need to throw out things
-    // to throw out enough things to hit the desired cached memory level.
-    long clean_to( long desired ) {
-      long age = _eldest;       // Age of bucket zero
-      if( _cached < desired ) return age; // Already there; nothing to remove
-      long s = 0;               // Total amount toss out
-      for( long t : _hs ) {     // For all buckets...
-        s += t;                 // Raise amount tossed out
-        age += _hStep;          // Raise age beyond which you need to go
-        if( _cached - s < desired ) break;
+    // Bring the list up to date with the queued puts and removes
+    static synchronized void catchUp() {
+      Value v;
+      while( (v = ADDED.poll()) != null )
+        if( v._clkState == ON && v._clkNext == null ) link(v);
+      while( (v = REMOVED.poll()) != null )
+        if( v._clkState != ON && v._clkNext != null ) unlink(v);
+    }
+    private static void link( Value v ) {
+      Value prev = _hand._clkPrev;     // Insert just behind the hand: last to be visited
+      v._clkPrev = prev;  v._clkNext = _hand;
+      prev._clkNext = v;  _hand._clkPrev = v;
+    }
+    private static void unlink( Value v ) {
+      if( _hand == v ) _hand = v._clkNext;
+      v._clkPrev._clkNext = v._clkNext;
+      v._clkNext._clkPrev = v._clkPrev;
+      v._clkPrev = v._clkNext = null;
+    }
+    // Advance the hand, returning the live Value it passed; null if the clock is empty
+    static synchronized Value next() {
+      catchUp();
+      while( true ) {
+        if( _hand == HEAD ) _hand = HEAD._clkNext;
+        if( _hand == HEAD ) return null;
+        Value v = _hand;
+        _hand = v._clkNext;
+        if( v._clkState == ON ) return v;
+        unlink(v);              // Removed, and not yet unlinked
       }
-      return age;
     }
 
     // Pretty print
-    @Override public String toString() {
-      long x = _eldest;
-      long now = System.currentTimeMillis();
-      return "H(cached:"+(_cached>>20)+"M, eldest:"+x+"L < +"+(_oldest-x)+"ms <...{"+_hStep+"ms}...< +"+(_hStep*_hs.length)+"ms < +"+(now-x)+")";
+    static String string() {
+      return "Clock(cached:"+(cached()>>20)+"M, swapped:"+(swapped()>>20)+"M, values:"+size()+")";
     }
   }
 }
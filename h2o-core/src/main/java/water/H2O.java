@@ -47,6 +47,7 @@ import water.init.NodePersistentStorage;
 import water.nbhm.NonBlockingHashMap;
 import water.parser.ParserService;
 import water.persist.PersistManager;
+import water.util.BlockCodec;
 import water.util.GAUtils;
 import water.util.Log;
 import water.util.NetworkUtils;
@@ -119,6 +120,25 @@ final public class H2O {
             "    -ice_root <fileSystemPath>\n" +
             "          The directory where H2O spills temporary data to disk.\n" +
             "\n" +
+            "    -ice_mmap\n" +
+            "          Spill to large pre-allocated memory-mapped swap files in\n" +
+            "          ice_root, instead of one file per spilled value.\n" +
+            "\n" +
+            "    -off_heap_mem <megabytes>\n" +
+            "          Size of the native (off-heap) memory tier which cold data is\n" +
+            "          moved into before being spilled to disk.\n" +
+            "          (The default is 0, no off-heap tier.)\n" +
+            "\n" +
+            "    -chunk_codec <none,lz,deflate>\n" +
+            "          Compress cold data in memory with this codec before moving\n" +
+            "          it off-heap or to disk.\n" +
+            "          (The default is none.)\n" +
+            "\n" +
+            "    -wire_codec <none,lz,deflate>\n" +
+            "          Compress big payloads (data chunks, models) sent to other\n" +
+            "          nodes with this codec; small messages are never compressed.\n" +
+            "          (The default is none.)\n" +
+            "\n" +
             "    -log_dir <fileSystemPath>\n" +
             "          The directory where H2O writes logs to disk.\n" +
             "          (This usually has a good default that you need not change.)\n" +
@@ -248,6 +268,18 @@ final public class H2O {
     /** -cleaner; enable user-mode spilling of big data to disk in ice_root */
     public boolean cleaner = false;
 
+    /** -ice_mmap; spill into pre-allocated memory-mapped swap files instead of one file per Value */
+    public boolean ice_mmap = false;
+
+    /** -off_heap_mem=megabytes; bytes of native memory the Cleaner may move cold Chunks into; 0 disables */
+    public long off_heap_mem = 0;
+
+    /** -chunk_codec=none|lz|deflate; codec the Cleaner compresses cold Chunks in memory with; null disables */
+    public String chunk_codec = null;
+
+    /** -wire_codec=none|lz|deflate; codec big payloads sent to other nodes are compressed with; null disables */
+    public String wire_codec = null;
+
     /** -nthreads=nthreads; Max number of F/J threads in the low-priority batch queue */
     public short nthreads= (short)Runtime.getRuntime().availableProcessors();
 
@@ -449,6 +481,25 @@ final public class H2O {
         i = s.incrementAndCheck(i, args);
         ARGS.ice_root = args[i];
       }
+      else if (s.matches("ice_mmap")) {
+        ARGS.ice_mmap = true;
+      }
+      else if (s.matches("off_heap_mem")) {
+        i = s.incrementAndCheck(i, args);
+        ARGS.off_heap_mem = (long)s.parseInt(args[i]) << 20;
+      }
+      else if (s.matches("chunk_codec")) {
+        i = s.incrementAndCheck(i, args);
+        try { BlockCodec.forName(args[i]); }
+        catch (IllegalArgumentException e) { parseFailed(e.getMessage()); }
+        ARGS.chunk_codec = args[i];
+      }
+      else if (s.matches("wire_codec")) {
+        i = s.incrementAndCheck(i, args);
+        try { BlockCodec.forName(args[i]); }
+        catch (IllegalArgumentException e) { parseFailed(e.getMessage()); }
+        ARGS.wire_codec = args[i];
+      }
       else if (s.matches("log_dir")) {
         i = s.incrementAndCheck(i, args);
         ARGS.log_dir = args[i];
@@ -1665,6 +1716,9 @@ final public class H2O {
     // If the K/V mapping is changing, let the store cleaner just overwrite.
     // If the K/V mapping is new, let the store cleaner just create
     if( old != null && val == null ) old.removePersist(); // Remove the old guy
+    if( old != null && val != old ) old.releaseOffHeap(); // Freed once racing readers of old are done
+    if( old != null && val != old ) Cleaner.Clock.remove(old); // Keep the eviction clock in sync
+    if( val != null ) Cleaner.Clock.add(val);
     if( val != null ) {
       Cleaner.dirty_store(); // Start storing the new guy
       if( old==null ) Scope.track_internal(key); // New Key - start tracking
@@ -1675,9 +1729,9 @@ final public class H2O {
   // Get the value from the store
   public static void raw_remove(Key key) {
     Value v = STORE.remove(key);
-    if( v != null ) v.removePersist();
+    if( v != null ) { v.removePersist(); Cleaner.Clock.remove(v); }
   }
-  public static void raw_clear() { STORE.clear(); }
+  public static void raw_clear() { Cleaner.Clock.clear(); STORE.clear(); }
   public static boolean containsKey( Key key ) { return STORE.get(key) != null; }
   static Key getk( Key key ) { return STORE.getk(key); }
   public static Set<Key> localKeySet( ) { return STORE.keySet(); }
@@ -9,7 +9,9 @@ import java.nio.channels.DatagramChannel;
 import java.nio.channels.SocketChannel;
 import java.util.*;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import water.RPC.RPCCall;
 import water.nbhm.NonBlockingHashMap;
@@ -297,7 +299,14 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
   // messages which are presented in their entirety (not streamed) thus never
   // need another (nested) TCP channel.
   private transient UDP_TCP_SendThread _sendThread = null; // set notnull if properly interned, and done before first sendMessage
+
+  /** Small-message batching totals over all send threads of this node:
+   *  messages sent, batches (writes) they went out in, times a busy sender
+   *  lingered for more messages, and lingers which got one. */
+  public static final AtomicLong SMALL_MSGS = new AtomicLong(), SMALL_BATCHES = new AtomicLong(), LINGERS = new AtomicLong(), LINGER_HITS = new AtomicLong();
   public void sendMessage( ByteBuffer bb, byte msg_priority ) { _sendThread.sendMessage(bb,msg_priority); }
+  // Break the small-message connection to this node; for tests
+  void dropSendChannel() { _sendThread.dropChan(); }
 
   /**
    * Returns a new connection of type {@code tcpType}, the type can be either
@@ -346,6 +355,12 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
     volatile boolean _stopRequested;
     private ByteChannel _chan;  // Lazily made on demand; closed & reopened on error
     private final ByteBuffer _bb; // Reusable output large buffer
+    private int _lastBatch;       // Messages in the last batch written; >1 means busy
+
+    // Longest wait for more small messages before writing a batch, and the
+    // batch size past which there's no point waiting
+    static final long LINGER_NANOS = 20*1000;
+    static final int LINGER_BYTES = 16*1024;
   
     public UDP_TCP_SendThread(){
       super("UDP-TCP-SEND-" + H2ONode.this);
@@ -385,8 +400,10 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
     @Override public void run(){
       try {
         while (!_stopRequested) {            // Forever loop
+          int nmsgs = 0;
           try {
             ByteBuffer bb = _msgQ.take(); // take never returns null but blocks instead
+            boolean lingered = false;
             while( bb != null ) {         // while have an BB to process
               assert !bb.isDirect() : "Direct BBs already got recycled";
               assert bb.limit()+1+2 <= _bb.capacity() : "Small message larger than the output buffer";
@@ -395,10 +412,28 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
               _bb.putChar((char)bb.limit());
               _bb.put(bb.array(),0,bb.limit()); // Jam this BB into the existing batch BB, all in one go (it all fits)
               _bb.put((byte)0xef);// Sentinel byte
+              nmsgs++;
               bb = _msgQ.poll();  // Go get more, same batch
+              // Busy sender: wait a moment for the rest of the burst, so it
+              // goes out in one write.  An idle sender never waits.
+              if( bb == null && !lingered && _lastBatch > 1 && _bb.position() < LINGER_BYTES ) {
+                lingered = true;
+                LINGERS.incrementAndGet();
+                bb = _msgQ.poll(LINGER_NANOS, TimeUnit.NANOSECONDS);
+                if( bb != null ) LINGER_HITS.incrementAndGet();
+              }
             }
             sendBuffer();         // Send final trailing BBs
-          } catch (InterruptedException e) { /*ignore*/ }
+          } catch (InterruptedException e) {
+            // Interrupted while lingering: send the batch now rather than sit
+            // on it until the next message.  This thread runs until
+            // _stopRequested, so the interrupt needs no other handling.
+            if( _bb.position() > 0 ) sendBuffer();
+          }
+          if( nmsgs > 0 ) {
+            _lastBatch = nmsgs;
+            SMALL_MSGS.addAndGet(nmsgs);
+          }
         }
       } catch(Throwable t) { throw Log.throwErr(t); }
       if(_chan != null) {
@@ -409,7 +444,9 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
   
     void sendBuffer(){
       int retries = 0;
+      boolean reopened = false;
       _bb.flip();                 // limit set to old position; position set to 0
+      if( _bb.hasRemaining() ) SMALL_BATCHES.incrementAndGet();
       while( !_stopRequested && _bb.hasRemaining()) {
         try {
           ByteChannel chan = _chan == null ? (_chan=openChan()) : _chan;
@@ -425,8 +462,10 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
             Log.err("Got IO error when sending batch UDP bytes: ",ioe);
             retries = 150;      // Throttle the pace of error msgs
           }
-          if( _chan != null )
+          if( _chan != null ) {
             try { _chan.close(); } catch (Throwable t) {/*ignored*/}
+            reopened = true;
+          }
           _chan = null;
           retries++;
           final int sleep = Math.min(5000,retries << 1);
@@ -434,8 +473,16 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
         }
       }
       _bb.clear();            // Position set to 0; limit to capacity
+      if( reopened && !_stopRequested ) resendInFlight();
     }
   
+    // Close the channel under the writer, as-if the connection broke; the
+    // next write fails, reopens and resends.  For tests.
+    void dropChan() {
+      ByteChannel chan = _chan;
+      if( chan != null ) try { chan.close(); } catch (IOException e) {/*ignored*/}
+    }
+
     // Open channel on first write attempt
     private ByteChannel openChan() throws IOException {
       return H2ONode.openChan(TCPReceiverThread.TCP_SMALL,_socketFactory, _key.getAddress(), _key.getPort());
@@ -558,6 +605,24 @@ public final class H2ONode extends Iced<H2ONode> implements Comparable {
     }
   }
 
+  // The small-message connection to this node broke and was reopened; what
+  // was written to the old one may never have arrived.  Without UDP there are
+  // no timeout threads resending, so resend now: our RPCs still waiting on
+  // this node, and our answers it has not ACKACK'd.  The far end filters the
+  // dups as usual (NACK for work in progress, ACK again for work done).
+  void resendInFlight() {
+    if( H2O.ARGS.useUDP ) return; // The timeout threads cover this
+    H2O.submitTask(new H2O.H2OCountedCompleter(H2O.MIN_HI_PRIORITY) {
+      @Override public void compute2() {
+        for( RPC t : tasks() )
+          if( !t.isDone() && !t._nack ) t.call();
+        for( RPCCall rpc : _work.values() )
+          if( rpc._computedAndReplied && rpc._dt != null ) rpc.resend_ack();
+        tryComplete();
+      }
+    });
+  }
+
   // Resend ACK's, in case the UDP ACKACK got dropped.  Note that even if the
   // ACK was sent via TCP, the ACKACK might be dropped.  Further: even if we
   // *know* the client got our TCP response, we do not know *when* he'll
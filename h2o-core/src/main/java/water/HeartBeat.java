@@ -50,6 +50,18 @@ public class HeartBeat extends Iced<HeartBeat> {
 
   public int _keys;       // Number of LOCAL keys in this node, cached or homed
 
+  public long _cleaner_pass_msec; // Latency of the last Cleaner pass
+  public long _cleaner_freed;     // Heap bytes freed by the last Cleaner pass
+
+  public long _wire_raw;          // Bytes given to the -wire_codec so far
+  public long _wire_zipped;       // ... and what they compressed to
+  public long _wire_zip_ns;       // Nanos spent in the -wire_codec
+
+  public long _small_msgs;        // Small messages sent so far
+  public long _small_batches;     // ... in this many batched writes
+  public long _lingers;           // Times a busy sender waited for more messages
+  public long _linger_hits;       // ... and got one
+
   int _free_disk;        // Free disk (internally stored in megabyte precision)
   void set_free_disk(long n) { _free_disk = (int)(n>>20); }
   public long get_free_disk()  { return ((long)_free_disk)<<20 ; }
@@ -67,15 +67,24 @@ public class HeartBeatThread extends Thread {
       long kv_gc = Cleaner.KV_USED_AT_LAST_GC;
       long heap_gc = Cleaner.HEAP_USED_AT_LAST_GC;
       long pojo_gc = Math.max(heap_gc - kv_gc,0);
-      long kv_mem = Cleaner.Histo.cached(); // More current than last FullGC numbers; can skyrocket
+      long kv_mem = Cleaner.Clock.cached(); // More current than last FullGC numbers; can skyrocket
       // Since last FullGC, assuming POJO remains constant and KV changed: new free memory
       long free_mem = Math.max(MemoryManager.MEM_MAX-kv_mem-pojo_gc,0);
       long pojo_mem = MemoryManager.MEM_MAX-kv_mem-free_mem;
       hb.set_kv_mem(kv_mem);
       hb.set_pojo_mem(pojo_mem);
       hb.set_free_mem(free_mem);
-      hb.set_swap_mem(Cleaner.Histo.swapped());
+      hb.set_swap_mem(Cleaner.Clock.swapped());
       hb._keys = H2O.STORE.size();
+      hb._cleaner_pass_msec = Cleaner.LAST_PASS_MSEC;
+      hb._cleaner_freed = Cleaner.LAST_PASS_FREED;
+      hb._wire_raw = AutoBuffer.WIRE_RAW.get();
+      hb._wire_zipped = AutoBuffer.WIRE_ZIPPED.get();
+      hb._wire_zip_ns = AutoBuffer.WIRE_ZIP_NS.get();
+      hb._small_msgs = H2ONode.SMALL_MSGS.get();
+      hb._small_batches = H2ONode.SMALL_BATCHES.get();
+      hb._lingers = H2ONode.LINGERS.get();
+      hb._linger_hits = H2ONode.LINGER_HITS.get();
 
       try {
         hb._system_load_average = ((Double)mbs.getAttribute(os, "SystemLoadAverage")).floatValue();
@@ -3,11 +3,19 @@ package water;
 import jsr166y.CountedCompleter;
 import jsr166y.ForkJoinPool;
 import water.fvec.*;
+import water.nbhm.NonBlockingHashMapLong;
 import water.util.DistributedException;
 import water.util.PrettyPrint;
+import water.util.VecUtils;
 import water.fvec.Vec.VectorGroup;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Map/Reduce style distributed computation.
@@ -167,9 +175,138 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   /** The range of Nodes to work on remotely */
   protected short _nlo, _nhi;
 
-  /** Internal field to track a range of local Chunks to work on */
+  /** Internal field to track a range of local Chunks to work on, as indices
+   *  into {@link #_locals} */
   transient protected int _lo, _hi;
 
+  /** Chunk (or Key) indices homed on this node, found once per node so the
+   *  fork tree only spans local work; null means every index, 0 to _hi. */
+  transient private int[] _locals;
+
+  /** Most local Chunks handed to one leaf task, mapped one after another on
+   *  the same instance.  More than 1 saves task clones and reduces on
+   *  many-chunk Frames, but only suits map calls which accumulate into the
+   *  task rather than overwrite it.  Set with {@link #withLeafChunks}. */
+  protected int _leafChunks = 1;
+
+  public T withLeafChunks(int n) { assert n >= 1; _leafChunks = n; return self(); }
+
+  /** If true, leaves map into one accumulator task per worker thread instead
+   *  of each keeping its own result, and the accumulators are reduced once
+   *  per node before the results go over the wire.  Suits tasks with big
+   *  per-instance state (Gram matrices, histograms, hash tables), but needs
+   *  a reduce which does not depend on chunk order.  Set with
+   *  {@link #withThreadAccumulators}. */
+  protected boolean _threadAccumulate;
+
+  public T withThreadAccumulators() { _threadAccumulate = true; return self(); }
+
+  /** Per-thread accumulators on this node, shared by all local clones */
+  transient private NonBlockingHashMapLong<T> _accs;
+
+  /** Large element-wise additive results (Gram rows, histogram bins, ...).
+   *  When they total more than one segment, a remote node keeps them out of
+   *  its reply; the receiving node pulls them a segment at a time and adds
+   *  each straight into its own result, so it never holds a second full copy
+   *  and the next segment is in flight while the last is added.  Null (the
+   *  default) ships results whole.  The arrays must be non-null and have the
+   *  same lengths on every node.  {@link #reduce} sees tasks whose streamed
+   *  arrays have already been added in and are gone, see
+   *  {@link #streamedSums(double[][])}. */
+  protected double[][] streamedSums() { return null; }
+
+  /** Install the streamed arrays; null drops them from a reply about to be
+   *  sent, fresh zero arrays rebuild them on a node with no result of its
+   *  own to add them into. */
+  protected void streamedSums( double[][] sums ) { }
+
+  /** Doubles per streamed segment */
+  static final int STREAM_SEGMENT = 1<<17;
+
+  /** Streamed results held by this node until their receiver pulls them.
+   *  A receiver which fails before pulling them all releases the rest; ones
+   *  still not pulled after STREAM_EXPIRE_MS (their receiver died or never
+   *  got that far) are dropped. */
+  private static final NonBlockingHashMapLong<Streamed> STREAMED = new NonBlockingHashMapLong<>();
+  private static final AtomicLong STREAM_IDS = new AtomicLong();
+  static final long STREAM_EXPIRE_MS = 60*60*1000;
+  static int streamedHeld() { return STREAMED.size(); } // exposed for testing only
+  private static class Streamed {
+    final double[][] _sums;
+    final long _born = System.currentTimeMillis();
+    Streamed( double[][] sums ) { _sums = sums; }
+  }
+
+  /** Id of this reply's streamed sums on its sender, 0 if shipped whole;
+   *  and their array lengths */
+  long _streamId;
+  int[] _streamLens;
+
+  /** If true, the streamed sums are not reduced up the RPC tree to the
+   *  caller but all-reduced among the nodes: each node sums one block of
+   *  them from every node (reduce-scatter), then every node gathers all the
+   *  summed blocks.  Each node sends and receives about twice the size of
+   *  the sums whatever the cloud size, instead of every tree level adding
+   *  full copies, and the result lands on every node; see
+   *  {@link #onAllReduced}.  Set with {@link #withAllReduce}, or with
+   *  {@link #withReduceScatter} when only the caller needs the result. */
+  protected boolean _allReduce;
+  /** If false, the reduced blocks are gathered by the caller alone */
+  private boolean _allGather;
+
+  public T withAllReduce() { _allReduce = _allGather = true; return self(); }
+  /** Reduce-scatter the streamed sums as {@link #withAllReduce} does, but
+   *  gather them on the caller only: for results (e.g. a Gram) which nothing
+   *  else reads, so no node pays for a copy it does not use. */
+  public T withReduceScatter() { _allReduce = true; _allGather = false; return self(); }
+
+  /** With {@link #withAllReduce}, called on every node once the sums are
+   *  all-reduced, on a copy of the final result (on the caller, the result
+   *  itself) holding the full sums. */
+  protected void onAllReduced() { }
+
+  /** Cloud-wide id of an all-reduce, picked by the caller */
+  private long _arId;
+
+  /** Local sums parked for an all-reduce, and the block of the reduced sums
+   *  this node owns.  The caller releases both, on every node, once done or
+   *  failed. */
+  private static final NonBlockingHashMapLong<double[][]> PARKED = new NonBlockingHashMapLong<>();
+  private static final NonBlockingHashMapLong<double[]> BLOCKS = new NonBlockingHashMapLong<>();
+  static int allReduceHeld() { return PARKED.size()+BLOCKS.size(); } // exposed for testing only
+
+  /** If true, a node which runs out of local Chunks takes half the
+   *  not-yet-started Chunks of the node with the most left, fetching (and
+   *  caching) them, until no node has enough left to be worth it.  Cuts the
+   *  tail of passes over skewed Frames without a rebalance, but stolen Chunks
+   *  are mapped and reduced on the thief: it needs a reduce which does not
+   *  depend on chunk order, no output Vecs and no writes to the input Chunks
+   *  (a write fails the task).  Ignored over volatile Vecs.  Set with
+   *  {@link #withWorkStealing}. */
+  protected boolean _steal;
+
+  public T withWorkStealing() { _steal = true; return self(); }
+
+  /** Cloud-wide id of a work-stealing pass, picked by the caller */
+  private long _stealId;
+
+  /** Which of this node's local Chunks are taken, shared by local clones;
+   *  null without work stealing */
+  transient private Claims _claims;
+
+  /** Mapping Chunks homed elsewhere, taken from another node */
+  transient private boolean _stolen;
+
+  /** Results of the Chunks this node took from others, reduced in with the
+   *  local ones */
+  transient private ArrayList<T> _stolenRes;
+
+  /** Fewest unstarted Chunks worth stealing from a node */
+  static final int MIN_STEAL = 2;
+
+  /** Claims of the local Chunks of running work-stealing passes */
+  private static final NonBlockingHashMapLong<Claims> STEALABLE = new NonBlockingHashMapLong<>();
+
   /** We can add more things to block on - in case we want a bunch of lazy
    *  tasks produced by children to all end before this top-level task ends.
    *  Semantically, these will all complete before we return from the top-level
@@ -284,6 +421,11 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
    *  an array of Keys, and called once-per-Key on the Key's Home node */
   public void map( Key key ) { }
 
+  /** Same as {@link #map(Key)}, also given the Key's index in the Key array
+   *  the task was started with (a node only maps its homed Keys, so the index
+   *  is not implied by the order of the calls). */
+  public void map( Key key, int kidx ) { map(key); }
+
   /** Override to combine results from 'mrt' into 'this' MRTask.  Both 'this'
    *  and 'mrt' are guaranteed to either have map() run on them, or be the
    *  results of a prior reduce().  Reduce is optional if, e.g., the result is
@@ -513,11 +655,21 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       (_profile = new MRProfile(this))._localstart = System.currentTimeMillis();
     // Make a blockable Futures for both internal and user work to block on.
     _fs = new Futures();
+    if( _topGlobal && _allReduce ) {
+      if( _run_local || H2O.CLOUD.size() == 1 ) _allReduce = false; // Nothing to spread
+      else while( _arId == 0 ) _arId = ThreadLocalRandom.current().nextLong();
+    }
+    if( _topGlobal && _steal ) {
+      if( _run_local || _fr == null || _output_types != null || H2O.CLOUD.size() == 1 ) _steal = false;
+      else for( Vec v : _fr.vecs() ) if( v.isVolatile() ) _steal = false; // Written in place, unseen
+      if( _steal ) while( _stealId == 0 ) _stealId = ThreadLocalRandom.current().nextLong();
+    }
     if(modifiesVolatileVecs() && _fr != null){
       for(Vec v:_fr.vecs())
         if(v.isVolatile())v.preWriting();
     }
     _topLocal = true;
+    _accs = _threadAccumulate ? new NonBlockingHashMapLong<T>() : null;
     // Check for global vs local work
     int selfidx = selfidx();
     int nlo = subShift(selfidx);
@@ -539,15 +691,28 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     }
 
     if( _fr != null ) {                       // Doing a Frame
-      _lo = 0;  _hi = _fr.numCols()==0 ? 0 : _fr.anyVec().nChunks(); // Do All Chunks
       // get the Vecs from the K/V store, to avoid racing fetches from the map calls
       _fr.vecs();
+      _lo = 0;
+      if( _fr.numCols()==0 ) _hi = 0;
+      else if( _run_local ) _hi = _fr.anyVec().nChunks(); // Do All Chunks
+      else _hi = (_locals = VecUtils.getLocalChunkIds(_fr.anyVec())).length; // Do Homed Chunks
+      if( _steal && !H2O.ARGS.client ) {
+        STEALABLE.put(_stealId, _claims = new Claims(_locals,this));
+        addToPendingCount(1);   // Held by the stealing, see probe()
+      }
     } else if( _keys != null ) {    // Else doing a set of Keys
-      _lo = 0;  _hi = _keys.length; // Do All Keys
+      int[] locals = new int[_keys.length];
+      int n = 0;
+      for( int i=0; i<_keys.length; i++ )
+        if( _keys[i].home() ) locals[n++] = i;
+      _locals = Arrays.copyOf(locals,n);
+      _lo = 0;  _hi = n;            // Do Homed Keys
     }
     // Setup any user's shared local structures for both normal cluster nodes
     // and any client; want this for possible reduction ONTO client
     setupLocal();
+    if( _claims != null ) _claims.done(); // Set up: stealing may start
     if(_profile!=null) _profile._localdone = System.currentTimeMillis();
   }
 
@@ -580,7 +745,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   @Override public final void compute2() {
     assert _left == null && _rite == null && _res == null;
     if(_profile!=null) _profile._mapstart = System.currentTimeMillis();
-    if( (_hi-_lo) >= 2 ) { // Multi-chunk case: just divide-and-conquer to 1 chunk
+    if( (_hi-_lo) > _leafChunks ) { // Multi-chunk case: just divide-and-conquer to leaf size
       final int mid = (_lo+_hi)>>>1; // Mid-point
       _left = copyAndInit();
       _rite = copyAndInit();
@@ -592,83 +757,128 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       if(_profile!=null) _profile._mapdone = System.currentTimeMillis();
       return;                   // Not complete until the fork completes
     }
-    // Zero or 1 chunks, and further chunk might not be homed here
-    if( _fr==null ) {           // No Frame, so doing Keys?
-      if( _keys == null ||     // Once-per-node mode
-          _hi > _lo && _keys[_lo].home() ) {
+    // At most _leafChunks chunks, all homed here (or run local)
+    if( _accs != null && _hi > _lo ) {
+      mapAccumulate();
+    } else if( _fr==null ) {    // No Frame, so doing Keys?
+      if( _keys == null || _hi > _lo ) { // Once-per-node mode, or homed Keys
         assert(_keys == null || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
         if(_profile!=null) _profile._userstart = System.currentTimeMillis();
-        if( _keys != null ) map(_keys[_lo]);
+        if( _keys != null )
+          for( int i=_lo; i<_hi; i++ ) map(_keys[_locals[i]],_locals[i]);
         _res = self();        // Save results since called map() at least once!
         if(_profile!=null) _profile._closestart = System.currentTimeMillis();
       }
-    } else if( _hi > _lo ) {    // Frame, Single chunk?
-      Vec v0 = _fr.anyVec();
-      if( _run_local || v0.chunkKey(_lo).home() ) { // And chunk is homed here?
-        assert(_run_local || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
-
-        // Make decompression chunk headers for these chunks
-        Vec vecs[] = _fr.vecs();
-        Chunk bvs[] = new Chunk[vecs.length];
-        NewChunk [] appendableChunks = null;
-        for( int i=0; i<vecs.length; i++ )
-          if( vecs[i] != null ) {
-            assert _run_local || vecs[i].chunkKey(_lo).home()
-              : "Chunk="+_lo+" v0="+v0+", k="+v0.chunkKey(_lo)+"   v["+i+"]="+vecs[i]+", k="+vecs[i].chunkKey(_lo);
-            bvs[i] = vecs[i].chunkForChunkIdx(_lo);
-          }
-
-        if(_output_types != null) {
-          final VectorGroup vg = vecs[0].group();
-          _appendables = new AppendableVec[_output_types.length];
-          appendableChunks = new NewChunk[_output_types.length];
-          for(int i = 0; i < _appendables.length; ++i) {
-            _appendables[i] = new AppendableVec(vg.vecKey(_vid+i),_output_types[i]);
-            appendableChunks[i] = _appendables[i].chunkForChunkIdx(_lo);
-          }
-        }
-        // Call all the various map() calls that apply
-        if(_profile!=null)
-          _profile._userstart = System.currentTimeMillis();
-
-        int num_fr_vecs = _fr.vecs().length;
-        int num_outputs = _output_types == null? 0 : _output_types.length;
-        if (num_outputs == 0) {
-          if (num_fr_vecs == 1) map(bvs[0]);
-          else if (num_fr_vecs == 2) map(bvs[0], bvs[1]);
-          else if (num_fr_vecs == 3) map(bvs[0], bvs[1], bvs[2]);
-          map(bvs);
-        }
-        else if (num_outputs == 1) {  // convenience versions for cases with single output.
-          assert appendableChunks != null;
-          if (num_fr_vecs == 1) map(bvs[0], appendableChunks[0]);
-          else if (num_fr_vecs == 2) map(bvs[0], bvs[1], appendableChunks[0]);
-          // else if (fr_vecs_length == 3) map(bvs[0], bvs[1], bvs[2], appendableChunks[0]);
-          map(bvs, appendableChunks[0]);
-        }
-        else if (num_outputs == 2) {  // convenience versions for cases with 2 outputs (e.g split).
-          assert appendableChunks != null;
-          if (num_fr_vecs == 1) map(bvs[0], appendableChunks[0], appendableChunks[1]);
-          // else if (fr_vecs_length == 2) map(bvs[0], bvs[1], appendableChunks[0], appendableChunks[1]);
-          // else if (fr_vecs_length == 3) map(bvs[0], bvs[1], bvs[2], appendableChunks[0], appendableChunks[1]);
-          map(bvs, appendableChunks[0], appendableChunks[1]);
+    } else if( _hi > _lo ) {    // Frame, local chunks?
+      assert(_run_local || !H2O.ARGS.client) : "Client node should not process any keys in MRTask!";
+      if(_profile!=null)
+        _profile._userstart = System.currentTimeMillis();
+      _appendables = null;      // Fresh outputs for this leaf
+      boolean mapped = false;
+      for( int i=_lo; i<_hi; i++ )
+        if( _claims == null || _claims.claim(i) ) { // Else stolen by another node
+          mapChunk(_locals == null ? i : _locals[i]);
+          mapped = true;
         }
-        if (num_outputs >= 0)
-          map(bvs, appendableChunks);
-
-        _res = self();          // Save results since called map() at least once!
-        // Further D/K/V put any new vec results.
-        if(_profile!=null)
-          _profile._closestart = System.currentTimeMillis();
-        for( Chunk bv : bvs )  bv.close(_lo,_fs);
-        if( _output_types != null) for(NewChunk nch:appendableChunks)nch.close(_lo, _fs);
-      }
+      if( mapped ) _res = self(); // Save results since called map() at least once!
     }
     if(_profile!=null)
       _profile._mapdone = System.currentTimeMillis();
     tryComplete();
   }
 
+  // Map this leaf's chunks or keys into the calling thread's accumulator.
+  // The accumulator is taken out of the table while mapping, so a leaf run
+  // re-entrantly on this thread (e.g. while map() blocks) gets its own; the
+  // two are merged when put back.  Results reach _res only in foldAccumulators.
+  private void mapAccumulate() {
+    final long tid = Thread.currentThread().getId();
+    T acc = _accs.remove(tid);
+    if( acc == null ) acc = self(); // First leaf on this thread keeps the results
+    if(_profile!=null) _profile._userstart = System.currentTimeMillis();
+    for( int i=_lo; i<_hi; i++ ) {
+      if( _fr == null ) acc.map(_keys[_locals[i]],_locals[i]);
+      else if( _claims == null || _claims.claim(i) ) ((MRTask<T>)acc).mapChunk(_locals == null ? i : _locals[i]);
+    }
+    T prev = _accs.put(tid, acc);
+    if( prev != null ) acc.reduce4(prev);
+  }
+
+  // Reduce the per-thread accumulators into _res, once all local leaves are done
+  private void foldAccumulators() {
+    if( _accs == null ) return;
+    for( T acc : _accs.values() ) {
+      if( _res == null ) _res = acc;
+      else if( _res != acc ) _res.reduce4(acc);
+    }
+    _accs = null;
+  }
+
+  // Map over one Chunk index of the Frame, and close its Chunks
+  private void mapChunk( int cidx ) {
+    Vec v0 = _fr.anyVec();
+    assert _run_local || _stolen || v0.chunkKey(cidx).home();
+    // Make decompression chunk headers for these chunks
+    Vec vecs[] = _fr.vecs();
+    Chunk bvs[] = new Chunk[vecs.length];
+    NewChunk [] appendableChunks = null;
+    for( int i=0; i<vecs.length; i++ )
+      if( vecs[i] != null ) {
+        assert _run_local || _stolen || vecs[i].chunkKey(cidx).home()
+          : "Chunk="+cidx+" v0="+v0+", k="+v0.chunkKey(cidx)+"   v["+i+"]="+vecs[i]+", k="+vecs[i].chunkKey(cidx);
+        bvs[i] = vecs[i].chunkForChunkIdx(cidx);
+      }
+
+    if(_output_types != null) {
+      if( _appendables == null ) { // Shared by all chunks of this leaf
+        final VectorGroup vg = vecs[0].group();
+        _appendables = new AppendableVec[_output_types.length];
+        for(int i = 0; i < _appendables.length; ++i)
+          _appendables[i] = new AppendableVec(vg.vecKey(_vid+i),_output_types[i]);
+      }
+      appendableChunks = new NewChunk[_output_types.length];
+      for(int i = 0; i < _appendables.length; ++i)
+        appendableChunks[i] = _appendables[i].chunkForChunkIdx(cidx);
+    }
+    // Call all the various map() calls that apply
+    int num_fr_vecs = _fr.vecs().length;
+    int num_outputs = _output_types == null? 0 : _output_types.length;
+    if (num_outputs == 0) {
+      if (num_fr_vecs == 1) map(bvs[0]);
+      else if (num_fr_vecs == 2) map(bvs[0], bvs[1]);
+      else if (num_fr_vecs == 3) map(bvs[0], bvs[1], bvs[2]);
+      map(bvs);
+    }
+    else if (num_outputs == 1) {  // convenience versions for cases with single output.
+      assert appendableChunks != null;
+      if (num_fr_vecs == 1) map(bvs[0], appendableChunks[0]);
+      else if (num_fr_vecs == 2) map(bvs[0], bvs[1], appendableChunks[0]);
+      // else if (fr_vecs_length == 3) map(bvs[0], bvs[1], bvs[2], appendableChunks[0]);
+      map(bvs, appendableChunks[0]);
+    }
+    else if (num_outputs == 2) {  // convenience versions for cases with 2 outputs (e.g split).
+      assert appendableChunks != null;
+      if (num_fr_vecs == 1) map(bvs[0], appendableChunks[0], appendableChunks[1]);
+      // else if (fr_vecs_length == 2) map(bvs[0], bvs[1], appendableChunks[0], appendableChunks[1]);
+      // else if (fr_vecs_length == 3) map(bvs[0], bvs[1], bvs[2], appendableChunks[0], appendableChunks[1]);
+      map(bvs, appendableChunks[0], appendableChunks[1]);
+    }
+    if (num_outputs >= 0)
+      map(bvs, appendableChunks);
+
+    // Chunks may be mapped away from their home; nothing may write them
+    if( _steal )
+      for( Chunk bv : bvs )
+        if( bv.chk2() != null )
+          throw new IllegalStateException(getClass().getName()+" writes its input Chunks, which work stealing does not allow");
+
+    // Further D/K/V put any new vec results.
+    if(_profile!=null)
+      _profile._closestart = System.currentTimeMillis();
+    for( Chunk bv : bvs )  bv.close(cidx,_fs);
+    if( _output_types != null) for(NewChunk nch:appendableChunks)nch.close(cidx, _fs);
+  }
+
   /** OnCompletion - reduce the left and right into self.  Called internal by
    *  F/J.  Not expected to be user-called. */
   @Override public final void onCompletion( CountedCompleter caller ) {
@@ -678,6 +888,12 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     // alive since each one may be holding large partial results.
     reduce2(_left); _left = null;
     reduce2(_rite); _rite = null;
+    if( _stolenRes != null ) {  // Only on the top local call
+      for( T res : _stolenRes )
+        if( _res == null ) _res = res;
+        else _res.reduce4(res);
+      _stolenRes = null;
+    }
     if(_profile!=null) _profile._reducedone = System.currentTimeMillis();
     // Only on the top local call, have more completion work
     if( _topLocal ) postLocal0();
@@ -705,6 +921,8 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   // Block for other queued pending tasks.
   // Copy any final results into 'this', such that a return of 'this' has the results.
   private void postLocal0() {
+    if( _claims != null ) { STEALABLE.remove(_stealId); _claims = null; } // All taken by now
+    foldAccumulators();         // Per-thread results, if any
     closeLocal();               // User's node-local cleanup
     if(_profile!=null) _profile._closeLocalDone = System.currentTimeMillis();
     reduce3(_nleft);            // Reduce global results from neighbors.
@@ -715,11 +933,16 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     // Finally, must return all results in 'this' because that is the API -
     // what the user expects
     if( _res == null ) _nhi=-1; // Flag for no local results *at all*
-    else if( _res != this ) {   // There is a local result, and its not self
-      _res._profile = _profile; // Use my profile (not child's)
-      copyOver(_res);           // So copy into self
+    else {
+      if( _res != this ) {      // There is a local result, and its not self
+        _res._profile = _profile; // Use my profile (not child's)
+        copyOver(_res);         // So copy into self
+      }
+      if( _allReduce ) park();  // Keep local sums here for the all-reduce
+      else if( !_topGlobal ) streamOut(); // Reply to a remote caller
     }
     if( _topGlobal ) {
+      if( _allReduce && _res != null ) allReduce();
       if (_fr != null)     // Do any post-writing work (zap rollup fields, etc)
         _fr.postWrite(_fs).blockForPending();
       postGlobal();             // User's continuation work
@@ -739,11 +962,375 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       _profile.gather(mrt._profile, rpc.size_rez());
     // Unlike reduce2, results are in mrt directly not mrt._res.
     if( mrt._nhi != -1L ) {     // Any results at all?
+      if( mrt._streamId != 0 ) streamIn(rpc._target, mrt);
       if( _res == null ) _res = mrt;
       else _res.reduce4(mrt);
     }
   }
 
+  // Hold large streamed sums back from the reply, until the caller pulls them
+  private void streamOut() {
+    double[][] sums = streamedSums();
+    if( sums == null ) return;
+    int[] lens = new int[sums.length];
+    long n = 0;
+    for( int i=0; i<sums.length; i++ ) n += (lens[i] = sums[i].length);
+    if( n <= STREAM_SEGMENT ) return; // Small enough to ship whole
+    long now = System.currentTimeMillis();
+    for( Map.Entry<Long,Streamed> e : STREAMED.entrySet() )
+      if( now - e.getValue()._born > STREAM_EXPIRE_MS )
+        STREAMED.remove(e.getKey(),e.getValue());
+    _streamId = STREAM_IDS.incrementAndGet();
+    _streamLens = lens;
+    STREAMED.put(_streamId, new Streamed(sums));
+    streamedSums(null);
+  }
+
+  // Pull the streamed sums of mrt from node, adding each segment into our
+  // result as it arrives while the next one is fetched
+  private void streamIn( H2ONode node, T mrt ) {
+    T into = _res;
+    if( into == null ) {        // Nothing to add into: rebuild mrt's own
+      double[][] sums = new double[mrt._streamLens.length][];
+      for( int i=0; i<sums.length; i++ ) sums[i] = MemoryManager.malloc8d(mrt._streamLens[i]);
+      mrt.streamedSums(sums);
+      into = mrt;
+    }
+    double[][] sums = into.streamedSums();
+    long n = 0;
+    for( int len : mrt._streamLens ) n += len;
+    final int nseg = (int)((n+STREAM_SEGMENT-1)/STREAM_SEGMENT);
+    try {
+      RPC<StreamSegment> next = new RPC<>(node,new StreamSegment(mrt._streamId,0,nseg==1)).call();
+      for( int seg=0; seg<nseg; seg++ ) {
+        StreamSegment cur = next.get();
+        next = seg+1 < nseg ? new RPC<>(node,new StreamSegment(mrt._streamId,seg+1,seg+2==nseg)).call() : null;
+        segment(sums,(long)seg*STREAM_SEGMENT,cur._vals,true);
+      }
+      mrt._streamId = 0;        // The last segment released them
+      mrt._streamLens = null;
+    } finally {
+      releaseStreamed(node,mrt); // Failed part way; the rest is never wanted
+    }
+  }
+
+  // Drop the streamed sums of mrt still held on node, if any
+  private static void releaseStreamed( H2ONode node, MRTask mrt ) {
+    if( mrt == null || mrt._streamId == 0 ) return;
+    new RPC<>(node,new StreamRelease(mrt._streamId)).call();
+    mrt._streamId = 0;
+    mrt._streamLens = null;
+  }
+
+  // Drop local sums from the result, keeping them on this node for the
+  // all-reduce.  A result with _streamLens already set came from a node which
+  // parked its own.
+  private void park() {
+    if( _streamLens != null ) return;
+    double[][] sums = streamedSums();
+    if( sums == null ) return;
+    int[] lens = new int[sums.length];
+    for( int i=0; i<sums.length; i++ ) lens[i] = sums[i].length;
+    _streamLens = lens;
+    PARKED.put(_arId, sums);
+    streamedSums(null);
+  }
+
+  // Run by the caller once the tree reduce of everything else is done
+  private void allReduce() {
+    if( _streamLens == null ) { releaseAllReduce(); return; } // No sums anywhere
+    double[][] sums;
+    try {
+      new ReduceScatter(_arId,_streamLens).doAllNodes();
+      // Other nodes get a copy of this result, without the sums
+      sums = _allGather
+        ? new AllGather(_arId,_streamLens,(MRTask)clone()).doAllNodes()._sums
+        : gather(_arId,_streamLens);
+    } finally {
+      releaseAllReduce();
+    }
+    _streamLens = null;
+    streamedSums(sums);
+    if( _allGather ) onAllReduced();
+  }
+
+  // Drop the parked sums and reduced blocks of this all-reduce on every node
+  private void releaseAllReduce() {
+    long id = _arId;
+    if( id == 0 ) return;
+    _arId = 0;
+    new AllReduceRelease(id).doAllNodes();
+  }
+
+  private static long total( int[] lens ) { long n = 0; for( int len : lens ) n += len; return n; }
+  // Start of the reduced block owned by cloud member idx
+  private static long blockStart( long n, int nodes, int idx ) { return n*idx/nodes; }
+
+  // Pull [lo,hi) of every node's parked sums (reduced=false) or of the owned
+  // reduced blocks (reduced=true), a segment at a time with the next one in
+  // flight, adding each into sums (a single array starting at 'base' when
+  // dst is null).
+  private static void pullRanges( long id, long n, long lo, long hi, boolean reduced, double[][] sums, double[] dst, long base ) {
+    ArrayList<AllReduceRange> reqs = new ArrayList<>();
+    ArrayList<H2ONode> nodes = new ArrayList<>();
+    int P = H2O.CLOUD.size();
+    for( int j=0; j<P; j++ ) {
+      long jlo = reduced ? Math.max(lo,blockStart(n,P,j)) : lo;
+      long jhi = reduced ? Math.min(hi,blockStart(n,P,j+1)) : hi;
+      for( long s=jlo; s<jhi; s+=STREAM_SEGMENT ) {
+        reqs.add(new AllReduceRange(id,n,s,(int)Math.min(STREAM_SEGMENT,jhi-s),reduced));
+        nodes.add(H2O.CLOUD._memary[j]);
+      }
+    }
+    RPC<AllReduceRange> next = reqs.isEmpty() ? null : new RPC<>(nodes.get(0),reqs.get(0)).call();
+    for( int r=0; r<reqs.size(); r++ ) {
+      AllReduceRange cur = next.get();
+      next = r+1 < reqs.size() ? new RPC<>(nodes.get(r+1),reqs.get(r+1)).call() : null;
+      if( cur._vals == null ) continue; // Node had no sums
+      if( sums != null ) segment(sums,cur._lo,cur._vals,true);
+      else for( int i=0; i<cur._vals.length; i++ ) dst[(int)(cur._lo-base)+i] += cur._vals[i];
+    }
+  }
+
+  // Each node sums its block of the flattened sums over all nodes
+  private static class ReduceScatter extends MRTask<ReduceScatter> {
+    final long _id;
+    final int[] _lens;
+    ReduceScatter( long id, int[] lens ) { _id = id; _lens = lens; }
+    @Override public void setupLocal() {
+      if( H2O.ARGS.client ) return; // Owns no block
+      long n = total(_lens);
+      int P = H2O.CLOUD.size(), me = H2O.SELF.index();
+      long lo = blockStart(n,P,me), hi = blockStart(n,P,me+1);
+      double[] block = MemoryManager.malloc8d((int)(hi-lo));
+      pullRanges(_id,n,lo,hi,false,null,block,lo);
+      BLOCKS.put(_id,block);
+    }
+  }
+
+  // Every node gathers all the reduced blocks, and hands them to its copy of
+  // the result; the caller's are left in _sums
+  private static class AllGather extends MRTask<AllGather> {
+    final long _id;
+    final int[] _lens;
+    final MRTask _task;
+    transient double[][] _sums;
+    AllGather( long id, int[] lens, MRTask task ) { _id = id; _lens = lens; _task = task; }
+    @Override public void setupLocal() {
+      PARKED.remove(_id);       // Every block is reduced by now
+      double[][] sums = gather(_id,_lens);
+      if( _topGlobal ) { _sums = sums; return; }
+      _task.streamedSums(sums);
+      _task._streamLens = null;
+      _task.onAllReduced();
+    }
+  }
+
+  // Pull all the reduced blocks into fresh arrays
+  private static double[][] gather( long id, int[] lens ) {
+    double[][] sums = new double[lens.length][];
+    for( int i=0; i<sums.length; i++ ) sums[i] = MemoryManager.malloc8d(lens[i]);
+    long n = total(lens);
+    pullRanges(id,n,0,n,true,sums,null,0);
+    return sums;
+  }
+
+  private static class AllReduceRelease extends MRTask<AllReduceRelease> {
+    final long _id;
+    AllReduceRelease( long id ) { _id = id; }
+    @Override public void setupLocal() { PARKED.remove(_id); BLOCKS.remove(_id); }
+  }
+
+  // Fetch [lo,lo+len) of this node's parked sums, or of its reduced block;
+  // null if it has none
+  private static class AllReduceRange extends DTask<AllReduceRange> {
+    final long _id, _n, _lo;
+    final int _len;
+    final boolean _reduced;
+    double[] _vals;
+    AllReduceRange( long id, long n, long lo, int len, boolean reduced ) {
+      super(H2O.GET_KEY_PRIORITY); _id = id; _n = n; _lo = lo; _len = len; _reduced = reduced;
+    }
+    @Override public void compute2() {
+      if( _reduced ) {
+        double[] block = BLOCKS.get(_id);
+        long base = blockStart(_n,H2O.CLOUD.size(),H2O.SELF.index());
+        _vals = Arrays.copyOfRange(block,(int)(_lo-base),(int)(_lo-base)+_len);
+      } else {
+        double[][] sums = PARKED.get(_id);
+        if( sums != null ) segment(sums,_lo,_vals = MemoryManager.malloc8d(_len),false);
+      }
+      tryComplete();
+    }
+  }
+
+  // Copy the flattened range of sums starting at lo into vals, or add vals into it
+  private static void segment( double[][] sums, long lo, double[] vals, boolean add ) {
+    long base = 0;
+    int done = 0;
+    for( int i=0; i<sums.length && done < vals.length; i++ ) {
+      double[] ds = sums[i];
+      long end = base+ds.length;
+      if( end > lo+done ) {
+        int off = (int)(lo+done-base);
+        int len = Math.min(ds.length-off, vals.length-done);
+        if( add ) for( int j=0; j<len; j++ ) ds[off+j] += vals[done+j];
+        else System.arraycopy(ds,off,vals,done,len);
+        done += len;
+      }
+      base = end;
+    }
+    assert done == vals.length;
+  }
+
+  // Fetch one segment of streamed sums held on the node this runs on; the
+  // last one also releases them
+  private static class StreamSegment extends DTask<StreamSegment> {
+    final long _id;
+    final int _seg;
+    final boolean _last;
+    double[] _vals;
+    StreamSegment( long id, int seg, boolean last ) { super(H2O.GET_KEY_PRIORITY); _id = id; _seg = seg; _last = last; }
+    @Override public void compute2() {
+      Streamed st = _last ? STREAMED.remove(_id) : STREAMED.get(_id);
+      if( st == null )
+        throw new IllegalStateException("Streamed MRTask result #"+_id+" is no longer held on "+H2O.SELF+
+                                        "; its receiver released it after a failure, or did not pull it within "+
+                                        (STREAM_EXPIRE_MS/60000)+" minutes");
+      double[][] sums = st._sums;
+      long n = 0;
+      for( double[] ds : sums ) n += ds.length;
+      long lo = (long)_seg*STREAM_SEGMENT;
+      _vals = MemoryManager.malloc8d((int)Math.min(STREAM_SEGMENT,n-lo));
+      segment(sums,lo,_vals,false);
+      tryComplete();
+    }
+  }
+
+  // Drop streamed sums held on the node this runs on
+  private static class StreamRelease extends DTask<StreamRelease> {
+    final long _id;
+    StreamRelease( long id ) { super(H2O.GET_KEY_PRIORITY); _id = id; }
+    @Override public void compute2() { STREAMED.remove(_id); tryComplete(); }
+  }
+
+  // This node's Chunks are all taken: ask every other node how many it has
+  // not started, take half from the one with the most left, map them here,
+  // and go again until no node has MIN_STEAL left.  Each step is a completer
+  // under this (top local) task, holding one pending count on it which it
+  // passes on to the next step; so no thread blocks on the probes or on the
+  // stolen maps, and this task completes once the last step is done.
+  private void probe() {
+    final ArrayList<RPC<Steal>> probes = new ArrayList<>();
+    for( H2ONode node : H2O.CLOUD._memary )
+      if( node != H2O.SELF ) probes.add(new RPC<>(node,new Steal(_stealId,false)));
+    if( probes.isEmpty() ) { tryComplete(); return; }
+    H2O.H2OCountedCompleter answered = new H2O.H2OCountedCompleter(this) {
+      @Override public void onCompletion( CountedCompleter caller ) {
+        if( MRTask.this.isCompletedAbnormally() ) return;
+        H2ONode victim = null;
+        int most = MIN_STEAL-1;
+        for( RPC<Steal> probe : probes ) { // All answered; no blocking
+          Steal st = probe.get();
+          if( st._left > most ) { most = st._left; victim = probe._target; }
+        }
+        if( victim != null ) { MRTask.this.addToPendingCount(1); take(victim); }
+      }
+    };
+    answered.setPendingCount(probes.size()-1);
+    for( RPC<Steal> probe : probes ) probe.addCompleter(answered).call();
+  }
+
+  // Take half of victim's unstarted Chunks
+  private void take( H2ONode victim ) {
+    final RPC<Steal> rpc = new RPC<>(victim,new Steal(_stealId,true));
+    rpc.addCompleter(new H2O.H2OCountedCompleter(this) {
+      @Override public void onCompletion( CountedCompleter caller ) {
+        if( MRTask.this.isCompletedAbnormally() ) return;
+        int[] cids = rpc.get()._cids;
+        MRTask.this.addToPendingCount(1);
+        if( cids == null || cids.length == 0 ) probe(); // Raced with the victim; look again
+        else mapStolen(cids);
+      }
+    }).call();
+  }
+
+  // Fork a tree over the stolen Chunks; once done, keep its result for
+  // onCompletion to reduce, and look for more
+  private void mapStolen( int[] cids ) {
+    final MRTask<T> mrt = copyAndInit();
+    mrt.setCompleter(new H2O.H2OCountedCompleter(this) {
+      @Override public void onCompletion( CountedCompleter caller ) {
+        if( MRTask.this.isCompletedAbnormally() ) return;
+        if( mrt._res != null )
+          synchronized( MRTask.this ) {
+            if( _stolenRes == null ) _stolenRes = new ArrayList<>();
+            _stolenRes.add(mrt._res);
+          }
+        MRTask.this.addToPendingCount(1);
+        probe();
+      }
+    });
+    mrt._res = null;
+    mrt._claims = null;
+    mrt._accs = null;           // Mapped straight into the stolen tree
+    mrt._locals = cids;
+    mrt._lo = 0;  mrt._hi = cids.length;
+    mrt._stolen = true;
+    H2O.submitTask(mrt);
+  }
+
+  // Local Chunks of a work-stealing pass, each taken once: by a local leaf
+  // when it gets to it, or by a thief first.  Once all are taken (and the
+  // node is set up), the node starts stealing itself.
+  private static class Claims {
+    final int[] _cids;
+    final AtomicIntegerArray _taken;
+    final AtomicInteger _left;  // Not yet taken
+    final AtomicInteger _todo;  // Not yet taken, plus the node's setup
+    final MRTask _owner;
+    Claims( int[] cids, MRTask owner ) {
+      _cids = cids;
+      _taken = new AtomicIntegerArray(cids.length);
+      _left = new AtomicInteger(cids.length);
+      _todo = new AtomicInteger(cids.length+1);
+      _owner = owner;
+    }
+    boolean claim( int i ) {
+      if( !_taken.compareAndSet(i,0,1) ) return false;
+      _left.decrementAndGet();
+      done();
+      return true;
+    }
+    void done() { if( _todo.decrementAndGet() == 0 ) _owner.probe(); }
+    // Take up to n Chunks from the end, furthest from where the leaves are
+    int[] steal( int n ) {
+      int[] cids = new int[n];
+      int k = 0;
+      for( int i=_cids.length-1; i>=0 && k<n; i-- )
+        if( claim(i) ) cids[k++] = _cids[i];
+      return Arrays.copyOf(cids,k);
+    }
+  }
+
+  // Ask the node this runs on how many Chunks it has not started, and with
+  // take set, hand half of them over
+  private static class Steal extends DTask<Steal> {
+    final long _id;
+    final boolean _take;
+    int _left;
+    int[] _cids;
+    Steal( long id, boolean take ) { super(H2O.GET_KEY_PRIORITY); _id = id; _take = take; }
+    @Override public void compute2() {
+      Claims claims = STEALABLE.get(_id);
+      if( claims != null ) {
+        _left = claims._left.get();
+        if( _take && _left >= MIN_STEAL ) _cids = claims.steal(_left>>1);
+      }
+      tryComplete();
+    }
+  }
+
   /** Call user's reduction.  Also reduce any new AppendableVecs.  Called
    *  internal by F/J.  Not expected to be user-called.  */
   void reduce4( T mrt ) {
@@ -776,8 +1363,12 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
 
     // Since blocking can throw (generally the same exception, again and again)
     // catch & ignore, keeping only the first one we already got.
-    RPC<T> nl = _nleft; if( nl != null ) try { nl.get(); } catch( Throwable ignore ) { } _nleft = null;
-    RPC<T> nr = _nrite; if( nr != null ) try { nr.get(); } catch( Throwable ignore ) { } _nrite = null;
+    // Replies not reduced in hold their streamed sums on the sender; drop them.
+    RPC<T> nl = _nleft; if( nl != null ) try { releaseStreamed(nl._target,nl.get()); } catch( Throwable ignore ) { } _nleft = null;
+    RPC<T> nr = _nrite; if( nr != null ) try { releaseStreamed(nr._target,nr.get()); } catch( Throwable ignore ) { } _nrite = null;
+    if( _claims != null ) STEALABLE.remove(_stealId); // No more to hand out
+    // Nodes which finished their part still hold their sums for the all-reduce
+    if( _topGlobal ) try { releaseAllReduce(); } catch( Throwable ignore ) { }
     return true;
   }
 
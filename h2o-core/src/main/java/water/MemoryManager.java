@@ -9,6 +9,7 @@ import jsr166y.ForkJoinPool.ManagedBlocker;
 import jsr166y.ForkJoinPool;
 import water.util.Log;
 import water.util.PrettyPrint;
+import water.util.UnsafeUtils;
 
 /**
  * Manages memory assigned to key/value pairs. All byte arrays used in
@@ -115,7 +116,7 @@ abstract public class MemoryManager {
     d = Math.max(d,MEM_MAX>>3); // Keep at least 1/8th heap
     if( Cleaner.DESIRED != -1 ) // Set to -1 only for OOM/Cleaner testing.  Never negative normally
       Cleaner.DESIRED = d;      // Desired caching level
-    final long cacheUsageNow = Cleaner.Histo.cached();
+    final long cacheUsageNow = Cleaner.Clock.cached();
 
     String m="";
     if( cacheUsageNow > Cleaner.DESIRED ) {
@@ -187,7 +188,7 @@ abstract public class MemoryManager {
       // Memory used after this FullGC
       Cleaner.TIME_AT_LAST_GC = System.currentTimeMillis();
       Cleaner.HEAP_USED_AT_LAST_GC = _allMemBean.getHeapMemoryUsage().getUsed();
-      Cleaner.KV_USED_AT_LAST_GC = Cleaner.Histo.cached();
+      Cleaner.KV_USED_AT_LAST_GC = Cleaner.Clock.cached();
       MEM_LOW_CRITICAL = Cleaner.HEAP_USED_AT_LAST_GC > 0.75*MEM_MAX;
       Log.debug("GC CALLBACK: "+Cleaner.TIME_AT_LAST_GC+", USED:"+PrettyPrint.bytes(Cleaner.HEAP_USED_AT_LAST_GC)+", CRIT: "+MEM_LOW_CRITICAL);
       set_goals("GC CALLBACK",MEM_LOW_CRITICAL);
@@ -278,6 +279,44 @@ abstract public class MemoryManager {
   public static long   [] arrayCopyOf( long  [] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
   public static double [] arrayCopyOf( double[] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
 
+  // Off-heap cache tier.  When enabled (-off_heap_mem), the Cleaner moves the
+  // serialized bytes of cold Chunks into native memory instead of keeping them
+  // on the Java heap, so big K/V stores no longer inflate FullGC times.  The
+  // off-heap tier has its own budget, independent of the heap goals above;
+  // when it runs over its high-water mark the Cleaner spills the off-heap
+  // copies to disk (if enabled) and lets go of them.  Blocks are freed once
+  // no reader holds them anymore, see OffHeapMem.
+  static final AtomicLong _offHeapUsed = new AtomicLong();     // Allocated
+  static final AtomicLong _offHeapReleased = new AtomicLong(); // Let go, not yet freed
+  static long offHeapMax() { return H2O.ARGS.off_heap_mem; }
+  static boolean offHeapEnabled() { return offHeapMax() > 0; }
+  /** Bytes of Value payloads currently held off-heap on this node; blocks let
+   *  go of but not yet freed are not counted. */
+  public static long offHeapUsed() { return _offHeapUsed.get()-_offHeapReleased.get(); }
+  // Above 7/8ths of the budget, start evicting from the off-heap tier
+  static boolean offHeapHigh() { return offHeapUsed() > offHeapMax()-(offHeapMax()>>3); }
+
+  // Reserve & allocate native memory; returns 0 (and allocates nothing) if
+  // this would exceed the off-heap budget.
+  static long mallocOffHeap( int bytes ) {
+    if( !offHeapEnabled() ) return 0;
+    if( _offHeapUsed.addAndGet(bytes) > offHeapMax() ) {
+      _offHeapUsed.addAndGet(-bytes);
+      return 0;
+    }
+    try { return UnsafeUtils.allocateMemory(bytes); }
+    catch( OutOfMemoryError e ) { // Native allocation failed; treat as a full tier
+      _offHeapUsed.addAndGet(-bytes);
+      return 0;
+    }
+  }
+  // Free a block already let go of
+  static void freeOffHeap( long adr, int bytes ) {
+    UnsafeUtils.freeMemory(adr);
+    _offHeapUsed.addAndGet(-bytes);
+    _offHeapReleased.addAndGet(-bytes);
+  }
+
   // Memory available for tasks (we assume 3/4 of the heap is available for tasks)
   static final AtomicLong _taskMem = new AtomicLong(MEM_MAX-(MEM_MAX>>2));
 
@@ -0,0 +1,90 @@
+package water;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import water.util.UnsafeUtils;
+
+/** A block of native memory in the off-heap tier (see MemoryManager).
+ *  <p>
+ *  A Value holding an off-heap copy lets go of it when the Value is removed,
+ *  replaced or evicted from the tier, but readers racing with that (a {@link
+ *  Value#memOrLoad} mid-copy, or a Chunk reading the bytes in place) may still
+ *  hold this block.  So the native memory is freed only once this holder is
+ *  garbage: the Cleaner reaps the dead holders on every pass.  Letting go
+ *  ({@link #release}) takes the bytes off the tier's budget right away, so
+ *  the Cleaner does not evict live Values while waiting on the GC.
+ */
+public final class OffHeapMem {
+  /** Native address and length of the block; valid while this is reachable */
+  public final long _adr;
+  public final int _len;
+  private final Ref _ref;
+
+  private OffHeapMem( long adr, int len ) {
+    _adr = adr;
+    _len = len;
+    REFS.add(_ref = new Ref(this));
+  }
+
+  /** Allocate a block, or return null if the tier is full (or disabled). */
+  static OffHeapMem malloc( int len ) {
+    reap();
+    long adr = MemoryManager.mallocOffHeap(len);
+    return adr == 0 ? null : new OffHeapMem(adr,len);
+  }
+
+  /** Copy in the given bytes, all {@link #_len} of them */
+  void store( byte[] mem ) {
+    assert mem.length == _len;
+    UnsafeUtils.copyToNative(mem,0,_adr,_len);
+  }
+
+  /** A heap copy of the block */
+  byte[] load() {
+    byte[] mem = MemoryManager.malloc1(_len);
+    // Hold the lock to keep this reachable (and so the block allocated)
+    // until the copy is done
+    synchronized(this) { UnsafeUtils.copyFromNative(_adr,mem,0,_len); }
+    return mem;
+  }
+
+  /** No Value holds this block anymore; stop counting it against the budget.
+   *  Idempotent.  The memory itself goes once this is garbage. */
+  void release() { _ref.release(); }
+
+  // ---
+  // Holders still allocated are tracked by phantom references, which the GC
+  // enqueues once the holder is unreachable.  The set keeps the references
+  // themselves alive till then.
+  private static final ReferenceQueue<OffHeapMem> DEAD = new ReferenceQueue<>();
+  private static final Set<Ref> REFS = Collections.newSetFromMap(new ConcurrentHashMap<Ref,Boolean>());
+
+  private static final class Ref extends PhantomReference<OffHeapMem> {
+    final long _adr;
+    final int _len;
+    final AtomicBoolean _released = new AtomicBoolean();
+    Ref( OffHeapMem mem ) { super(mem,DEAD); _adr = mem._adr; _len = mem._len; }
+    void release() {
+      if( _released.compareAndSet(false,true) )
+        MemoryManager._offHeapReleased.addAndGet(_len);
+    }
+  }
+
+  /** Free the native memory of every dead holder.  Called by the Cleaner on
+   *  every pass, and before allocating.  Returns the bytes freed. */
+  static long reap() {
+    long freed = 0;
+    Ref r;
+    while( (r = (Ref)DEAD.poll()) != null ) {
+      REFS.remove(r);
+      r.release();              // In case it was never let go explicitly
+      MemoryManager.freeOffHeap(r._adr,r._len);
+      freed += r._len;
+    }
+    return freed;
+  }
+}
@@ -4,7 +4,14 @@ import water.api.schemas3.*;
 import water.nbhm.NonBlockingHashMap;
 import water.util.Log;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import static water.Weaver.classForName;
 
@@ -76,9 +83,16 @@ public class TypeMap {
   static private int IDS;
   // JUnit helper flag
   static public volatile boolean _check_no_locking; // ONLY TOUCH IN AAA_PreCloudLock!
+  // Fixed IDs made at build time (see Weaver.main), listed after the
+  // bootstrap classes one per line as: className fieldLayout
+  static final String FIXED_IDS = "water/typemap.ids";
+  // className -> field layout its pre-generated Icer was built against
+  static private final HashMap<String,Integer> LAYOUTS = new HashMap<>();
+  // Number of classes with fixed IDs, after the bootstrap ones
+  static private int FIXED;
   static {
-    CLAZZES = BOOTSTRAP_CLASSES;
-    GOLD = new Icer[BOOTSTRAP_CLASSES.length];
+    CLAZZES = withFixedIds(BOOTSTRAP_CLASSES);
+    GOLD = new Icer[CLAZZES.length];
     int id=0;                   // The initial set of Type IDs to boot with
     for( String s : CLAZZES ) MAP.put(s,id++);
     IDS = id;
@@ -93,6 +107,43 @@ public class TypeMap {
     ESPCGROUP    = (short)onIce("water.fvec.Vec$ESPC"); // Used in TestUtil
   }
 
+  // Every node runs the same jar, so all agree on the fixed IDs without
+  // asking the leader.  No table (e.g. running from an IDE) means just the
+  // bootstrap classes.
+  private static String[] withFixedIds( String[] boot ) {
+    InputStream is = TypeMap.class.getClassLoader().getResourceAsStream(FIXED_IDS);
+    if( is == null ) return boot;
+    try {
+      String[] clzs = withFixedIds(boot,is,LAYOUTS);
+      FIXED = clzs.length-boot.length;
+      return clzs;
+    } catch( IOException e ) {
+      throw new RuntimeException("Cannot read "+FIXED_IDS, e);
+    }
+  }
+  // The boot classes followed by the ones in the table; their layouts go
+  // into the given map
+  static String[] withFixedIds( String[] boot, InputStream is, Map<String,Integer> layouts ) throws IOException {
+    ArrayList<String> clzs = new ArrayList<>(Arrays.asList(boot));
+    try( BufferedReader br = new BufferedReader(new InputStreamReader(is)) ) {
+      String line;
+      while( (line = br.readLine()) != null ) {
+        String[] ss = line.split(" ");
+        clzs.add(ss[0]);
+        layouts.put(ss[0],Integer.valueOf(ss[1]));
+      }
+    }
+    return clzs.toArray(new String[clzs.size()]);
+  }
+
+  /** Classes given fixed IDs from the build-time table, in ID order */
+  static String[] fixedClasses() {
+    return Arrays.copyOfRange(CLAZZES,BOOTSTRAP_CLASSES.length,BOOTSTRAP_CLASSES.length+FIXED);
+  }
+
+  /** Field layout of the build-time Icer for className, or null if it has none */
+  static Integer fixedLayout( String className ) { return LAYOUTS.get(className); }
+
   // The major complexity of this code is that the are FOUR major data forms
   // which get converted to one another.  At various times the code is
   // presented with one of the forms, and asked for another form, sometimes
@@ -171,6 +222,12 @@ public class TypeMap {
     return id;
   }
 
+  // Build time only: hand out the next fixed ID, in table order (see Weaver.main)
+  synchronized static int installFixed( String className, int layout ) {
+    LAYOUTS.put(className,layout);
+    return install(className,IDS++);
+  }
+
   // Figure out the mapping from a type ID to a Class.  Happens many places,
   // including during deserialization when a Node will be presented with a
   // fresh new ID with no idea what it stands for.  Does NOT resize the GOLD
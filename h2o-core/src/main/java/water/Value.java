@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import jsr166y.ForkJoinPool;
+import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.Vec;
+import water.util.BlockCodec;
 import water.util.Log;
 
 /** The core Value stored in the distributed K/V store, used to cache Plain Old
@@ -78,6 +80,26 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private volatile byte[] _mem;
   final byte[] rawMem() { return _mem; }
 
+  // ---
+  // An off-heap copy of _mem, or null if none.  Set by the Cleaner when it
+  // moves a cold Chunk out of the Java heap (see the off-heap tier in
+  // MemoryManager).  Like a disk copy, it lets both _mem and _pojo be dropped
+  // and later rebuilt; some Chunks read it in place.  Released when this Value
+  // is removed or replaced in the local STORE, but still readable through this
+  // Value; dropped when the Cleaner evicts it from the off-heap tier.  The
+  // native memory is freed once no reader holds it, see OffHeapMem.
+  private transient volatile OffHeapMem _offHeap;
+  final boolean isOffHeap() { return _offHeap != null; }
+
+  // ---
+  // A compressed copy of _mem (see BlockCodec), or null.  Set by the Cleaner
+  // for cold Chunks when -chunk_codec is on.  Like the off-heap and disk
+  // copies it lets _mem and _pojo be dropped, but it stays on the Java heap,
+  // just smaller.  Decompressed on the next access.
+  private transient volatile byte[] _zmem;
+  final boolean isCompressed() { return _zmem != null; }
+  private transient boolean _incompressible; // Tried once, did not pay off
+
   // ---
   // A POJO version of the _mem array, or null if the _mem has not been
   // serialized or if _mem is primitive data and not a POJO.  Cleared to null
@@ -98,12 +120,14 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   public final void freeMem() {
     assert isPersisted() || _pojo != null || _key.isChunkKey();
     _mem = null;
+    recount();
   }
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || isOffHeap() || isCompressed() || _mem != null;
     _pojo = null;
+    recount();
   }
 
   /** The FAST path get-byte-array - final method for speed.  Will (re)build
@@ -114,13 +138,90 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     if( mem != null ) return mem;
     Freezable pojo = _pojo;     // Read once!
     if( pojo != null )          // Has the POJO, make raw bytes
-      return _mem = pojo.asBytes();
-    if( _max == 0 ) return (_mem = new byte[0]);
-    return (_mem = loadPersist());
+      mem = pojo.asBytes();
+    else if( _max == 0 )
+      mem = new byte[0];
+    else {
+      // Decompress, or reattach from the off-heap tier.  If that raced with
+      // the Cleaner evicting it, the home node spilled it to disk first and
+      // caching replicas fetch it again.
+      byte[] z = _zmem;         // Read once!
+      OffHeapMem oh = _offHeap; // Read once!
+      if( z != null ) mem = BlockCodec.decode(z,MemoryManager.malloc1(_max));
+      else if( oh != null ) mem = oh.load();
+      else if( isPersisted() ) mem = loadPersist();
+      else mem = refetch();
+    }
+    _mem = mem;
+    recount();
+    return mem;
   }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _zmem == null && _offHeap == null && !isPersisted(); }
+
+  // A caching replica which lost its last local copy to the Cleaner: fetch
+  // the bytes again from the home node.
+  private byte[] refetch() {
+    Value val = _key.home() ? null : DKV.get(_key);
+    if( val == null || val == this || val._type != _type )
+      throw new IllegalStateException("No copy left of "+_key);
+    return val.memOrLoad();
+  }
+
+  /** Make a compressed copy of the serialized bytes; called by the Cleaner
+   *  only.  Elements of the given width are byte-shuffled first.  Returns
+   *  false if the bytes did not compress well.  */
+  boolean compress( BlockCodec codec, int width ) {
+    if( _zmem != null ) return true;
+    if( _incompressible ) return false;
+    byte[] m = memOrLoad();
+    if( m.length != _max ) return false; // Racing update of the POJO; leave it be
+    byte[] z = codec.encode(m,width);
+    if( z == null ) { _incompressible = true; return false; }
+    _zmem = z;
+    recount();
+    return true;
+  }
+  /** Drop any compressed copy */
+  void freeZMem() {
+    if( _zmem == null ) return;
+    _zmem = null;
+    recount();
+  }
+
+  /** Copy the serialized bytes into the off-heap tier; called by the Cleaner
+   *  only.  Returns false if the tier is full (or disabled).  */
+  boolean storeOffHeap() {
+    if( _offHeap != null ) return true;
+    if( isDeleted() ) return false;
+    byte[] m = memOrLoad();
+    if( m.length != _max ) return false; // Racing update of the POJO; leave it be
+    OffHeapMem oh = OffHeapMem.malloc(_max);
+    if( oh == null ) return false;
+    oh.store(m);
+    synchronized(this) {
+      if( _offHeap == null ) { _offHeap = oh; return true; }
+    }
+    oh.release();               // Raced; someone else already did it
+    return true;
+  }
+  /** Drop the off-heap copy; called by the Cleaner when evicting it.  Readers
+   *  which already got it keep it alive; later ones reload from disk (if
+   *  persisted) or refetch from the home node.  */
+  void freeOffHeap() {
+    OffHeapMem oh = _offHeap;
+    if( oh == null ) return;
+    _offHeap = null;
+    oh.release();
+  }
+  /** This Value was removed or replaced: its off-heap copy no longer counts
+   *  against the tier's budget, but stays readable for anyone still holding
+   *  this Value.  */
+  void releaseOffHeap() {
+    OffHeapMem oh = _offHeap;
+    if( oh != null ) oh.release();
+  }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
@@ -129,8 +230,11 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     touch();
     Iced pojo = (Iced)_pojo;    // Read once!
     if( pojo != null ) return (T)pojo;
+    if( (pojo = (Iced)inPlace()) != null ) return (T)pojo;
     pojo = TypeMap.newInstance(_type);
-    return (T)(_pojo = pojo.reloadFromBytes(memOrLoad()));
+    _pojo = pojo = pojo.reloadFromBytes(memOrLoad());
+    recount();
+    return (T)pojo;
   }
   /** The FAST path get-POJO as a {@link Freezable} - final method for speed.
    *  Will (re)build the POJO from the _mem array.  Never returns NULL.  This
@@ -148,9 +252,49 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     touch();
     Freezable pojo = _pojo;     // Read once!
     if( pojo != null ) return (T)pojo;
+    if( (pojo = inPlace()) != null ) return (T)pojo;
     pojo = TypeMap.newFreezable(_type);
     pojo.reloadFromBytes(memOrLoad());
-    return (T)(_pojo = pojo);
+    _pojo = pojo;
+    recount();
+    return (T)pojo;
+  }
+
+  // A Chunk reading the off-heap copy in place, if this is only off-heap and
+  // the Chunk type can; saves copying the bytes back onto the heap.
+  private Freezable inPlace() {
+    OffHeapMem oh = _offHeap;   // Read once!
+    if( oh == null || _mem != null || _zmem != null || !_key.isChunkKey() ) return null;
+    Chunk c = Chunk.inPlace(_type,oh);
+    if( c == null ) return null;
+    _pojo = c;
+    recount();
+    return c;
+  }
+
+  // ---
+  // State for the Cleaner's eviction clock, see Cleaner.Clock.  Only Values
+  // mapped in the local STORE are on the clock.  The state and byte counts
+  // are CAS'd by any thread; the links and _clkSeen only by the Cleaner.
+  transient volatile int _clkState;               // Off, on or gone from the clock
+  transient volatile int _clkCached, _clkSwapped; // Bytes last reported to the Clock
+  transient Value _clkPrev, _clkNext;
+  transient long _clkSeen;                        // When the clock hand last passed
+  final boolean onClock() { return Cleaner.Clock.on(this); }
+  // Report a change in the cached or swapped forms to the Clock
+  private void recount() { Cleaner.Clock.recount(this); }
+  // Bytes held in memory
+  int cachedLen() {
+    byte[] m = _mem;
+    Freezable p = _pojo;
+    int len = 0;
+    if( m != null ) len += _max;
+    if( p != null ) len += _max;
+    if( p instanceof Chunk && (m != null || ((Chunk)p).readsOffHeap()) )
+      len -= _max; // Do not double-count Chunks, nor count their off-heap bytes
+    byte[] z = _zmem;
+    if( z != null ) len += z.length;
+    return len;
   }
 
   // ---
@@ -186,7 +330,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private final static byte ON_dsk = 1<<3;
   /** Check if the backing byte[] has been saved-to-disk */
   public final boolean isPersisted() { return (_persist&ON_dsk)!=0; }
-  public final void setDsk() { _persist |=  ON_dsk; } // note: not atomic, but only monotonically set bit
+  public final void setDsk() { _persist |=  ON_dsk; recount(); } // note: not atomic, but only monotonically set bit
   private volatile byte _deleted; // 1 bit of deleted
   public final boolean isDeleted() { return _deleted != 0; }
   public final void setDel() { _deleted=1; } // note: not atomic, but only monotonically set bit
@@ -220,6 +364,7 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
     // 01       double delete; do nothing
     // 10 -> 11 delete
     // 11       double delete; do nothing
+    releaseOffHeap();           // Racing readers may still use the off-heap copy
     if( !onICE() ) return;      // Wrong filestore?
     if( isDeleted() ) return;   // Already deleted?
     setDel();                   // Set del bit BEFORE testing isPersist
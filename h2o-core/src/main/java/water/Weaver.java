@@ -5,14 +5,27 @@ import sun.misc.Unsafe;
 import water.api.API;
 import water.nbhm.UtilUnsafe;
 
+import org.apache.commons.io.FileUtils;
+import org.reflections.Reflections;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** Class to auto-gen serializer delegate classes.  */
 public class Weaver {
@@ -93,6 +106,7 @@ public class Weaver {
     catch( CannotCompileException    e ) { e2 = e; }
     catch( NoSuchFieldException      e ) { e2 = e; }
     catch( ClassNotFoundException    e ) { e2 = e; }
+    catch( IOException               e ) { e2 = e; }
     throw new RuntimeException(e2);
   }
 
@@ -191,7 +205,7 @@ public class Weaver {
   }
 
   // See if javaassist can find this class, already generated
-  private static Class javassistLoadClass(int id, Class iced_clazz) throws CannotCompileException, NotFoundException, InstantiationException, IllegalAccessException, NoSuchFieldException, ClassNotFoundException, InvocationTargetException {
+  private static Class javassistLoadClass(int id, Class iced_clazz) throws CannotCompileException, NotFoundException, InstantiationException, IllegalAccessException, NoSuchFieldException, ClassNotFoundException, InvocationTargetException, IOException {
     // End the super class lookup chain at "water.Iced",
     // returning the known delegate class "water.Icer".
     String iced_name = iced_clazz.getName();
@@ -232,12 +246,103 @@ public class Weaver {
     synchronized( iced_clazz ) {
       icer_cc = _pool.getOrNull(icer_name); // Retry under lock
       if( icer_cc != null ) return Class.forName(icer_name); // Found a pre-cooked Icer implementation
-      icer_cc = genIcerClass(id,iced_cc,iced_clazz,icer_name,super_id,super_icer_cc,super_has_jfields);
+      icer_cc = pregenerated(iced_clazz,icer_name);
+      if( icer_cc != null ) PREGENERATED.add(iced_name);
+      else icer_cc = genIcerClass(id,iced_cc,iced_clazz,icer_name,super_id,super_icer_cc,super_has_jfields);
       icer_cc.toClass(iced_clazz.getClassLoader());               // Load class (but does not link & init)
       return Class.forName(icer_name,true, iced_clazz.getClassLoader()); // Initialize class now, before subclasses
     }
   }
 
+  // Build-time Icers live under this resource prefix, out of the way of the
+  // pre-cooked Icer lookup, since they are only good for some JVMs
+  static final String PREGEN_DIR = "icers";
+  // Classes whose Icer was loaded from the build-time one
+  static final Set<String> PREGENERATED = Collections.newSetFromMap(new ConcurrentHashMap<String,Boolean>()); // exposed for testing only
+
+  // The Icer generated for this class at build time, if there is one and this
+  // JVM lays the fields out the same: generated Icers poke fields by offset.
+  private static CtClass pregenerated( Class iced_clazz, String icer_name ) throws IOException {
+    Integer layout = TypeMap.fixedLayout(iced_clazz.getName());
+    if( layout == null || layout != fieldLayout(iced_clazz) ) return null;
+    InputStream is = iced_clazz.getClassLoader().getResourceAsStream(PREGEN_DIR+"/"+icer_name.replace('.','/')+".class");
+    if( is == null ) return null;
+    try { return _pool.makeClass(is); }
+    finally { is.close(); }
+  }
+
+  // Hash of the offsets of the serialized fields declared in clz
+  static int fieldLayout( Class clz ) {
+    int h = 0;
+    for( Field f : clz.getDeclaredFields() ) {
+      int mods = f.getModifiers();
+      if( Modifier.isTransient(mods) || Modifier.isStatic(mods) ) continue;
+      h = h*31 + (int)_unsafe.objectFieldOffset(f);
+    }
+    return h;
+  }
+
+  /** Build step: give every named Freezable class under water and hex a fixed
+   *  type ID, and write out its Icer, so nodes neither fetch the IDs from the
+   *  leader nor weave these Icers at runtime.  Classes missing from the table
+   *  (e.g. other modules, anonymous tasks) still go the runtime route.
+   *  Usage: Weaver outputDir, a directory put on the runtime classpath */
+  public static void main( String[] args ) throws Exception {
+    File out = new File(args[0]);
+    File ids = new File(out, TypeMap.FIXED_IDS);
+    ids.delete();               // Stale table; before TypeMap loads it
+    FileUtils.deleteDirectory(new File(out, PREGEN_DIR));
+    if( !ids.getParentFile().mkdirs() && !ids.getParentFile().exists() )
+      throw new IOException("mkdirs failed making "+ids.getParentFile());
+    ArrayList<Class> fixed = fixedClasses();
+    // Same IDs as nodes loading the table will assign
+    int[] fids = new int[fixed.size()];
+    try( PrintWriter pw = new PrintWriter(ids) ) {
+      for( int i=0; i<fids.length; i++ ) {
+        Class c = fixed.get(i);
+        int layout = fieldLayout(c);
+        pw.println(c.getName()+" "+layout);
+        fids[i] = TypeMap.installFixed(c.getName(),layout);
+      }
+    }
+    int n = 0;
+    for( int i=0; i<fids.length; i++ ) {
+      Class c = fixed.get(i);
+      try {
+        javassistLoadClass(fids[i],c);
+        _pool.get(implClazzName(c.getName())).writeFile(new File(out, PREGEN_DIR).getPath());
+        n++;
+      } catch( Exception e ) {  // Left to the runtime weaver
+        System.err.println("No Icer pre-generated for "+c.getName()+": "+e);
+      }
+    }
+    System.out.println("Fixed type IDs for "+fixed.size()+" classes, pre-generated "+n+" Icers");
+  }
+
+  // The classes given fixed IDs, in ID order: the named Freezable classes
+  // under water and hex which come from the same place as this class (so not
+  // from other modules or tests on the classpath), and whose supers all get
+  // IDs without a cloud.  Sorted by name, so the same classes always get the
+  // same IDs.
+  static ArrayList<Class> fixedClasses() {
+    HashSet<String> boot = new HashSet<>(Arrays.asList(TypeMap.BOOTSTRAP_CLASSES));
+    URL home = Weaver.class.getProtectionDomain().getCodeSource().getLocation();
+    TreeMap<String,Class> clzs = new TreeMap<>();
+    for( String pkg : new String[]{"water","hex"} )
+      for( Class c : new Reflections(pkg).getSubTypesOf(Freezable.class) )
+        if( !c.isInterface() && !c.isAnonymousClass() && !c.isLocalClass() && !boot.contains(c.getName()) &&
+            c.getProtectionDomain().getCodeSource() != null &&
+            home.equals(c.getProtectionDomain().getCodeSource().getLocation()) )
+          clzs.put(c.getName(),c);
+    ArrayList<Class> fixed = new ArrayList<>();
+    for( Class c : clzs.values() ) {
+      Class sup = c.getSuperclass();
+      while( clzs.containsKey(sup.getName()) ) sup = sup.getSuperclass();
+      if( boot.contains(sup.getName()) || !Freezable.class.isAssignableFrom(sup) ) fixed.add(c);
+    }
+    return fixed;
+  }
+
   // Generate the Icer class
   private static CtClass genIcerClass(int id, CtClass iced_cc, Class iced_clazz, String icer_name, int super_id, CtClass super_icer, boolean super_has_jfields ) throws CannotCompileException, NotFoundException, NoSuchFieldException {
     // Generate the Icer class
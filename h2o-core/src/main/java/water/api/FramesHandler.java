@@ -255,7 +255,12 @@ public class FramesHandler<I extends FramesHandler.Frames, S extends SchemaV3<I,
   public FramesV3 export(int version, FramesV3 s) {
     Frame fr = getFromDKV("key", s.frame_id.key());
     Log.info("ExportFiles processing (" + s.path + ")");
-    s.job = new JobV3(Frame.export(fr, s.path, s.frame_id.key().toString(), s.force, s.num_parts));
+    if ("columnar".equalsIgnoreCase(s.format)) {
+      if (s.num_parts != 1)
+        throw new H2OIllegalArgumentException("Columnar export writes a single file, num_parts must be 1");
+      s.job = new JobV3(Frame.exportColumnar(fr, s.path, s.frame_id.key().toString(), s.force));
+    } else
+      s.job = new JobV3(Frame.export(fr, s.path, s.frame_id.key().toString(), s.force, s.num_parts));
     return s;
   }
 
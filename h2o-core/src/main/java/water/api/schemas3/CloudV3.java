@@ -137,6 +137,27 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
     @API(help="#local keys", direction=API.Direction.OUTPUT)
     public int num_keys;
 
+    @API(help="Time (in msec) taken by the last memory Cleaner pass", direction=API.Direction.OUTPUT)
+    public long cleaner_pass_msec;
+    @API(help="Memory freed by the last memory Cleaner pass", direction=API.Direction.OUTPUT)
+    public long cleaner_freed_mem;
+
+    @API(help="Bytes of big arrays sent to other nodes through the -wire_codec", direction=API.Direction.OUTPUT)
+    public long wire_raw_bytes;
+    @API(help="What those bytes compressed to on the wire", direction=API.Direction.OUTPUT)
+    public long wire_compressed_bytes;
+    @API(help="Time (in msec) spent compressing and decompressing big arrays on the wire", direction=API.Direction.OUTPUT)
+    public long wire_codec_msec;
+
+    @API(help="Small messages sent to other nodes", direction=API.Direction.OUTPUT)
+    public long small_msgs;
+    @API(help="Batched writes those small messages went out in", direction=API.Direction.OUTPUT)
+    public long small_msg_batches;
+    @API(help="Times a busy sender waited briefly for more small messages to batch", direction=API.Direction.OUTPUT)
+    public long send_lingers;
+    @API(help="Waits for more small messages which got one", direction=API.Direction.OUTPUT)
+    public long send_linger_hits;
+
     @API(help="Free disk", direction=API.Direction.OUTPUT)
     public long free_disk;
     @API(help="Max disk", direction=API.Direction.OUTPUT)
@@ -182,6 +203,15 @@ public class CloudV3 extends RequestSchemaV3<Iced, CloudV3> {
       swap_mem = hb.get_swap_mem();
       max_mem = pojo_mem + free_mem + mem_value_size;
       num_keys = hb._keys;
+      cleaner_pass_msec = hb._cleaner_pass_msec;
+      cleaner_freed_mem = hb._cleaner_freed;
+      wire_raw_bytes = hb._wire_raw;
+      wire_compressed_bytes = hb._wire_zipped;
+      wire_codec_msec = hb._wire_zip_ns / 1000000;
+      small_msgs = hb._small_msgs;
+      small_msg_batches = hb._small_batches;
+      send_lingers = hb._lingers;
+      send_linger_hits = hb._linger_hits;
 
       // Disk health
       free_disk = hb.get_free_disk();
@@ -31,6 +31,7 @@ public class C0DChunk extends Chunk {
   @Override boolean setNA_impl(int i) { return Double.isNaN(_con); }
   @Override double min() { return _con; }
   @Override double max() { return _con; }
+  @Override public int runEnd(int rid) { return _len; }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     if(Double.isNaN(_con)) {
       nc.set_sparseLen(nc.set_len(0));//so that addNAs(_len) can add _len
@@ -112,4 +113,25 @@ public class C0DChunk extends Chunk {
     return vals;
   }
 
+  @Override
+  public int [] getIntegers(int [] vals, int from, int to, int NA){
+    if(Double.isNaN(_con)) Arrays.fill(vals, 0, to - from, NA);
+    else {
+      if((int)_con != _con) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+      Arrays.fill(vals, 0, to - from, (int)_con);
+    }
+    return vals;
+  }
+
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    Arrays.fill(vals, 0, to - from, Double.isNaN(_con));
+    return vals;
+  }
 }
@@ -28,6 +28,7 @@ public class C0LChunk extends Chunk {
   @Override boolean set_impl (int idx, String str) { return false; }
   @Override double min() { return _con; }
   @Override double max() { return _con; }
+  @Override public int runEnd(int rid) { return _len; }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     if(_con == 0) {
       nc.set_len(nc.set_sparseLen(0)); //so that addZeros(_len) can add _len
@@ -87,4 +88,23 @@ public class C0LChunk extends Chunk {
     for(int i:ids) vals[j++] = _con;
     return vals;
   }
+
+  @Override
+  public int [] getIntegers(int [] vals, int from, int to, int NA){
+    if((int)_con != _con) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+    Arrays.fill(vals, 0, to - from, (int)_con);
+    return vals;
+  }
+
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    Arrays.fill(vals, 0, to - from, false);
+    return vals;
+  }
 }
@@ -85,4 +85,16 @@ public class C1Chunk extends Chunk {
     return vals;
   }
 
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = (0xFF & _mem[i]) == _NA;
+    return vals;
+  }
 }
@@ -1,5 +1,6 @@
 package water.fvec;
 
+import java.util.Arrays;
 import water.*;
 
 /**
@@ -66,4 +67,15 @@ public class C1NChunk extends Chunk {
     return vals;
   }
 
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    Arrays.fill(vals, 0, to - from, false);
+    return vals;
+  }
 }
@@ -89,4 +89,16 @@ public class C2Chunk extends Chunk {
     return vals;
   }
 
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = UnsafeUtils.get2(_mem,(i<<1)+_OFF) == _NA;
+    return vals;
+  }
 }
@@ -96,4 +96,30 @@ public class C2SChunk extends Chunk {
     return vals;
   }
 
+  @Override
+  public int [] getIntegers(int [] vals, int from, int to, int NA){
+    for(int i = from; i < to; ++i) {
+      long res = UnsafeUtils.get2(_mem,(i<<1)+_OFF);
+      if(res == C2Chunk._NA) vals[i - from] = NA;
+      else {
+        double d = (res + _bias)*_scale;
+        if((int)d != d) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+        vals[i - from] = (int)d;
+      }
+    }
+    return vals;
+  }
+
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = UnsafeUtils.get2(_mem,(i<<1)+_OFF) == C2Chunk._NA;
+    return vals;
+  }
 }
@@ -9,15 +9,15 @@ import water.util.UnsafeUtils;
 public class C4FChunk extends Chunk {
   public C4FChunk( byte[] bs ) { _mem=bs; _start = -1; set_len(_mem.length>>2); }
   @Override protected final long at8_impl( int i ) {
-    float res = UnsafeUtils.get4f(_mem, i << 2);
+    float res = UnsafeUtils.get4f(_mem,_mrel,i << 2);
     if( Float.isNaN(res) ) throw new IllegalArgumentException("at8_abs but value is missing");
     return (long)res;
   }
   @Override protected final double atd_impl( int i ) {
-    float res = UnsafeUtils.get4f(_mem,i<<2);
+    float res = UnsafeUtils.get4f(_mem,_mrel,i<<2);
     return Float.isNaN(res)?Double.NaN:res;
   }
-  @Override protected final boolean isNA_impl( int i ) { return Float.isNaN(UnsafeUtils.get4f(_mem,i<<2)); }
+  @Override protected final boolean isNA_impl( int i ) { return Float.isNaN(UnsafeUtils.get4f(_mem,_mrel,i<<2)); }
   @Override boolean set_impl(int idx, long l) { return false; }
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) {
@@ -30,7 +30,7 @@ public class C4FChunk extends Chunk {
     nc.set_len(0);
     final int len = _len;
     for( int i=0; i<len; i++ ) {
-      float res = UnsafeUtils.get4f(_mem,(i<<2));
+      float res = UnsafeUtils.get4f(_mem,_mrel,(i<<2));
       if( Float.isNaN(res) ) nc.addNum(Double.NaN);
       else nc.addNum(res);
     }
@@ -44,5 +44,34 @@ public class C4FChunk extends Chunk {
     set_len(_mem.length>>2);
     assert _mem.length == _len <<2;
   }
+  @Override boolean initInPlace( int nbytes ) { set_len(nbytes>>2); return true; }
   @Override public boolean hasFloat() {return true;}
+
+  /**
+   * Dense bulk interface, fetch values from the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for(int i = from; i < to; ++i) {
+      float res = UnsafeUtils.get4f(_mem,_mrel,i << 2);
+      vals[i - from] = Float.isNaN(res) ? NA : res;
+    }
+    return vals;
+  }
+
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = Float.isNaN(UnsafeUtils.get4f(_mem,_mrel,i << 2));
+    return vals;
+  }
 }
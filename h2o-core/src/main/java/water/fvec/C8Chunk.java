@@ -10,15 +10,15 @@ public class C8Chunk extends Chunk {
   protected static final long _NA = Long.MIN_VALUE;
   C8Chunk( byte[] bs ) { _mem=bs; _start = -1; set_len(_mem.length>>3); }
   @Override protected final long at8_impl( int i ) {
-    long res = UnsafeUtils.get8(_mem,i<<3);
+    long res = UnsafeUtils.get8(_mem,_mrel,i<<3);
     if( res == _NA ) throw new IllegalArgumentException("at8_abs but value is missing");
     return res;
   }
   @Override protected final double atd_impl( int i ) {
-    long res = UnsafeUtils.get8(_mem,i<<3);
+    long res = UnsafeUtils.get8(_mem,_mrel,i<<3);
     return res == _NA?Double.NaN:res;
   }
-  @Override protected final boolean isNA_impl( int i ) { return UnsafeUtils.get8(_mem, i << 3)==_NA; }
+  @Override protected final boolean isNA_impl( int i ) { return UnsafeUtils.get8(_mem,_mrel,i << 3)==_NA; }
   @Override boolean set_impl(int idx, long l) { return false; }
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) { return false; }
@@ -35,6 +35,7 @@ public class C8Chunk extends Chunk {
     set_len(_mem.length>>3);
     assert _mem.length == _len <<3;
   }
+  @Override boolean initInPlace( int nbytes ) { set_len(nbytes>>3); return true; }
   @Override
   public boolean hasFloat() {return false;}
 
@@ -49,7 +50,7 @@ public class C8Chunk extends Chunk {
   @Override
   public double[] getDoubles(double [] vals, int from, int to, double NA){
     for(int i = from; i < to; ++i) {
-      long res = UnsafeUtils.get8(_mem, i << 3);;
+      long res = UnsafeUtils.get8(_mem,_mrel,i << 3);;
       vals[i - from] = res != _NA?res:NA;
     }
     return vals;
@@ -63,10 +64,35 @@ public class C8Chunk extends Chunk {
   public double[] getDoubles(double [] vals, int [] ids){
     int j = 0;
     for(int i:ids) {
-      long res = UnsafeUtils.get8(_mem,i<<3);
+      long res = UnsafeUtils.get8(_mem,_mrel,i<<3);
       vals[j++] = res != _NA?res:Double.NaN;
     }
     return vals;
   }
 
+  @Override
+  public int [] getIntegers(int [] vals, int from, int to, int NA){
+    for(int i = from; i < to; ++i) {
+      long res = UnsafeUtils.get8(_mem,_mrel,i << 3);
+      if(res == _NA) vals[i - from] = NA;
+      else {
+        if((int)res != res) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+        vals[i - from] = (int)res;
+      }
+    }
+    return vals;
+  }
+
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = UnsafeUtils.get8(_mem,_mrel,i << 3) == _NA;
+    return vals;
+  }
 }
@@ -11,12 +11,12 @@ public class C8DChunk extends Chunk {
   C8DChunk( byte[] bs ) { _mem=bs; _start = -1; set_len(_mem.length>>3); }
 
   @Override protected final long   at8_impl( int i ) {
-    double res = UnsafeUtils.get8d(_mem, i << 3);
+    double res = UnsafeUtils.get8d(_mem,_mrel,i << 3);
     if( Double.isNaN(res) ) throw new IllegalArgumentException("at8_abs but value is missing");
     return (long)res;
   }
-  @Override protected final double   atd_impl( int i ) { return              UnsafeUtils.get8d(_mem,i<<3) ; }
-  @Override protected final boolean isNA_impl( int i ) { return Double.isNaN(UnsafeUtils.get8d(_mem,i<<3)); }
+  @Override protected final double   atd_impl( int i ) { return              UnsafeUtils.get8d(_mem,_mrel,i<<3) ; }
+  @Override protected final boolean isNA_impl( int i ) { return Double.isNaN(UnsafeUtils.get8d(_mem,_mrel,i<<3)); }
   @Override boolean set_impl(int idx, long l) { return false; }
 
   /**
@@ -24,8 +24,8 @@ public class C8DChunk extends Chunk {
    * @param i
    * @param d
    */
-  public void set8D(int i, double d) {UnsafeUtils.set8d(_mem,i<<3,d);}
-  public double get8D(int i) {return UnsafeUtils.get8d(_mem,i<<3);}
+  public void set8D(int i, double d) {if( _mem == null ) toHeap(); UnsafeUtils.set8d(_mem,i<<3,d);}
+  public double get8D(int i) {return UnsafeUtils.get8d(_mem,_mrel,i<<3);}
 
   @Override boolean set_impl(int i, double d) {
     UnsafeUtils.set8d(_mem,i<<3,d);
@@ -42,7 +42,7 @@ public class C8DChunk extends Chunk {
     //nothing to inflate - just copy
     nc.alloc_doubles(_len);
     for( int i=0; i< _len; i++ )
-      nc.doubles()[i] = UnsafeUtils.get8d(_mem,(i<<3));
+      nc.doubles()[i] = UnsafeUtils.get8d(_mem,_mrel,(i<<3));
     nc.set_sparseLen(nc.set_len(_len));
     return nc;
   }
@@ -54,11 +54,12 @@ public class C8DChunk extends Chunk {
     set_len(_mem.length>>3);
     assert _mem.length == _len <<3;
   }
+  @Override boolean initInPlace( int nbytes ) { set_len(nbytes>>3); return true; }
 
   @Override
   public double [] getDoubles(double [] vals, int from, int to){
     for(int i = from; i < to; ++i)
-      vals[i - from] = UnsafeUtils.get8d(_mem, i << 3);
+      vals[i - from] = UnsafeUtils.get8d(_mem,_mrel,i << 3);
     return vals;
   }
 
@@ -71,7 +72,7 @@ public class C8DChunk extends Chunk {
   @Override
   public double [] getDoubles(double [] vals, int from, int to, double NA){
     for(int i = from; i < to; ++i) {
-      double d = UnsafeUtils.get8d(_mem, i << 3);
+      double d = UnsafeUtils.get8d(_mem,_mrel,i << 3);
       vals[i - from] = Double.isNaN(d)?NA:d;
     }
     return vals;
@@ -84,8 +85,20 @@ public class C8DChunk extends Chunk {
   @Override
   public double [] getDoubles(double [] vals, int [] ids){
     int j = 0;
-    for(int i:ids) vals[j++] = UnsafeUtils.get8d(_mem,i<<3);
+    for(int i:ids) vals[j++] = UnsafeUtils.get8d(_mem,_mrel,i<<3);
     return vals;
   }
 
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = Double.isNaN(UnsafeUtils.get8d(_mem,_mrel,i << 3));
+    return vals;
+  }
 }
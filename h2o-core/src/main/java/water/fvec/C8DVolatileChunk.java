@@ -97,4 +97,16 @@ public final class C8DVolatileChunk extends Chunk {
     throw H2O.unimpl();
   }
 
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = Double.isNaN(_ds[i]);
+    return vals;
+  }
 }
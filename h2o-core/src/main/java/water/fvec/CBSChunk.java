@@ -137,5 +137,25 @@ public class CBSChunk extends Chunk {
     return vals;
   }
 
+  @Override
+  public int [] getIntegers(int [] vals, int from, int to, int NA){
+    for(int i = from; i < to; ++i) {
+      byte b = atb(i);
+      vals[i - from] = b == _NA ? NA : b;
+    }
+    return vals;
+  }
 
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  @Override
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = atb(i) == _NA;
+    return vals;
+  }
 }
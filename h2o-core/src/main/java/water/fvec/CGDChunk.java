@@ -0,0 +1,170 @@
+package water.fvec;
+
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+/**
+ * The "slowly changing doubles"-compression function: XOR encoding after
+ * Facebook's Gorilla time series store.  Each double is XOR'd against the
+ * previous one; equal neighbors cost 1 bit, and neighbors sharing sign,
+ * exponent and high mantissa bits store only the differing middle bits.
+ *
+ * <p>Rows are encoded in blocks of 64, each starting from a raw double, with
+ * the bit offset of every block kept in an index.  So random access decodes
+ * at most 63 values; the bulk getDoubles decodes straight through.
+ *
+ * <p>Layout: _len (4 bytes), block count (4 bytes), block bit offsets (4 bytes
+ * each), padded to 8 bytes, then the bit stream as 8-byte words, bits taken
+ * from the most significant end.
+ */
+public class CGDChunk extends Chunk {
+  static final int BLOCK_LOG = 6;
+  static final int BLOCK = 1<<BLOCK_LOG;
+
+  private transient int _nblocks;
+  private transient int _base;  // Byte offset of the bit stream
+  CGDChunk() {}
+  CGDChunk( byte[] bs ) { _mem = bs; initFromBytes(); }
+
+  /** Encode len doubles from ds; returns null if not smaller than maxBytes */
+  static CGDChunk compress( byte[] ds, int len, int maxBytes ) {
+    int nblocks = (len+BLOCK-1)>>BLOCK_LOG;
+    int base = (8+(nblocks<<2)+7)&~7;
+    if( base >= maxBytes ) return null;
+    Writer w = new Writer((maxBytes-base)>>3);
+    int[] offs = new int[nblocks];
+    long prev = 0;
+    int lead = -1, trail = 0;   // Current meaningful-bits window, -1 for none
+    for( int i=0; i<len; i++ ) {
+      long bits = UnsafeUtils.get8(ds,i<<3);
+      if( (i&(BLOCK-1)) == 0 ) { // Block start: raw value, fresh window
+        offs[i>>BLOCK_LOG] = w._pos;
+        if( !w.put(bits,64) ) return null;
+        lead = -1;
+      } else {
+        long x = bits^prev;
+        if( x == 0 ) {
+          if( !w.put(0,1) ) return null;
+        } else {
+          int l = Long.numberOfLeadingZeros(x), t = Long.numberOfTrailingZeros(x);
+          if( lead >= 0 && l >= lead && t >= trail ) { // Fits the previous window
+            if( !w.put(2,2) || !w.put(x>>>trail,64-lead-trail) ) return null;
+          } else {              // New window: 6 bits leading zeros, 6 bits length-1
+            lead = l;  trail = t;
+            if( !w.put(3,2) || !w.put(l,6) || !w.put(63-l-t,6) || !w.put(x>>>t,64-l-t) ) return null;
+          }
+        }
+      }
+      prev = bits;
+    }
+    int nwords = (w._pos+63)>>6;
+    byte[] mem = MemoryManager.malloc1(base+(nwords<<3));
+    UnsafeUtils.set4(mem,0,len);
+    UnsafeUtils.set4(mem,4,nblocks);
+    for( int b=0; b<nblocks; b++ ) UnsafeUtils.set4(mem,8+(b<<2),offs[b]);
+    for( int i=0; i<nwords; i++ ) UnsafeUtils.set8(mem,base+(i<<3),w._buf[i]);
+    return new CGDChunk(mem);
+  }
+
+  // Bit stream writer with a hard capacity
+  private static final class Writer {
+    final long[] _buf;
+    int _pos;
+    Writer( int nwords ) { _buf = new long[nwords]; }
+    boolean put( long v, int n ) {
+      if( n == 0 ) return true;
+      if( _pos+n > (_buf.length<<6) ) return false; // Did not compress enough
+      int w = _pos>>>6, b = _pos&63;
+      if( n < 64 ) v &= (1L<<n)-1;
+      _buf[w] |= (v<<(64-n))>>>b;
+      if( b+n > 64 ) _buf[w+1] |= v<<(128-n-b);
+      _pos += n;
+      return true;
+    }
+  }
+
+  // Read n bits, 1 <= n <= 64, at bit position pos
+  private long bits( int pos, int n ) {
+    int w = _base+((pos>>>6)<<3), b = pos&63;
+    long v = UnsafeUtils.get8(_mem,w)<<b;
+    if( b+n > 64 ) v |= UnsafeUtils.get8(_mem,w+8)>>>(64-b);
+    return v>>>(64-n);
+  }
+
+  // Decode rows [from,to) into whichever of ds, is and nas is not null,
+  // replacing NaN with NA/iNA.  Returns the bits of the last row decoded.
+  private long decode( int from, int to, double[] ds, double NA, int[] is, int iNA, boolean[] nas ) {
+    int i = (from>>BLOCK_LOG)<<BLOCK_LOG;
+    int pos = 0;
+    long prev = 0;
+    int lead = 0, trail = 0;
+    while( i < to ) {
+      if( (i&(BLOCK-1)) == 0 ) {
+        pos = UnsafeUtils.get4(_mem,8+((i>>BLOCK_LOG)<<2)); // Re-sync at every block start
+        prev = bits(pos,64);  pos += 64;
+      } else if( bits(pos++,1) != 0 ) {
+        if( bits(pos++,1) != 0 ) {
+          lead = (int)bits(pos,6);  pos += 6;
+          trail = 63-lead-(int)bits(pos,6);  pos += 6;
+        }
+        int sig = 64-lead-trail;
+        prev ^= bits(pos,sig)<<trail;  pos += sig;
+      }
+      if( i >= from ) {
+        double d = Double.longBitsToDouble(prev);
+        boolean na = Double.isNaN(d);
+        if( ds != null ) ds[i-from] = na ? NA : d;
+        if( nas != null ) nas[i-from] = na;
+        if( is != null ) {
+          if( !na && (int)d != d ) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+          is[i-from] = na ? iNA : (int)d;
+        }
+      }
+      i++;
+    }
+    return prev;
+  }
+
+  @Override protected final double atd_impl( int i ) { return Double.longBitsToDouble(decode(i,i+1,null,0,null,0,null)); }
+  @Override protected final long at8_impl( int i ) {
+    double res = atd_impl(i);
+    if( Double.isNaN(res) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return (long)res;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return Double.isNaN(atd_impl(i)); }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to){
+    return getDoubles(vals,from,to,Double.NaN);
+  }
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    decode(from,to,vals,NA,null,0,null);
+    return vals;
+  }
+  @Override public int [] getIntegers(int [] vals, int from, int to, int NA){
+    decode(from,to,null,0,vals,NA,null);
+    return vals;
+  }
+  @Override public boolean [] getNAs(boolean [] vals, int from, int to){
+    decode(from,to,null,0,null,0,vals);
+    return vals;
+  }
+
+  // Bit-packed, so no update-in-place; writes inflate the Chunk
+  @Override boolean set_impl(int idx, long l) { return false; }
+  @Override boolean set_impl(int i, double d) { return false; }
+  @Override boolean set_impl(int i, float f ) { return false; }
+  @Override boolean setNA_impl(int idx) { return false; }
+
+  @Override public NewChunk inflate_impl(NewChunk nc) {
+    nc.alloc_doubles(_len);
+    decode(0,_len,nc.doubles(),Double.NaN,null,0,null);
+    nc.set_sparseLen(nc.set_len(_len));
+    return nc;
+  }
+  @Override protected final void initFromBytes () {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+    _nblocks = UnsafeUtils.get4(_mem,4);
+    _base = (8+(_nblocks<<2)+7)&~7;
+  }
+}
@@ -17,6 +17,7 @@ public class CNAXDChunk extends CNAXIChunk {
     throw H2O.fail();
   }
 
+  @Override protected double getDValue(int off, double NA){ return getFValue(off); }
   @Override protected long at8_impl(int idx) {
     int off = findOffset(idx);
     if(getId(off) != idx) throw new IllegalArgumentException("at8_abs but value is missing");
@@ -0,0 +1,159 @@
+package water.fvec;
+
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+import java.util.Arrays;
+
+/**
+ * The run-length encoded column, for sorted or grouped data with long runs
+ * of identical values.  Stores one (start row, value) pair per run; random
+ * access binary-searches the run starts, and {@link #runEnd} hands whole
+ * runs to callers that can aggregate them at once.
+ *
+ * <p>Values are kept as the doubles the dense encoding would have returned
+ * (NaN for NA), so choosing this Chunk never changes what a reader sees.
+ *
+ * <p>Layout: _len (4 bytes), run count (4 bytes), run start rows (4 bytes
+ * each), padded to 8 bytes, then the run values (8 bytes each).
+ */
+public class CRLChunk extends Chunk {
+  private static final int _OFF = 8;
+
+  private transient int _nruns;
+  private transient int _vals;  // Byte offset of the values
+  private transient boolean _hasFloat;
+  CRLChunk() {}
+  CRLChunk( byte[] bs ) { _mem = bs; initFromBytes(); }
+
+  static int byteSize( int nruns ) { return ((_OFF+(nruns<<2)+7)&~7) + (nruns<<3); }
+
+  /** Count the runs in c, giving up (and returning -1) past maxRuns */
+  static int countRuns( Chunk c, int maxRuns ) {
+    final int len = c._len;
+    double[] ds = new double[Math.min(len,1024)];
+    int nruns = 0;
+    long prev = 0;
+    for( int lo = 0; lo < len; lo += ds.length ) {
+      int hi = Math.min(len, lo+ds.length);
+      c.getDoubles(ds,lo,hi);
+      for( int i = lo; i < hi; ++i ) {
+        long bits = Double.doubleToLongBits(ds[i-lo]); // Canonical NaN
+        if( i == 0 || bits != prev ) {
+          if( ++nruns > maxRuns ) return -1;
+          prev = bits;
+        }
+      }
+    }
+    return nruns;
+  }
+
+  /** Run-length encode c, which holds exactly nruns runs */
+  static CRLChunk compress( Chunk c, int nruns ) {
+    final int len = c._len;
+    byte[] mem = MemoryManager.malloc1(byteSize(nruns));
+    final int vals = byteSize(nruns) - (nruns<<3);
+    UnsafeUtils.set4(mem,0,len);
+    UnsafeUtils.set4(mem,4,nruns);
+    double[] ds = new double[Math.min(len,1024)];
+    int r = 0;
+    long prev = 0;
+    for( int lo = 0; lo < len; lo += ds.length ) {
+      int hi = Math.min(len, lo+ds.length);
+      c.getDoubles(ds,lo,hi);
+      for( int i = lo; i < hi; ++i ) {
+        long bits = Double.doubleToLongBits(ds[i-lo]);
+        if( i == 0 || bits != prev ) {
+          UnsafeUtils.set4(mem,_OFF+(r<<2),i);
+          UnsafeUtils.set8d(mem,vals+(r<<3),ds[i-lo]);
+          r++;
+          prev = bits;
+        }
+      }
+    }
+    assert r == nruns;
+    return new CRLChunk(mem);
+  }
+
+  private int start( int r ) { return UnsafeUtils.get4(_mem,_OFF+(r<<2)); }
+  private double val( int r ) { return UnsafeUtils.get8d(_mem,_vals+(r<<3)); }
+  private int end( int r ) { return r+1 < _nruns ? start(r+1) : _len; }
+
+  // Index of the run holding row i
+  private int run( int i ) {
+    int lo = 0, hi = _nruns-1;
+    while( lo < hi ) {
+      int mid = (lo+hi+1)>>>1;
+      if( start(mid) <= i ) lo = mid;
+      else hi = mid-1;
+    }
+    return lo;
+  }
+
+  public int numRuns() { return _nruns; }
+  @Override public int runEnd( int i ) { return end(run(i)); }
+  @Override public boolean hasFloat() { return _hasFloat; }
+
+  @Override protected final double atd_impl( int i ) { return val(run(i)); }
+  @Override protected final long at8_impl( int i ) {
+    double res = atd_impl(i);
+    if( Double.isNaN(res) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return (long)res;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return Double.isNaN(atd_impl(i)); }
+
+  @Override public double [] getDoubles(double [] vals, int from, int to){
+    return getDoubles(vals,from,to,Double.NaN);
+  }
+  @Override public double [] getDoubles(double [] vals, int from, int to, double NA){
+    for( int r = run(from), i = from; i < to; ++r ) {
+      int e = Math.min(to,end(r));
+      double d = val(r);
+      Arrays.fill(vals,i-from,e-from,Double.isNaN(d) ? NA : d);
+      i = e;
+    }
+    return vals;
+  }
+  @Override public int [] getIntegers(int [] vals, int from, int to, int NA){
+    for( int r = run(from), i = from; i < to; ++r ) {
+      int e = Math.min(to,end(r));
+      double d = val(r);
+      if( !Double.isNaN(d) && (int)d != d ) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+      Arrays.fill(vals,i-from,e-from,Double.isNaN(d) ? NA : (int)d);
+      i = e;
+    }
+    return vals;
+  }
+  @Override public boolean [] getNAs(boolean [] vals, int from, int to){
+    for( int r = run(from), i = from; i < to; ++r ) {
+      int e = Math.min(to,end(r));
+      Arrays.fill(vals,i-from,e-from,Double.isNaN(val(r)));
+      i = e;
+    }
+    return vals;
+  }
+
+  // Writes inside a run would split it; always inflate
+  @Override boolean set_impl(int idx, long l) { return false; }
+  @Override boolean set_impl(int i, double d) { return false; }
+  @Override boolean set_impl(int i, float f ) { return false; }
+  @Override boolean setNA_impl(int idx) { return false; }
+
+  @Override public NewChunk inflate_impl(NewChunk nc) {
+    nc.alloc_doubles(_len);
+    getDoubles(nc.doubles(),0,_len);
+    nc.set_sparseLen(nc.set_len(_len));
+    return nc;
+  }
+  @Override protected final void initFromBytes () {
+    _start = -1;  _cidx = -1;
+    set_len(UnsafeUtils.get4(_mem,0));
+    _nruns = UnsafeUtils.get4(_mem,4);
+    _vals = byteSize(_nruns) - (_nruns<<3);
+    _hasFloat = false;
+    for( int r = 0; r < _nruns; ++r ) {
+      double d = val(r);
+      if( !Double.isNaN(d) && (long)d != d ) { _hasFloat = true; break; }
+    }
+  }
+}
@@ -69,6 +69,76 @@ public class CStrChunk extends Chunk {
     return nc;
   }
 
+  /** A string to string transform, for {@link #mapDistinct} */
+  public interface StrFunction { String apply(String str); }
+
+  /**
+   * Apply a transform once per distinct string in this chunk.  Equal strings
+   * share their bytes (see NewChunk), so rows with the same offset reuse the
+   * result; repeated values like URLs or user agents are transformed once.
+   *
+   * @param nc NewChunk to be filled with the transformed strings
+   * @param fcn transform, returning null for NA
+   * @return Filled NewChunk
+   */
+  public NewChunk mapDistinct(NewChunk nc, StrFunction fcn) {
+    HashMap<Integer, BufferedString> done = new HashMap<>();
+    BufferedString tmpStr = new BufferedString();
+    for (int i = 0; i < _len; i++) {
+      int off = UnsafeUtils.get4(_mem, idx(i));
+      if (off == NA) {
+        nc.addNA();
+        continue;
+      }
+      BufferedString res = done.get(off);
+      if (res == null && !done.containsKey(off)) {
+        String str = fcn.apply(atStr_impl(tmpStr, i).toString());
+        done.put(off, res = str == null ? null : new BufferedString(str));
+      }
+      nc.addStr(res);
+    }
+    return nc;
+  }
+
+  /** A string to strings transform, for {@link #mapDistinct(NewChunk[], StrsFunction)} */
+  public interface StrsFunction { String[] apply(String str); }
+
+  /**
+   * Apply a transform to several columns once per distinct string in this
+   * chunk: the i-th string of the result goes to the i-th NewChunk, and the
+   * NewChunks past the end of the result (all of them for NA) get an NA.
+   *
+   * @param ncs NewChunks to be filled with the transformed strings
+   * @param fcn transform, never called for NA
+   * @return Filled NewChunks
+   */
+  public NewChunk[] mapDistinct(NewChunk[] ncs, StrsFunction fcn) {
+    HashMap<Integer, BufferedString[]> done = new HashMap<>();
+    done.put(NA, new BufferedString[0]);
+    BufferedString tmpStr = new BufferedString();
+    for (int i = 0; i < _len; i++) {
+      int off = UnsafeUtils.get4(_mem, idx(i));
+      BufferedString[] res = done.get(off);
+      if (res == null) {
+        String[] strs = fcn.apply(atStr_impl(tmpStr, i).toString());
+        res = new BufferedString[strs.length];
+        for (int j = 0; j < strs.length; j++) res[j] = new BufferedString(strs[j]);
+        done.put(off, res);
+      }
+      int col = 0;
+      for (; col < res.length; col++) ncs[col].addStr(res[col]);
+      for (; col < ncs.length; col++) ncs[col].addNA();
+    }
+    return ncs;
+  }
+
+  /**
+   * Id of the string in row i, the same for all rows holding equal strings
+   * (see NewChunk), or -1 for NA.  Lets callers compute a per-string result
+   * once per distinct string.
+   */
+  public int distinctId(int i) { return UnsafeUtils.get4(_mem, idx(i)); }
+
   /**
    * Optimized toLower() method to operate across the entire CStrChunk buffer in one pass.
    * This method only changes the values of ASCII uppercase letters in the text.
@@ -199,9 +269,12 @@ public class CStrChunk extends Chunk {
   
   public NewChunk asciiEntropy(NewChunk nc) {
     nc.alloc_doubles(_len);
+    HashMap<Integer, Double> done = new HashMap<>(); // Once per distinct string
     for (int i = 0; i < _len; i++) {
       int off = UnsafeUtils.get4(_mem, idx(i));
-      if (off != NA) {
+      Double e = off == NA ? null : done.get(off);
+      if (e != null) nc.addNum(e);
+      else if (off != NA) {
         HashMap<Byte, Integer> freq = new HashMap<>();
         int j = 0;
         while (_mem[_valstart + off + j] != 0)  {
@@ -217,6 +290,7 @@ public class CStrChunk extends Chunk {
           n = freq.get(b);
           sume += -n/N * Math.log(n/N) / Math.log(2);
         }
+        done.put(off, sume);
         nc.addNum(sume);
       } else nc.addNA();
     }
@@ -57,8 +57,32 @@ public class CUDChunk extends Chunk {
       if(Double.isNaN(uniques[i]))
         uniques[i] = NA;
     }
-    for(int i = 0; i < _len; ++i)
-      vals[i] = uniques[(UnsafeUtils.get1(_mem, 8 + (numUniques << 3) + i)+128)];
+    for(int i = from; i < to; ++i)
+      vals[i - from] = uniques[(UnsafeUtils.get1(_mem, 8 + (numUniques << 3) + i)+128)];
+    return vals;
+  }
+
+  @Override public int [] getIntegers(int [] vals, int from, int to, int NA) {
+    int [] uniques = new int[numUniques];
+    boolean [] nonInt = new boolean[numUniques];
+    for(int i = 0; i < numUniques; ++i) {
+      double d = Double.longBitsToDouble(UnsafeUtils.get8(_mem, 8 + (i << 3)));
+      uniques[i] = Double.isNaN(d) ? NA : (int)d;
+      nonInt[i] = !Double.isNaN(d) && uniques[i] != d;
+    }
+    for(int i = from; i < to; ++i) {
+      int u = UnsafeUtils.get1(_mem, 8 + (numUniques << 3) + i)+128;
+      if(nonInt[u]) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+      vals[i - from] = uniques[u];
+    }
+    return vals;
+  }
+  @Override public boolean [] getNAs(boolean [] vals, int from, int to) {
+    boolean [] isNA = new boolean[numUniques];
+    for(int i = 0; i < numUniques; ++i)
+      isNA[i] = Double.isNaN(Double.longBitsToDouble(UnsafeUtils.get8(_mem, 8 + (i << 3))));
+    for(int i = from; i < to; ++i)
+      vals[i - from] = isNA[UnsafeUtils.get1(_mem, 8 + (numUniques << 3) + i)+128];
     return vals;
   }
 
@@ -18,6 +18,7 @@ public final class CX0Chunk extends CXIChunk {
   @Override double max() { return 1; }
   @Override public boolean hasNA() { return false; }
 
+  @Override protected double getDValue(int off, double NA){ return 1; }
   @Override public int asSparseDoubles(double [] vals, int[] ids, double NA) {
     if(vals.length < _sparseLen) throw new IllegalArgumentException();
     int off = _OFF;
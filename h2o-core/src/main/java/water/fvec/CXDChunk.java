@@ -14,6 +14,10 @@ public class CXDChunk extends CXIChunk {
     throw H2O.fail();
   }
 
+  @Override protected double getDValue(int off, double NA){
+    double d = getFValue(off);
+    return Double.isNaN(d)?NA:d;
+  }
   @Override public int asSparseDoubles(double [] vals, int[] ids, double NA) {
     if(vals.length < _sparseLen) throw new IllegalArgumentException();
     int off = _OFF;
@@ -37,20 +37,56 @@ public class CXIChunk extends Chunk {
     assert (_mem.length - _OFF) % (_valsz+_ridsz) == 0:"unexpected mem buffer length: mem.length = " + _mem.length + ", off = " + _OFF + ", valSz = " + _valsz + "ridsz = " + _ridsz;
   }
 
+  // Byte offset of the first stored element at or after row from, or
+  // _mem.length if none
+  private int firstOffset(int from){
+    if(_sparseLen == 0 || from >= _len) return _mem.length;
+    int off = findOffset(from);
+    return getId(off) < from ? off + _ridsz + _valsz : off;
+  }
+  // Value of the stored element at an (byte)offset, NA replaced
+  protected double getDValue(int off, double NA){
+    long v = getIValue(off);
+    return v == NAS[_valsz_log]?NA:v;
+  }
+
+  /**
+   * Dense bulk interface, fetch values from the given range.  Walks only the
+   * stored elements; no allocation.
+   */
   @Override public double [] getDoubles(double [] vals,int from, int to, double NA){
-    double fill = isSparseNA()?NA:0;
-    if(from == 0 && to == _len) {
-      Arrays.fill(vals,fill);
-      double [] svals = new double[_sparseLen];
-      int [] sids = new int[_sparseLen];
-      asSparseDoubles(svals,sids, NA);
-      for(int i = 0; i < sids.length && sids[i] < to; ++i)
-        vals[sids[i]] = svals[i];
-    } else {
-      for(int i = from; i < to; ++i)
-        vals[i-from] = fill;
-      for(int i= nextNZ(from-1); i < to; i = nextNZ(i))
-        vals[i-from] = atd(i);
+    Arrays.fill(vals,0,to-from,isSparseNA()?NA:0);
+    final int inc = _ridsz + _valsz;
+    for(int off = firstOffset(from); off < _mem.length; off += inc) {
+      int id = getId(off);
+      if(id >= to) break;
+      vals[id-from] = getDValue(off,NA);
+    }
+    return vals;
+  }
+  @Override public int [] getIntegers(int [] vals, int from, int to, int NA){
+    Arrays.fill(vals,0,to-from,isSparseNA()?NA:0);
+    final int inc = _ridsz + _valsz;
+    for(int off = firstOffset(from); off < _mem.length; off += inc) {
+      int id = getId(off);
+      if(id >= to) break;
+      double d = getDValue(off,Double.NaN);
+      if(Double.isNaN(d)) vals[id-from] = NA;
+      else {
+        if((int)d != d) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+        vals[id-from] = (int)d;
+      }
+    }
+    return vals;
+  }
+  @Override public boolean [] getNAs(boolean [] vals, int from, int to){
+    final boolean sparseNA = isSparseNA();
+    Arrays.fill(vals,0,to-from,sparseNA);
+    final int inc = _ridsz + _valsz;
+    for(int off = firstOffset(from); off < _mem.length; off += inc) {
+      int id = getId(off);
+      if(id >= to) break;
+      vals[id-from] = !sparseNA && Double.isNaN(getDValue(off,Double.NaN));
     }
     return vals;
   }
@@ -2,6 +2,7 @@ package water.fvec;
 
 import water.*;
 import water.parser.BufferedString;
+import water.util.UnsafeUtils;
 
 import java.util.UUID;
 
@@ -146,19 +147,39 @@ public abstract class Chunk extends Iced<Chunk> {
     return vals;
   }
 
+  /**
+   * Dense bulk interface, fetch integer values from the given range.  Throws
+   * IllegalArgumentException on non-integer values.
+   * @param vals
+   * @param from
+   * @param to
+   * @param NA value used for missing entries
+   */
   public int [] getIntegers(int [] vals, int from, int to, int NA){
     for(int i = from; i < to; ++i) {
       double d = atd(i);
       if(Double.isNaN(d))
-        vals[i] = NA;
+        vals[i - from] = NA;
       else {
-        vals[i] = (int)d;
-        if(vals[i] != d) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
+        vals[i - from] = (int)d;
+        if(vals[i - from] != d) throw new IllegalArgumentException("Calling getIntegers on non-integer column");
       }
     }
     return vals;
   }
 
+  /**
+   * Dense bulk interface, fetch the NA flags of the given range
+   * @param vals
+   * @param from
+   * @param to
+   */
+  public boolean [] getNAs(boolean [] vals, int from, int to){
+    for(int i = from; i < to; ++i)
+      vals[i - from] = isNA(i);
+    return vals;
+  }
+
 
   /**
    * Dense bulk interface, fetch values from the given ids
@@ -216,10 +237,45 @@ public abstract class Chunk extends Iced<Chunk> {
   byte[] _mem;
   /** Short-cut to the embedded big-data memory.  Generally not useful for
    *  public consumption, since the data remains compressed and holding on to a
-   *  pointer to this array defeats the user-mode spill-to-disk. */
-  public byte[] getBytes() { return _mem; }
-
-  public void setBytes(byte[] mem) { _mem = mem; }
+   *  pointer to this array defeats the user-mode spill-to-disk.  A copy if the
+   *  Chunk reads its bytes in place off-heap. */
+  public byte[] getBytes() { return heapBytes(); }
+
+  public void setBytes(byte[] mem) { _mem = mem; _mrel = 0; _mkeep = null; }
+
+  // Some fixed-width Chunks read their bytes in place from the off-heap tier
+  // (see Value), rather than from a copy on the heap: then _mem is null,
+  // _mrel locates the bytes for the UnsafeUtils getters and _mkeep keeps the
+  // native memory allocated for as long as this Chunk is around.  Anything
+  // but reading works on a heap copy.
+  transient long _mrel;
+  private transient OffHeapMem _mkeep;
+  /** True if this Chunk reads its bytes in place from the off-heap tier */
+  public final boolean readsOffHeap() { return _mkeep != null; }
+
+  /** A Chunk of the given type reading the given off-heap bytes in place, or
+   *  null if Chunks of that type cannot. */
+  public static Chunk inPlace( int type, OffHeapMem mem ) {
+    Chunk c = (Chunk)TypeMap.newFreezable(type);
+    c._mrel = UnsafeUtils.nativeRel(mem._adr);
+    c._mkeep = mem;
+    c._start = -1;  c._cidx = -1;
+    return c.initInPlace(mem._len) ? c : null;
+  }
+  // Overridden by the Chunks which only ever read _mem through the
+  // UnsafeUtils getters: set the length from the byte count and return true.
+  boolean initInPlace( int nbytes ) { return false; }
+
+  // The bytes on the heap; a copy if read in place
+  private byte[] heapBytes() {
+    OffHeapMem keep = _mkeep;
+    if( keep == null ) return _mem;
+    byte[] mem = MemoryManager.malloc1(keep._len);
+    UnsafeUtils.copyFromNative(keep._adr,mem,0,keep._len);
+    return mem;
+  }
+  // Move onto the heap, before writing.  Only for Chunks no one else reads.
+  final void toHeap() { if( _mkeep != null ) setBytes(heapBytes()); }
 
   /** Used by a ParseExceptionTest to break the Chunk invariants and trigger an
    *  NPE.  Not intended for public use. */
@@ -438,14 +494,17 @@ public abstract class Chunk extends Iced<Chunk> {
     c2._vec=null;
     c2._start=-1;
     c2._cidx=-1;
-    c2._mem = _mem.clone();
+    if( c2.readsOffHeap() ) c2.toHeap();
+    else c2._mem = _mem.clone();
     return c2;
   }
 
   private void setWrite() {
     if( _chk2 != null ) return; // Already setWrite
     assert !(this instanceof NewChunk) : "Cannot direct-write into a NewChunk, only append";
-    setWrite(clone());
+    Chunk ck = clone();
+    ck.toHeap();
+    setWrite(ck);
   }
 
   private void setWrite(Chunk ck) {
@@ -691,6 +750,13 @@ public abstract class Chunk extends Iced<Chunk> {
   // Next non-NA. Analogous to nextNZ()
   public int nextNNA(int rid){ return rid + 1;}
 
+  /** Exclusive end of a run of identical values starting at row rid, for
+   *  callers that can process a whole run at once (e.g. group-by on sorted
+   *  data).  Runs need not be maximal: the default is a run of one row, and
+   *  run-length encoded and constant Chunks report their real runs.
+   *  @return a row in (rid,_len] with all rows in [rid,return) equal */
+  public int runEnd(int rid){ return rid + 1;}
+
   /** Get chunk-relative indices of values (nonnas for nasparse, all for dense)
    *  stored in this chunk.  For dense chunks, this will contain indices of all
    *  the rows in this chunk.
@@ -736,10 +802,10 @@ public abstract class Chunk extends Iced<Chunk> {
 
   /** Custom serializers implemented by Chunk subclasses: the _mem field
    *  contains ALL the fields already. */
-  public final  AutoBuffer write_impl(AutoBuffer bb) {return bb.putA1(_mem);}
+  public final  AutoBuffer write_impl(AutoBuffer bb) {return bb.putA1(heapBytes());}
 
   @Override
-  public byte [] asBytes(){return _mem;}
+  public byte [] asBytes(){return heapBytes();}
 
   @Override
   public final Chunk reloadFromBytes(byte [] ary){
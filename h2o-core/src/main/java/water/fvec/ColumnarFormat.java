@@ -0,0 +1,343 @@
+package water.fvec;
+
+import water.H2O;
+import water.Job;
+import water.parser.BufferedString;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A columnar binary export of a Frame, in the spirit of the Arrow IPC file
+ * format: each Vec's Chunks are written as contiguous, typed, little-endian
+ * buffers with validity bitmaps, so another process can mmap the file and
+ * use the columns in place without parsing.
+ *
+ * <p>File layout, every buffer starting on an 8-byte boundary:
+ * <pre>
+ *   "H2OCOLS1"
+ *   batch 0:  column 0 buffers, column 1 buffers, ...    (one batch per chunk index)
+ *   batch 1:  ...
+ *   footer, zero-padded to 8 bytes
+ *   footer length (int64)
+ *   "H2OCOLS1"
+ * </pre>
+ * Each column in a batch has a validity bitmap (bit i of byte i/8 set when
+ * row i is present, as in Arrow) followed by its data: {@link #FLOAT64} and
+ * {@link #INT64} values, {@link #TIME_MS} epoch milliseconds, {@link #DICT32}
+ * int32 categorical codes, {@link #UTF8} int32 offsets (rows+1 of them) then
+ * the bytes, or {@link #UUID128} low/high int64 pairs.  Missing rows hold 0.
+ *
+ * <p>Footer: int32 version, int32 column count, int64 row count, int32 batch
+ * count; per column a type byte, name and domain (int32 count, -1 for none,
+ * then strings); per batch an int32 row count and, per column, an int32
+ * buffer count and int64 (offset,length) pairs.  Strings are an int32 byte
+ * length and UTF-8 bytes.
+ *
+ * <p>Unlike Arrow, the metadata is this fixed binary footer rather than
+ * FlatBuffers messages, so readers need the small {@link Reader} below (or
+ * its equivalent) rather than an Arrow library.
+ */
+public class ColumnarFormat {
+  static final byte[] MAGIC = "H2OCOLS1".getBytes(StandardCharsets.US_ASCII);
+  static final int VERSION = 1;
+
+  public static final byte FLOAT64 = 1;
+  public static final byte INT64 = 2;
+  public static final byte TIME_MS = 3;
+  public static final byte DICT32 = 4;
+  public static final byte UTF8 = 5;
+  public static final byte UUID128 = 6;
+
+  private static byte typeOf(Vec v) {
+    switch (v.get_type()) {
+    case Vec.T_CAT:  return DICT32;
+    case Vec.T_STR:  return UTF8;
+    case Vec.T_UUID: return UUID128;
+    case Vec.T_TIME: return TIME_MS;
+    case Vec.T_NUM:  return !v.isBad() && v.isInt() ? INT64 : FLOAT64;
+    default:         return FLOAT64; // All-NA columns
+    }
+  }
+
+  /** Write a Frame to a stream, one batch per chunk index, pulling remote
+   *  Chunks to this node as needed.
+   *  @param job optional, for progress (one unit per chunk index) and cancellation
+   *  @return bytes written */
+  public static long write(Frame fr, OutputStream os, Job job) throws IOException {
+    return new Writer(fr, os).write(job);
+  }
+
+  private static final class Writer {
+    final Frame _fr;
+    final Vec[] _vecs;
+    final byte[] _types;
+    final OutputStream _os;
+    long _pos;
+    ByteBuffer _buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    final ArrayList<long[]> _index = new ArrayList<>(); // Per batch & column: offset,length pairs
+    final ArrayList<Integer> _batchRows = new ArrayList<>();
+
+    Writer(Frame fr, OutputStream os) {
+      _fr = fr;
+      _vecs = fr.vecs();
+      _types = new byte[_vecs.length];
+      for (int c = 0; c < _vecs.length; c++) _types[c] = typeOf(_vecs[c]);
+      _os = os;
+    }
+
+    long write(Job job) throws IOException {
+      _os.write(MAGIC);
+      _pos = MAGIC.length;
+      int nchunks = _vecs.length == 0 ? 0 : _vecs[0].nChunks();
+      for (int cidx = 0; cidx < nchunks; cidx++) {
+        if (job != null && job.stop_requested()) throw new Job.JobCancelledException();
+        int len = _vecs[0].chunkForChunkIdx(cidx)._len;
+        _batchRows.add(len);
+        for (int c = 0; c < _vecs.length; c++)
+          _index.add(column(_vecs[c].chunkForChunkIdx(cidx), _types[c]));
+        if (job != null) job.update(1);
+      }
+      footer();
+      return _pos;
+    }
+
+    // Write one column of one batch, returning its buffer locations
+    private long[] column(Chunk c, byte type) throws IOException {
+      final int n = c._len;
+      long[] locs = new long[type == UTF8 ? 6 : 4];
+      boolean[] nas = c.getNAs(new boolean[n], 0, n);
+      // Validity bitmap
+      byte[] bits = new byte[pad8((n + 7) >> 3)];
+      for (int i = 0; i < n; i++) if (!nas[i]) bits[i >> 3] |= 1 << (i & 7);
+      locs[0] = _pos;  locs[1] = bits.length;
+      bytes(bits, bits.length);
+      long start = _pos;
+      switch (type) {
+      case FLOAT64: {
+        double[] ds = c.getDoubles(new double[n], 0, n, 0);
+        ByteBuffer bb = alloc(n << 3);
+        bb.asDoubleBuffer().put(ds);
+        bytes(bb.array(), n << 3);
+        break;
+      }
+      case INT64: case TIME_MS: {
+        ByteBuffer bb = alloc(n << 3);
+        for (int i = 0; i < n; i++) bb.putLong(i << 3, nas[i] ? 0 : c.at8(i));
+        bytes(bb.array(), n << 3);
+        break;
+      }
+      case DICT32: {
+        int[] is = c.getIntegers(new int[n], 0, n, 0);
+        ByteBuffer bb = alloc(n << 2);
+        bb.asIntBuffer().put(is);
+        bytes(bb.array(), n << 2);
+        break;
+      }
+      case UUID128: {
+        ByteBuffer bb = alloc(n << 4);
+        for (int i = 0; i < n; i++)
+          if (!nas[i]) bb.putLong(i << 4, c.at16l(i)).putLong((i << 4) + 8, c.at16h(i));
+        bytes(bb.array(), n << 4);
+        break;
+      }
+      case UTF8: {
+        ByteBuffer offs = alloc((n + 1) << 2);
+        BufferedString tmpStr = new BufferedString();
+        ByteBuffer data = ByteBuffer.allocate(Math.max(16, n * 8));
+        for (int i = 0; i < n; i++) {
+          offs.putInt(i << 2, data.position());
+          if (nas[i]) continue;
+          BufferedString s = c.atStr(tmpStr, i);
+          if (data.remaining() < s.length())
+            data = grow(data, s.length());
+          data.put(s.getBuffer(), s.getOffset(), s.length());
+        }
+        offs.putInt(n << 2, data.position());
+        bytes(offs.array(), (n + 1) << 2);
+        pad();
+        locs[4] = _pos;  locs[5] = data.position();
+        bytes(data.array(), data.position());
+        locs[2] = start;  locs[3] = (n + 1) << 2;
+        pad();
+        return locs;
+      }
+      default: throw H2O.fail("Unknown column type " + type);
+      }
+      locs[2] = start;  locs[3] = _pos - start;
+      pad();
+      return locs;
+    }
+
+    private ByteBuffer alloc(int len) {
+      if (_buf.capacity() < len) _buf = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+      ByteBuffer bb = _buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      bb.clear();
+      Arrays.fill(bb.array(), 0, len, (byte) 0);
+      return bb;
+    }
+
+    private static ByteBuffer grow(ByteBuffer bb, int need) {
+      ByteBuffer nb = ByteBuffer.allocate(Math.max(bb.capacity() << 1, bb.position() + need));
+      nb.put(bb.array(), 0, bb.position());
+      return nb;
+    }
+
+    private void bytes(byte[] b, int len) throws IOException {
+      _os.write(b, 0, len);
+      _pos += len;
+    }
+
+    private void pad() throws IOException {
+      int p = (int) (-_pos & 7);
+      if (p > 0) bytes(new byte[8], p);
+    }
+
+    private void footer() throws IOException {
+      ByteBuffer f = ByteBuffer.allocate(1 << 12).order(ByteOrder.LITTLE_ENDIAN);
+      f = putInt(f, VERSION);
+      f = putInt(f, _vecs.length);
+      f = putLong(f, _fr.numRows());
+      f = putInt(f, _batchRows.size());
+      String[] names = _fr.names();
+      for (int c = 0; c < _vecs.length; c++) {
+        f = ensure(f, 1);
+        f.put(_types[c]);
+        f = putStr(f, names[c]);
+        String[] dom = _vecs[c].domain();
+        f = putInt(f, dom == null ? -1 : dom.length);
+        if (dom != null) for (String d : dom) f = putStr(f, d);
+      }
+      for (int b = 0; b < _batchRows.size(); b++) {
+        f = putInt(f, _batchRows.get(b));
+        for (int c = 0; c < _vecs.length; c++) {
+          long[] locs = _index.get(b * _vecs.length + c);
+          f = putInt(f, locs.length >> 1);
+          for (long l : locs) f = putLong(f, l);
+        }
+      }
+      int flen = pad8(f.position()); // Keep the trailer 8-byte aligned
+      f = ensure(f, flen - f.position());
+      bytes(f.array(), flen);
+      ByteBuffer tail = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, flen);
+      bytes(tail.array(), 8);
+      bytes(MAGIC, MAGIC.length);
+    }
+
+    private static ByteBuffer ensure(ByteBuffer bb, int need) {
+      if (bb.remaining() >= need) return bb;
+      ByteBuffer nb = ByteBuffer.allocate(Math.max(bb.capacity() << 1, bb.position() + need)).order(ByteOrder.LITTLE_ENDIAN);
+      nb.put(bb.array(), 0, bb.position());
+      return nb;
+    }
+    private static ByteBuffer putInt(ByteBuffer bb, int x) { bb = ensure(bb, 4); bb.putInt(x); return bb; }
+    private static ByteBuffer putLong(ByteBuffer bb, long x) { bb = ensure(bb, 8); bb.putLong(x); return bb; }
+    private static ByteBuffer putStr(ByteBuffer bb, String s) {
+      byte[] b = s.getBytes(StandardCharsets.UTF_8);
+      bb = putInt(bb, b.length);
+      bb = ensure(bb, b.length);
+      bb.put(b);
+      return bb;
+    }
+  }
+
+  private static int pad8(int x) { return (x + 7) & ~7; }
+
+  /**
+   * Reads a columnar export by memory-mapping its buffers; nothing is parsed
+   * or copied beyond the footer.
+   */
+  public static class Reader implements AutoCloseable {
+    private final RandomAccessFile _raf;
+    private final FileChannel _ch;
+    public final int _ncols;
+    public final long _nrows;
+    public final byte[] _types;
+    public final String[] _names;
+    public final String[][] _domains;
+    public final int[] _batchRows;
+    private final long[][][] _locs; // batch, column, offset/length pairs
+
+    public Reader(File f) throws IOException {
+      _raf = new RandomAccessFile(f, "r");
+      _ch = _raf.getChannel();
+      long size = _ch.size();
+      byte[] magic = new byte[8];
+      ByteBuffer tail = size < 32 ? null : map(size - 16, 16);
+      if (tail != null) {
+        tail.position(8);
+        tail.get(magic);
+      }
+      if (tail == null || !Arrays.equals(magic, MAGIC)) {
+        _raf.close();
+        throw new IOException("Not a columnar frame file: " + f);
+      }
+      long flen = tail.getLong(0);
+      ByteBuffer ft = map(size - 16 - flen, flen);
+      if (ft.getInt() != VERSION) throw new IOException("Unsupported columnar frame version in " + f);
+      _ncols = ft.getInt();
+      _nrows = ft.getLong();
+      int nbatches = ft.getInt();
+      _types = new byte[_ncols];
+      _names = new String[_ncols];
+      _domains = new String[_ncols][];
+      for (int c = 0; c < _ncols; c++) {
+        _types[c] = ft.get();
+        _names[c] = getStr(ft);
+        int nd = ft.getInt();
+        if (nd >= 0) {
+          _domains[c] = new String[nd];
+          for (int d = 0; d < nd; d++) _domains[c][d] = getStr(ft);
+        }
+      }
+      _batchRows = new int[nbatches];
+      _locs = new long[nbatches][_ncols][];
+      for (int b = 0; b < nbatches; b++) {
+        _batchRows[b] = ft.getInt();
+        for (int c = 0; c < _ncols; c++) {
+          long[] locs = _locs[b][c] = new long[ft.getInt() << 1];
+          for (int i = 0; i < locs.length; i++) locs[i] = ft.getLong();
+        }
+      }
+    }
+
+    private static String getStr(ByteBuffer bb) {
+      byte[] b = new byte[bb.getInt()];
+      bb.get(b);
+      return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer map(long off, long len) throws IOException {
+      return _ch.map(FileChannel.MapMode.READ_ONLY, off, len).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Buffer i of a column in a batch: 0 is the validity bitmap, 1 the
+     *  values (or UTF8 offsets), 2 the UTF8 bytes */
+    public ByteBuffer buffer(int batch, int col, int i) throws IOException {
+      long[] locs = _locs[batch][col];
+      return map(locs[i << 1], locs[(i << 1) + 1]);
+    }
+
+    public static boolean isValid(ByteBuffer validity, int row) {
+      return (validity.get(row >> 3) & (1 << (row & 7))) != 0;
+    }
+
+    /** String at a row of a UTF8 column batch, given its offsets and bytes buffers */
+    public static String string(ByteBuffer offs, ByteBuffer bytes, int row) {
+      int lo = offs.getInt(row << 2), hi = offs.getInt((row + 1) << 2);
+      byte[] b = new byte[hi - lo];
+      for (int i = 0; i < b.length; i++) b[i] = bytes.get(lo + i);
+      return new String(b, StandardCharsets.UTF_8);
+    }
+
+    @Override public void close() throws IOException { _raf.close(); }
+  }
+}
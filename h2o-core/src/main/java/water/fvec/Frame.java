@@ -1282,11 +1282,7 @@ public class Frame extends Lockable<Frame> {
     @Override public void map(Chunk[] cs) {
       int i=0;
       for(Chunk c: cs) {
-        Chunk c2 = c.clone();
-        c2._vec=null;
-        c2._start=-1;
-        c2._cidx=-1;
-        c2._mem = c2._mem.clone();
+        Chunk c2 = c.deepCopy();
         DKV.put(_vecs[i++].chunkKey(c.cidx()), c2, _fs, true);
       }
     }
@@ -1421,6 +1417,20 @@ public class Frame extends Lockable<Frame> {
     return job.start(t, fr.anyVec().nChunks());
   }
 
+  /** Export to a single file in the columnar binary layout of {@link ColumnarFormat},
+   *  written by this node. */
+  public static Job exportColumnar(Frame fr, String path, String frameName, boolean overwrite) {
+    boolean fileExists = H2O.getPM().exists(path);
+    if (overwrite && fileExists) {
+      Log.warn("File " + path + " exists, but will be overwritten!");
+    } else if (!overwrite && fileExists) {
+      throw new H2OIllegalArgumentException(path, "exportFrame", "File " + path + " already exists!");
+    }
+    Job job =  new Job<>(fr._key, "water.fvec.Frame", "Export dataset (columnar)");
+    FrameUtils.ColumnarExportDriver t = new FrameUtils.ColumnarExportDriver(fr, path, frameName, overwrite, job);
+    return job.start(t, Math.max(1, fr.anyVec().nChunks()));
+  }
+
   /** Convert this Frame to a CSV (in an {@link InputStream}), that optionally
    *  is compatible with R 3.1's recent change to read.csv()'s behavior.
    *  @return An InputStream containing this Frame as a CSV */
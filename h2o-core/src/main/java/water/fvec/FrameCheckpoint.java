@@ -0,0 +1,166 @@
+package water.fvec;
+
+import water.*;
+import water.exceptions.H2OIllegalArgumentException;
+import water.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+
+/**
+ * A fast binary checkpoint of a Frame: the compressed Chunks exactly as they
+ * sit in the DKV, plus the Vec metadata needed to rebuild the Frame around
+ * them.  Saving and loading never parse or re-compress anything.
+ *
+ * <p>Directory layout:
+ * <pre>
+ *   chunk_&lt;cidx&gt;   one per chunk index, written by the node homing it
+ *   frame.meta      written last by the caller, so a partial save does not load
+ * </pre>
+ * A chunk file holds, per column, the Chunk class name and its raw bytes.
+ * The meta file is a persistent {@link AutoBuffer} stream holding the column
+ * names, the row layout (ESPC), the node which wrote each chunk file, and the
+ * types, domains and any rollups already computed of the columns.
+ *
+ * <p>Load rebuilds the Vecs in a fresh VectorGroup with the saved row layout.
+ * The new Vecs home their Chunks on other nodes than the saved ones did, so
+ * each chunk file is read by the node which wrote it (the directory may be
+ * node-local), which puts the Chunks to their new homes.  Chunk files written
+ * by a node no longer in the cloud are read by the new home; that needs a
+ * directory all nodes see.
+ * The format is tied to the H2O version which wrote it, like exported models.
+ */
+public class FrameCheckpoint {
+  static final String META = "frame.meta";
+
+  static String chunkFile( String dir, int cidx ) { return dir+"/chunk_"+cidx; }
+
+  /** Save fr into dir; every node writes the Chunks it homes. */
+  public static void save( Frame fr, String dir, boolean overwrite ) {
+    String meta = dir+"/"+META;
+    if( !overwrite && H2O.getPM().exists(meta) )
+      throw new H2OIllegalArgumentException(dir, "saveFrame", "Checkpoint " + dir + " already exists!");
+    for( Vec v : fr.vecs() )
+      if( v.getClass() != Vec.class )
+        throw new H2OIllegalArgumentException("Cannot checkpoint column of type " + v.getClass().getSimpleName());
+    H2O.getPM().mkdirs(dir);
+    Key<Job> job = Key.make();
+    if( fr._key != null ) fr.read_lock(job);
+    try {
+      String[] writers = fr.numCols() == 0 ? null : new SaveTask(dir, fr.anyVec().nChunks()).doAll(fr)._writers;
+      // Meta last: its presence marks a complete checkpoint
+      AutoBuffer ab = new AutoBuffer(new BufferedOutputStream(H2O.getPM().create(meta, true)), true);
+      ab.putStr(fr._key == null ? null : fr._key.toString());
+      ab.putAStr(fr.names());
+      Vec[] vecs = fr.vecs();
+      ab.putA8(fr.numCols() == 0 ? null : fr.anyVec().espc());
+      ab.putAStr(writers);
+      for( Vec v : vecs ) {
+        ab.put1(v.get_type());
+        ab.putAStr(v.domain());
+        ab.put(RollupStats.getOrNull(v, v.rollupStatsKey()));
+      }
+      ab.close();
+    } finally {
+      if( fr._key != null ) fr.unlock(job);
+    }
+    Log.info("Saved frame " + fr._key + " checkpoint to " + dir);
+  }
+
+  /** Load the checkpoint in dir as a new Frame under key, or under the key it
+   *  was saved from when key is null. */
+  public static Frame load( String dir, Key<Frame> key ) {
+    AutoBuffer ab = new AutoBuffer(new BufferedInputStream(H2O.getPM().open(dir+"/"+META)));
+    String savedKey = ab.getStr();
+    String[] names = ab.getAStr();
+    long[] espc = ab.getA8();
+    String[] writers = ab.getAStr();
+    if( key == null ) key = Key.make(savedKey);
+    if( DKV.get(key) != null )
+      throw new H2OIllegalArgumentException(key.toString(), "loadFrame", "Frame " + key + " already exists!");
+    Key<Vec>[] keys = new Vec.VectorGroup().addVecs(names.length);
+    int rowLayout = names.length == 0 ? -1 : Vec.ESPC.rowLayout(keys[0], espc);
+    Vec[] vecs = new Vec[names.length];
+    RollupStats[] rss = new RollupStats[names.length];
+    Futures fs = new Futures();
+    for( int i = 0; i < vecs.length; i++ ) {
+      byte type = (byte)ab.get1();
+      vecs[i] = new Vec(keys[i], rowLayout, ab.getAStr(), type);
+      rss[i] = ab.get(RollupStats.class);
+      DKV.put(vecs[i], fs);
+    }
+    ab.close();
+    fs.blockForPending();
+    if( vecs.length > 0 && espc.length > 1 ) {
+      // One Key per chunk file, homed where the file is read
+      HashMap<String,H2ONode> members = new HashMap<>();
+      for( H2ONode node : H2O.CLOUD.members() ) members.put(node.getIpPortString(), node);
+      Key[] readers = new Key[espc.length-1];
+      for( int i = 0; i < readers.length; i++ ) {
+        H2ONode writer = members.get(writers[i]);
+        readers[i] = writer == null ? vecs[0].chunkKey(i) : Key.make(writer);
+      }
+      try {
+        new LoadTask(dir, keys, espc).doAll(readers);
+      } catch( RuntimeException e ) { // Missing or corrupt chunk file: leave nothing behind
+        for( Vec v : vecs ) v.remove(fs);
+        fs.blockForPending();
+        throw e;
+      }
+    }
+    // Rollups once the Chunks are in, so nothing recomputes them meanwhile
+    for( int i = 0; i < vecs.length; i++ )
+      if( rss[i] != null ) DKV.put(vecs[i].rollupStatsKey(), rss[i], fs);
+    Frame fr = new Frame(key, names, vecs);
+    DKV.put(fr, fs);
+    fs.blockForPending();
+    Log.info("Loaded frame " + key + " checkpoint from " + dir);
+    return fr;
+  }
+
+  private static class SaveTask extends MRTask<SaveTask> {
+    final String _dir;
+    final int _nchunks;
+    String[] _writers;          // Node which wrote each chunk file
+    SaveTask( String dir, int nchunks ) { _dir = dir; _nchunks = nchunks; }
+    @Override public void map( Chunk[] cs ) {
+      int cidx = cs[0].cidx();
+      OutputStream os = new BufferedOutputStream(H2O.getPM().create(chunkFile(_dir, cidx), true));
+      AutoBuffer ab = new AutoBuffer(os, false);
+      for( Chunk c : cs ) ab.putStr(c.getClass().getName()).putA1(c.asBytes());
+      ab.close();
+      if( _writers == null ) _writers = new String[_nchunks]; // A leaf may map several chunks
+      _writers[cidx] = H2O.SELF.getIpPortString();
+    }
+    @Override public void reduce( SaveTask st ) {
+      if( _writers == null ) _writers = st._writers;
+      else if( st._writers != null )
+        for( int i = 0; i < _nchunks; i++ )
+          if( _writers[i] == null ) _writers[i] = st._writers[i];
+    }
+  }
+
+  private static class LoadTask extends MRTask<LoadTask> {
+    final String _dir;
+    final Key<Vec>[] _vecs;
+    final long[] _espc;
+    LoadTask( String dir, Key<Vec>[] vecs, long[] espc ) { _dir = dir; _vecs = vecs; _espc = espc; }
+    // Runs where chunk file cidx is read: its writer, else the chunk's home
+    @Override public void map( Key reader, int cidx ) {
+      String file = chunkFile(_dir, cidx);
+      AutoBuffer ab = new AutoBuffer(new BufferedInputStream(H2O.getPM().open(file)));
+      Futures fs = new Futures();
+      for( Key<Vec> vk : _vecs ) {
+        Chunk c = (Chunk) TypeMap.newFreezable(ab.getStr());
+        c.reloadFromBytes(ab.getA1());
+        if( c._len != _espc[cidx+1]-_espc[cidx] )
+          throw new H2OIllegalArgumentException(file, "loadFrame", "Checkpoint chunk file " + file + " does not match the saved row layout");
+        DKV.put(Vec.chunkKey(vk, cidx), c, fs, true);
+      }
+      ab.close();
+      fs.blockForPending();
+    }
+  }
+}
@@ -362,11 +362,10 @@ public class NewChunk extends Chunk {
       c.addNum(_ds[i]);
     } else if (_ss != null) {
       int sidx = _is[i];
-      int nextNotNAIdx = i + 1;
-      // Find next not-NA value (_is[idx] != -1)
-      while (nextNotNAIdx < _is.length && _is[nextNotNAIdx] == -1) nextNotNAIdx++;
-      int send = nextNotNAIdx < _is.length ? _is[nextNotNAIdx]: _sslen;
-      int slen = send - sidx -1 /*account for trailing zero byte*/;
+      // Offsets are not in row order once equal strings share bytes, so
+      // find the end by the trailing zero byte
+      int slen = 0;
+      if (sidx != -1) while (_ss[sidx + slen] != 0) slen++;
       // null-BufferedString represents NA value
       BufferedString bStr = sidx == -1 ? null : _bfstr.set(_ss, sidx, slen);
       c.addStr(bStr);
@@ -1021,7 +1020,7 @@ public class NewChunk extends Chunk {
   // Study this NewVector and determine an appropriate compression scheme.
   // Return the data so compressed.
   public Chunk compress() {
-    Chunk res = compress2();
+    Chunk res = runLengthEncode(compress2());
     byte type = type();
     assert _vec == null ||  // Various testing scenarios do not set a Vec
       type == _vec._type || // Equal types
@@ -1049,6 +1048,23 @@ public class NewChunk extends Chunk {
     return res;
   }
 
+  // Sorted and grouped columns hold long runs of equal values; swap a dense
+  // numeric Chunk for a run-length encoded one when that at least halves it.
+  // Runs are counted on the dense Chunk's own values, so readers see the
+  // exact same doubles either way.  Sparse and constant Chunks are already
+  // small; C8 longs may not survive the trip through doubles.
+  private Chunk runLengthEncode(Chunk res) {
+    if( _len < 64 || res.isSparseZero() || res.isSparseNA() ||
+        res instanceof C0DChunk || res instanceof C0LChunk || res instanceof C8Chunk ||
+        res instanceof CStrChunk || res instanceof C16Chunk )
+      return res;
+    int maxRuns = (res._mem.length/2 - 8) / 12;
+    if( maxRuns < 1 ) return res;
+    int nruns = CRLChunk.countRuns(res, maxRuns);
+    if( nruns < 0 || CRLChunk.byteSize(nruns) > res._mem.length/2 ) return res;
+    return CRLChunk.compress(res, nruns);
+  }
+
   private static long leRange(long lemin, long lemax){
     if(lemin < 0 && lemax >= (Long.MAX_VALUE + lemin))
       return Long.MAX_VALUE; // if overflow return 64 as the max possible value
@@ -1062,7 +1078,7 @@ public class NewChunk extends Chunk {
     if( mode==Vec.T_BAD ) // ALL NAs, nothing to do
       return new C0DChunk(Double.NaN, _len);
     if( mode==Vec.T_STR )
-      return new CStrChunk(_sslen, _ss, _sparseLen, _len, _id, _is, _isAllASCII);
+      return chunkStr();
     boolean rerun=false;
     if(mode == Vec.T_CAT) {
       for(int i = 0; i< _sparseLen; i++ )
@@ -1417,8 +1433,61 @@ public class NewChunk extends Chunk {
     assert j == _sparseLen :"j = " + j + ", _len = " + _sparseLen;
     if (fitsInUnique && CUDChunk.computeByteSize(hs.size(), len()) < 0.8 * bs.length)
       return new CUDChunk(bs, hs, len());
-    else
-      return new C8DChunk(bs);
+    // Slowly changing doubles: XOR-encode if that also saves 20%
+    Chunk res = CGDChunk.compress(bs, _len, (int)(0.8 * bs.length));
+    return res != null ? res : new C8DChunk(bs);
+  }
+
+  // Strings: rows holding equal strings share one copy of the bytes, so the
+  // offsets act as a per-chunk dictionary and repeated values (URLs, user
+  // agents...) are stored once.  String ops can then work per distinct
+  // string, see CStrChunk.mapDistinct.  Mostly distinct strings (ids, free
+  // text) would pay for the table and save nothing: the leading DICT_SAMPLE
+  // strings decide, and such chunks are stored as written.
+  static final int DICT_SAMPLE = 256;
+  private Chunk chunkStr() {
+    if( !repeatsStrs() )
+      return new CStrChunk(_sslen, _ss, _sparseLen, _len, _id, _is, _isAllASCII);
+    HashMap<BufferedString,Integer> dict = new HashMap<>();
+    byte[] ss = MemoryManager.malloc1(_sslen);
+    int[] is = MemoryManager.malloc4(_sparseLen);
+    int sslen = 0;
+    BufferedString tmpStr = new BufferedString();
+    for( int i = 0; i < _sparseLen; ++i ) {
+      int off = _is[i];
+      if( off == CStrChunk.NA ) { is[i] = off; continue; }
+      int len = strLen(off);
+      Integer noff = dict.get(tmpStr.set(_ss,off,len));
+      if( noff == null ) {
+        System.arraycopy(_ss,off,ss,sslen,len+1); // With the trailing 0
+        dict.put(new BufferedString().set(ss,sslen,len),noff = sslen);
+        sslen += len+1;
+      }
+      is[i] = noff;
+    }
+    return new CStrChunk(sslen, ss, _sparseLen, _len, _id, is, _isAllASCII);
+  }
+
+  // True if at most half the sampled leading strings are distinct
+  private boolean repeatsStrs() {
+    HashSet<BufferedString> seen = new HashSet<>();
+    BufferedString tmpStr = new BufferedString();
+    int n = 0;
+    for( int i = 0; i < _sparseLen && n < DICT_SAMPLE; ++i ) {
+      int off = _is[i];
+      if( off == CStrChunk.NA ) continue;
+      int len = strLen(off);
+      if( !seen.contains(tmpStr.set(_ss,off,len)) ) seen.add(new BufferedString().set(_ss,off,len));
+      n++;
+    }
+    return n > 0 && 2*seen.size() <= n;
+  }
+
+  // Length of the 0-terminated string at off in _ss
+  private int strLen( int off ) {
+    int len = 0;
+    while( _ss[off+len] != 0 ) len++;
+    return len;
   }
 
   // Compute a compressed UUID buffer
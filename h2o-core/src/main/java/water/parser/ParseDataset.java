@@ -800,13 +800,13 @@ public final class ParseDataset {
         : new FVecParseWriter(_vg, chunkOff, categoricals(_cKey, localSetup._number_columns), localSetup._column_types, _parseSetup._chunk_size, avs);
     }
 
-    // Called once per file
-    @Override public void map( Key key ) {
+    // Called once per file; fidx is the file's index amongst all the parsed files
+    @Override public void map( Key key, int fidx ) {
       if( _jobKey.get().stop_requested() ) return;
       // FIXME: refactor parser setup to be configurable via parser object
       ParseSetup localSetup = (ParseSetup) _parseSetup.clone();
       ByteVec vec = getByteVec(key);
-      final int chunkStartIdx = _fileChunkOffsets[_lo];
+      final int chunkStartIdx = _fileChunkOffsets[fidx];
       Log.trace("Begin a map stage of a file parse with start index " + chunkStartIdx + ".");
 
       byte[] zips = vec.getFirstBytes();
@@ -819,13 +819,13 @@ public final class ParseDataset {
         case NONE:
           boolean disableParallelParse = (_keys.length > TOO_MANY_KEYS_COUNT) && (vec.nChunks() <= SMALL_FILE_NCHUNKS);
           if( _parseSetup._parse_type.isParallelParseSupported() && (! disableParallelParse)) {
-            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, key, vec.nChunks()).dfork(vec).getResult(false);
+            new DistributedParse(_vg, localSetup, _vecIdStart, chunkStartIdx, this, fidx, key, vec.nChunks()).dfork(vec).getResult(false);
             for( int i = 0; i < vec.nChunks(); ++i )
               _chunk2ParseNodeMap[chunkStartIdx + i] = vec.chunkKey(i).home_node().index();
           } else {
             InputStream bvs = vec.openStream(_jobKey);
-            _dout[_lo] = streamParse(bvs, localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()), bvs);
-            _errors = _dout[_lo].removeErrors();
+            _dout[fidx] = streamParse(bvs, localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()), bvs);
+            _errors = _dout[fidx].removeErrors();
             chunksAreLocal(vec,chunkStartIdx,key);
           }
           break;
@@ -841,8 +841,8 @@ public final class ParseDataset {
           ZipEntry ze = zis.getNextEntry(); // Get the *FIRST* entry
           // There is at least one entry in zip file and it is not a directory.
           if( ze != null && !ze.isDirectory() )
-            _dout[_lo] = streamParse(zis,localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()), bvs);
-            _errors = _dout[_lo].removeErrors();
+            _dout[fidx] = streamParse(zis,localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()), bvs);
+            _errors = _dout[fidx].removeErrors();
 
           zis.close();       // Confused: which zipped file to decompress
           chunksAreLocal(vec,chunkStartIdx,key);
@@ -851,8 +851,8 @@ public final class ParseDataset {
         case GZIP: {
           InputStream bvs = vec.openStream(_jobKey);
           // Zipped file; no parallel decompression;
-          _dout[_lo] = streamParse(new GZIPInputStream(bvs), localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()),bvs);
-          _errors = _dout[_lo].removeErrors();
+          _dout[fidx] = streamParse(new GZIPInputStream(bvs), localSetup, makeDout(localSetup,chunkStartIdx,vec.nChunks()),bvs);
+          _errors = _dout[fidx].removeErrors();
           // set this node as the one which processed all the chunks
           chunksAreLocal(vec,chunkStartIdx,key);
           break;
@@ -922,18 +922,20 @@ public final class ParseDataset {
       private final Key _cKey;  // Parse-local-categoricals key
       private final Key<Job> _jobKey;
       private transient final MultiFileParseTask _outerMFPT;
+      private transient final int _fidx; // Index of the parsed file in _outerMFPT
       private transient final Key _srckey; // Source/text file to delete on done
       private transient NonBlockingSetInt _visited;
       private transient long [] _espc;
       final int _nchunks;
 
-      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, Key srckey, int nchunks) {
+      DistributedParse(VectorGroup vg, ParseSetup setup, int vecIdstart, int startChunkIdx, MultiFileParseTask mfpt, int fidx, Key srckey, int nchunks) {
         super(null);
         _vg = vg;
         _setup = setup;
         _vecIdStart = vecIdstart;
         _startChunkIdx = startChunkIdx;
         _outerMFPT = mfpt;
+        _fidx = fidx;
         _cKey = mfpt._cKey;
         _jobKey = mfpt._jobKey;
         _srckey = srckey;
@@ -1013,7 +1015,7 @@ public final class ParseDataset {
 
       @Override public void postGlobal() {
         super.postGlobal();
-        _outerMFPT._dout[_outerMFPT._lo] = _dout;
+        _outerMFPT._dout[_fidx] = _dout;
         if(_dout.hasErrors()) {
           ParseWriter.ParseErr [] errs = _dout.removeErrors();
           for(ParseWriter.ParseErr err:errs)err._file = FileVec.getPathForKey(_srckey).toString();
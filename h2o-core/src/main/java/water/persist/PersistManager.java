@@ -86,10 +86,10 @@ public class PersistManager {
     boolean windowsPath = iceRoot.toString().matches("^[a-zA-Z]:.*");
 
     if (windowsPath) {
-      ice = new PersistFS(new File(iceRoot.toString()));
+      ice = makeIce(new File(iceRoot.toString()));
     }
     else if ((iceRoot.getScheme() == null) || Schemes.FILE.equals(iceRoot.getScheme())) {
-      ice = new PersistFS(new File(iceRoot.getPath()));
+      ice = makeIce(new File(iceRoot.getPath()));
     }
     else if( Schemes.HDFS.equals(iceRoot.getScheme()) ) {
       Log.err("HDFS ice_root not yet supported.  Exiting.");
@@ -132,6 +132,15 @@ public class PersistManager {
     }
   }
 
+  // Local-disk user-mode swapping: one file per Value, or memory-mapped swap files
+  private static Persist makeIce(File root) {
+    if (H2O.ARGS.ice_mmap) {
+      Log.info("Swapping to memory-mapped swap files in " + root);
+      return new PersistSwap(root);
+    }
+    return new PersistFS(root);
+  }
+
   public void store(int backend, Value v) throws IOException {
     stats[backend].store_count.incrementAndGet();
     I[backend].store(v);
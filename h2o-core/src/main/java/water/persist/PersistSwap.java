@@ -0,0 +1,177 @@
+package water.persist;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import water.*;
+import water.util.Log;
+
+/**
+ * User-mode swapping into large, pre-allocated, memory-mapped swap files.
+ *
+ * <p>{@link PersistFS} writes every spilled Value to its own file through a
+ * stream, and reading it back costs the file open plus a streamed read.  Here
+ * the swap space is a set of fixed-size files under ice_root, each mapped once
+ * into memory.  A slab allocator carves them into power-of-2 sized slots; a
+ * store is a positional write into the slot and a load is a memory copy out of
+ * the mapping, leaving the paging to the OS.  Stores do not go through the
+ * mapping: the files are sparse, and a full disk would then kill the JVM with
+ * a SIGBUS instead of failing the write.  Values too large for the biggest
+ * slab class fall back to the plain one-file-per-Value scheme.
+ *
+ * <p>Enabled with {@code -ice_mmap}.  All the non-swap file system operations
+ * are inherited from {@link PersistFS}.
+ */
+final class PersistSwap extends PersistFS {
+  static final int SWAP_FILE_SIZE = 1<<28;    // 256M per swap file
+  static final int MIN_SLAB_LOG = 12;          // Smallest slot: 4K
+  static final int MAX_SLAB_LOG = 24;          // Largest slot: 16M
+  static final int MAX_SLAB = 1<<MAX_SLAB_LOG;
+
+  // Mapped swap files; a slot address is (file index<<40 | slab class<<32 | offset)
+  private final ArrayList<MappedByteBuffer> _maps = new ArrayList<>();
+  private final ArrayList<FileChannel> _chans = new ArrayList<>(); // For writing
+  private final ArrayList<File> _files = new ArrayList<>();
+  // Next never-used byte in the last swap file
+  private int _bump = SWAP_FILE_SIZE;
+  // Free slots per slab class, indexed by slabLog
+  private final ArrayList<ArrayDeque<Long>> _free = new ArrayList<>();
+  // Where each swapped Key lives
+  final ConcurrentHashMap<Key,Long> _slots = new ConcurrentHashMap<>();
+
+  // A load may still be copying out of a slot freed right after it looked
+  // the slot up.  So freed slots wait in limbo, with the last load ticket
+  // issued when they were freed, until every load holding a ticket up to
+  // that one is done.
+  private final AtomicLong _ticket = new AtomicLong();
+  private final ConcurrentSkipListSet<Long> _loading = new ConcurrentSkipListSet<>();
+  private final ArrayDeque<long[]> _limbo = new ArrayDeque<>(); // {slot, ticket}
+
+  PersistSwap(File root) {
+    super(root);
+    for( int i=0; i<=MAX_SLAB_LOG; i++ ) _free.add(new ArrayDeque<Long>());
+  }
+
+  // Slab class for a given size: smallest power of 2 holding it
+  static int slabLog( int sz ) {
+    int lg = 32-Integer.numberOfLeadingZeros(Math.max(sz-1,1));
+    return Math.max(lg,MIN_SLAB_LOG);
+  }
+  private static int fidx( long slot ) { return (int)(slot>>>40); }
+  private static int lg  ( long slot ) { return (int)(slot>>>32)&0xFF; }
+  private static int off ( long slot ) { return (int)slot; }
+
+  private synchronized long allocSlot( int lg ) throws IOException {
+    // Slots no load can be reading anymore are free again
+    Long oldest = _loading.ceiling(0L);
+    while( !_limbo.isEmpty() && (oldest == null || _limbo.peekFirst()[1] < oldest) ) {
+      long slot = _limbo.pollFirst()[0];
+      _free.get(lg(slot)).addFirst(slot);
+    }
+    Long slot = _free.get(lg).pollFirst();
+    if( slot != null ) return slot;
+    int sz = 1<<lg;
+    if( _bump + sz > SWAP_FILE_SIZE ) { // Current file is full; map a new one
+      File f = new File(_dir, "swap"+_maps.size());
+      if( !_dir.mkdirs() && !_dir.exists() )
+        throw new IOException("mkdirs failed making "+_dir);
+      RandomAccessFile raf = new RandomAccessFile(f,"rw");
+      try {
+        raf.setLength(SWAP_FILE_SIZE); // Sparse; disk blocks come with the writes
+        _maps.add(raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, SWAP_FILE_SIZE));
+      } catch( IOException e ) {
+        raf.close();
+        throw e;
+      }
+      _chans.add(raf.getChannel());
+      _files.add(f);
+      _bump = 0;
+      // Slot sizes are powers of 2 and the file size is a multiple of the
+      // largest, so slots never straddle files.
+    }
+    long res = ((long)(_maps.size()-1)<<40) | ((long)lg<<32) | _bump;
+    _bump += sz;
+    return res;
+  }
+  private synchronized void freeSlot( long slot ) { _limbo.addLast(new long[]{slot,_ticket.get()}); }
+  // A slot never visible to loads is free right away
+  private synchronized void unallocSlot( long slot ) { _free.get(lg(slot)).addFirst(slot); }
+  private synchronized ByteBuffer map( long slot ) {
+    ByteBuffer bb = _maps.get(fidx(slot)).duplicate();
+    bb.position(off(slot));
+    return bb;
+  }
+
+  private synchronized FileChannel chan( long slot ) { return _chans.get(fidx(slot)); }
+
+  // Bracket a load; take the ticket before looking up the slot
+  long beginLoad() { long t = _ticket.incrementAndGet(); _loading.add(t); return t; }
+  void endLoad( long ticket ) { _loading.remove(ticket); }
+
+  @Override public byte[] load(Value v) throws IOException {
+    long ticket = beginLoad();
+    try {
+      Long slot = _slots.get(v._key);
+      if( slot == null ) return super.load(v); // Too big for a slab
+      byte[] b = MemoryManager.malloc1(v._max);
+      map(slot).get(b);
+      return b;
+    } finally {
+      endLoad(ticket);
+    }
+  }
+
+  // Store Value v to the swap space.
+  @Override public void store(Value v) throws IOException {
+    assert !v.isPersisted();
+    byte[] m = v.memOrLoad(); // we are not single threaded anymore
+    if( m.length != v._max ) {
+      Log.warn("Value size mismatch? " + v._key + " byte[].len=" + m.length+" v._max="+v._max);
+      v._max = m.length; // Implies update of underlying POJO, then re-serializing it without K/V storing it
+    }
+    if( m.length > MAX_SLAB ) { super.store(v); return; }
+    long slot = allocSlot(slabLog(m.length));
+    try {
+      FileChannel ch = chan(slot);
+      ByteBuffer bb = ByteBuffer.wrap(m);
+      long pos = off(slot);
+      while( bb.hasRemaining() ) pos += ch.write(bb,pos);
+    } catch( IOException e ) { // E.g. disk full
+      unallocSlot(slot);
+      throw e;
+    }
+    Long old = _slots.put(v._key,slot);
+    if( old != null ) freeSlot(old); // Stale copy of an overwritten Value
+  }
+
+  @Override public void delete(Value v) {
+    Long slot = _slots.remove(v._key);
+    if( slot == null ) { super.delete(v); return; }
+    freeSlot(slot);
+  }
+
+  @Override public synchronized void cleanUp() {
+    // Mappings are released when the buffers are GC'd; the files can be
+    // unlinked right away.
+    _maps.clear();
+    for( FileChannel ch : _chans )
+      try { ch.close(); } catch( IOException ignore ) { }
+    _chans.clear();
+    for( File f : _files ) f.delete();
+    _files.clear();
+    _bump = SWAP_FILE_SIZE;
+    for( ArrayDeque<Long> free : _free ) free.clear();
+    _limbo.clear();
+    _slots.clear();
+    super.cleanUp();
+  }
+}
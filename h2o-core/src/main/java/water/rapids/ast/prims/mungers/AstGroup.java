@@ -427,7 +427,12 @@ public class AstGroup extends AstPrimitive {
       IcedHashMap<G, String> gs = new IcedHashMap<>();
       G gWork = new G(_gbCols.length, _aggs); // Working Group
       G gOld;                   // Existing Group to be filled in
-      for (int row = 0; row < cs[0]._len; row++) {
+      final int len = cs[0]._len;
+      for (int row = 0; row < len; ) {
+        // Rows up to 'end' share the group key; on sorted or grouped data the
+        // run-length encoded Chunks hand back whole runs
+        int end = len;
+        for (int c : _gbCols) end = Math.min(end, cs[c].runEnd(row));
         // Find the Group being worked on
         gWork.fill(row, cs, _gbCols);            // Fill the worker Group for the hashtable lookup
         if (gs.putIfAbsent(gWork, "") == null) { // Insert if not absent (note: no race, no need for atomic)
@@ -435,8 +440,12 @@ public class AstGroup extends AstPrimitive {
           gWork = new G(_gbCols.length, _aggs);   // need entirely new G
         } else gOld = gs.getk(gWork);            // Else get existing group
 
-        for (int i = 0; i < _aggs.length; i++) // Accumulate aggregate reductions
-          _aggs[i].op(gOld._dss, gOld._ns, i, cs[_aggs[i]._col].atd(row));
+        for (int i = 0; i < _aggs.length; i++) { // Accumulate aggregate reductions
+          Chunk c = cs[_aggs[i]._col];
+          for (int r = row; r < end; r++)
+            _aggs[i].op(gOld._dss, gOld._ns, i, c.atd(r));
+        }
+        row = end;
       }
       // This is a racy update into the node-local shared table of groups
       reduce(gs);               // Atomically merge Group stats
@@ -2,7 +2,6 @@ package water.rapids.ast.prims.string;
 
 import water.MRTask;
 import water.fvec.*;
-import water.parser.BufferedString;
 import water.rapids.Env;
 import water.rapids.Val;
 import water.rapids.vals.ValFrame;
@@ -10,6 +9,7 @@ import water.rapids.ast.AstPrimitive;
 import water.rapids.ast.AstRoot;
 
 import java.util.Locale;
+import java.util.regex.Pattern;
 
 /**
  * Accepts a frame with a single string column, a regex pattern string, a replacement substring,
@@ -88,17 +88,14 @@ public class AstReplaceAll extends AstPrimitive {
 //        if (((CStrChunk)chk)._isAllASCII) { // fast-path operations
 //          ((CStrChunk) chk).asciiReplaceAll(newChk);
 //        } else { //UTF requires Java string methods for accuracy
-          BufferedString tmpStr = new BufferedString();
-          for (int i = 0; i < chk._len; i++) {
-            if (chk.isNA(i))
-              newChk.addNA();
-            else {
-              if (ignoreCase)
-                newChk.addStr(chk.atStr(tmpStr, i).toString().toLowerCase(Locale.ENGLISH).replaceAll(pattern, replacement));
-              else
-                newChk.addStr(chk.atStr(tmpStr, i).toString().replaceAll(pattern, replacement));
+          // Compile once per chunk, match once per distinct string
+          final Pattern compiled = Pattern.compile(pattern);
+          ((CStrChunk) chk).mapDistinct(newChk, new CStrChunk.StrFunction() {
+            @Override
+            public String apply(String str) {
+              return compiled.matcher(ignoreCase ? str.toLowerCase(Locale.ENGLISH) : str).replaceAll(replacement);
             }
-          }
+          });
         }
       }
     }.doAll(new byte[]{Vec.T_STR}, vec).outputFrame().anyVec();
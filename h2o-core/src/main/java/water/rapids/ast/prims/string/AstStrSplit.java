@@ -12,6 +12,7 @@ import water.rapids.ast.AstRoot;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.regex.Pattern;
 
 /**
  */
@@ -133,17 +134,15 @@ public class AstStrSplit extends AstPrimitive {
             for (int col = 0; col < ncs.length; col++)
               ncs[col].addNA();
         else {
-          BufferedString tmpStr = new BufferedString();
-          for (int row = 0; row < chk._len; ++row) {
-            int col = 0;
-            if (!chk.isNA(row)) {
-              String[] ss = chk.atStr(tmpStr, row).toString().split(splitRegEx);
-              for (String s : ss) // distribute strings among new cols
-                ncs[col++].addStr(s);
+          // Compile once per chunk, split once per distinct string; the
+          // pieces are distributed among the new cols, the rest get NAs
+          final Pattern compiled = Pattern.compile(splitRegEx);
+          ((CStrChunk) chk).mapDistinct(ncs, new CStrChunk.StrsFunction() {
+            @Override
+            public String[] apply(String str) {
+              return compiled.split(str);
             }
-            if (col < ncs.length) // fill remaining cols w/ NA
-              for (; col < ncs.length; col++) ncs[col].addNA();
-          }
+          });
         }
       }
     }.doAll(newColCnt, Vec.T_STR, new Frame(vec)).outputFrame().vecs();
@@ -165,10 +164,16 @@ public class AstStrSplit extends AstPrimitive {
 
     @Override
     public void map(Chunk chk) {
+      if (chk instanceof C0DChunk) return; // all NAs
+      // Compile once per chunk, split once per distinct string
+      CStrChunk cs = (CStrChunk) chk;
+      Pattern compiled = Pattern.compile(_regex);
+      HashSet<Integer> done = new HashSet<>();
       BufferedString tmpStr = new BufferedString();
-      for (int row = 0; row < chk._len; row++) {
-        if (!chk.isNA(row)) {
-          int split = chk.atStr(tmpStr, row).toString().split(_regex).length;
+      for (int row = 0; row < cs._len; row++) {
+        int id = cs.distinctId(row);
+        if (id != -1 && done.add(id)) {
+          int split = compiled.split(cs.atStr(tmpStr, row).toString()).length;
           if (split > _maxSplits) _maxSplits = split;
         }
       }
@@ -2,7 +2,6 @@ package water.rapids.ast.prims.string;
 
 import water.MRTask;
 import water.fvec.*;
-import water.parser.BufferedString;
 import water.rapids.Env;
 import water.rapids.Val;
 import water.rapids.vals.ValFrame;
@@ -75,14 +74,13 @@ public class AstToUpper extends AstPrimitive {
             newChk.addNA();
         else if (((CStrChunk) chk)._isAllASCII) { // fast-path operations
           ((CStrChunk) chk).asciiToUpper(newChk);
-        } else { //UTF requires Java string methods for accuracy
-          BufferedString tmpStr = new BufferedString();
-          for (int i = 0; i < chk._len; i++) {
-            if (chk.isNA(i))
-              newChk.addNA();
-            else // Locale.ENGLISH to give the correct results for local insensitive strings
-              newChk.addStr(chk.atStr(tmpStr, i).toString().toUpperCase(Locale.ENGLISH));
-          }
+        } else { //UTF requires Java string methods for accuracy; once per distinct string
+          ((CStrChunk) chk).mapDistinct(newChk, new CStrChunk.StrFunction() {
+            @Override
+            public String apply(String str) { // Locale.ENGLISH to give the correct results for local insensitive strings
+              return str.toUpperCase(Locale.ENGLISH);
+            }
+          });
         }
       }
     }.doAll(new byte[]{Vec.T_STR}, vec).outputFrame().anyVec();
@@ -0,0 +1,203 @@
+package water.util;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * General purpose block compression, as a second stage on top of the
+ * structural Chunk encodings.  Used by the Cleaner to shrink cold Chunks
+ * in place before resorting to the off-heap tier or the disk.
+ *
+ * <p>Encoded blocks are self-describing: a 2-byte header holds the codec id
+ * and the byte-shuffle width, so a block can be decoded without knowing how
+ * it was made.  The shuffle transposes fixed-width elements into byte planes
+ * (all the 1st bytes, then all the 2nd bytes...) before compressing, which
+ * makes e.g. slowly-changing doubles much more repetitive.
+ *
+ * <p>Codecs: {@link #LZ}, a fast LZ77 emitting LZ4 blocks; and {@link
+ * #DEFLATE}, java.util.zip at its fastest level, slower but tighter.
+ */
+public abstract class BlockCodec {
+  private final byte _id;
+  private final String _name;
+  BlockCodec( int id, String name ) { _id = (byte)id; _name = name; }
+  public String name() { return _name; }
+  @Override public String toString() { return _name; }
+
+  /** Compress src[0..len) into dst starting at doff; returns the end offset
+   *  in dst or -1 if it did not fit.  dst has room for at least len bytes. */
+  abstract int compress( byte[] src, int len, byte[] dst, int doff );
+  /** Decompress src[soff..slen) into all of dst */
+  abstract void decompress( byte[] src, int soff, int slen, byte[] dst );
+
+  public static final BlockCodec LZ = new LZ();
+  public static final BlockCodec DEFLATE = new Deflate();
+  private static final BlockCodec[] CODECS = new BlockCodec[]{ null, LZ, DEFLATE };
+
+  /** Codec by name; null for "none" or null */
+  public static BlockCodec forName( String name ) {
+    if( name == null || name.equalsIgnoreCase("none") ) return null;
+    for( BlockCodec c : CODECS )
+      if( c != null && c._name.equalsIgnoreCase(name) ) return c;
+    throw new IllegalArgumentException("Unknown codec "+name+", expected one of none, lz, deflate");
+  }
+
+  /** Encode, with an optional byte-shuffle of width-sized elements.
+   *  @return the encoded block, or null if it did not shrink below 3/4 of
+   *  the original size */
+  public byte[] encode( byte[] src, int width ) {
+    int len = src.length;
+    byte[] in = width > 1 ? shuffle(src,width) : src;
+    byte[] dst = new byte[len - (len>>2)]; // Must beat 3/4 the size
+    if( dst.length < 16 ) return null;
+    dst[0] = _id;
+    dst[1] = (byte)width;
+    int end = compress(in,len,dst,2);
+    return end < 0 ? null : Arrays.copyOf(dst,end);
+  }
+
+  /** Decode a block made by {@link #encode} into dst, which must be exactly
+   *  the original size. */
+  public static byte[] decode( byte[] z, byte[] dst ) {
+    int width = z[1];
+    byte[] out = width > 1 ? new byte[dst.length] : dst;
+    CODECS[z[0]].decompress(z,2,z.length,out);
+    if( width > 1 ) unshuffle(out,width,dst);
+    return dst;
+  }
+
+  // Transpose width-byte elements into byte planes; any ragged tail is
+  // copied as-is.
+  static byte[] shuffle( byte[] src, int width ) {
+    byte[] dst = new byte[src.length];
+    int n = src.length/width;
+    for( int i=0; i<n; i++ )
+      for( int j=0; j<width; j++ )
+        dst[j*n+i] = src[i*width+j];
+    System.arraycopy(src,n*width,dst,n*width,src.length-n*width);
+    return dst;
+  }
+  static void unshuffle( byte[] src, int width, byte[] dst ) {
+    int n = src.length/width;
+    for( int j=0; j<width; j++ )
+      for( int i=0; i<n; i++ )
+        dst[i*width+j] = src[j*n+i];
+    System.arraycopy(src,n*width,dst,n*width,src.length-n*width);
+  }
+
+
+  // LZ77 over 4-byte hashed matches, in the LZ4 block format: a token byte
+  // with the literal-run length (high nibble) and match length-4 (low
+  // nibble), 15 meaning "more length bytes follow"; the literals; then a
+  // little-endian 2-byte match offset.  As the format requires, the last
+  // match starts at least MFLIMIT bytes before the end of the block, and the
+  // last LAST_LITERALS bytes are literals, in a final literals-only
+  // sequence.  So the block (after the 2-byte header) is a standard LZ4 block.
+  private static final class LZ extends BlockCodec {
+    private static final int HASH_LOG = 13;
+    private static final int MIN_MATCH = 4;
+    private static final int MFLIMIT = 12;
+    private static final int LAST_LITERALS = 5;
+    LZ() { super(1,"lz"); }
+
+    private static int hash( int x ) { return (x*-1640531535) >>> (32-HASH_LOG); }
+
+    @Override int compress( byte[] src, int len, byte[] dst, int doff ) {
+      int[] table = new int[1<<HASH_LOG]; // Position+1 of last 4-byte sequence with this hash
+      int anchor = 0, ip = 0, op = doff;
+      int limit = len - MFLIMIT;  // Last match start
+      int mlimit = len - LAST_LITERALS; // Last match end
+      while( ip <= limit ) {
+        int seq = UnsafeUtils.get4(src,ip);
+        int h = hash(seq);
+        int ref = table[h]-1;
+        table[h] = ip+1;
+        if( ref < 0 || ip-ref > 0xFFFF || UnsafeUtils.get4(src,ref) != seq ) { ip++; continue; }
+        int mlen = MIN_MATCH;
+        while( ip+mlen < mlimit && src[ref+mlen] == src[ip+mlen] ) mlen++;
+        op = sequence(src,anchor,ip-anchor,mlen,ip-ref,dst,op);
+        if( op < 0 ) return -1;
+        ip += mlen;
+        anchor = ip;
+      }
+      return sequence(src,anchor,len-anchor,0,0,dst,op);
+    }
+
+    // Emit one sequence; a zero match length marks the final literal run
+    private static int sequence( byte[] src, int lit, int nlit, int mlen, int off, byte[] dst, int op ) {
+      int mcode = mlen == 0 ? 0 : mlen-MIN_MATCH;
+      // Worst case: token + literal length bytes + literals + offset + match length bytes
+      if( op + 1 + nlit/255+1 + nlit + 2 + mcode/255+1 > dst.length ) return -1;
+      int tok = op++;
+      dst[tok] = (byte)((Math.min(nlit,15)<<4) | Math.min(mcode,15));
+      if( nlit >= 15 ) op = length(nlit-15,dst,op);
+      System.arraycopy(src,lit,dst,op,nlit);
+      op += nlit;
+      if( mlen == 0 ) return op;
+      dst[op++] = (byte)off;
+      dst[op++] = (byte)(off>>8);
+      if( mcode >= 15 ) op = length(mcode-15,dst,op);
+      return op;
+    }
+    private static int length( int x, byte[] dst, int op ) {
+      while( x >= 255 ) { dst[op++] = (byte)255; x -= 255; }
+      dst[op++] = (byte)x;
+      return op;
+    }
+
+    @Override void decompress( byte[] src, int ip, int slen, byte[] dst ) {
+      int op = 0;
+      while( true ) {
+        int tok = src[ip++]&0xFF;
+        int nlit = tok>>>4;
+        if( nlit == 15 ) { int b; do { b = src[ip++]&0xFF; nlit += b; } while( b == 255 ); }
+        System.arraycopy(src,ip,dst,op,nlit);
+        ip += nlit;  op += nlit;
+        if( ip >= slen ) break; // Final literal run
+        int off = (src[ip]&0xFF) | ((src[ip+1]&0xFF)<<8);
+        ip += 2;
+        int mlen = tok&15;
+        if( mlen == 15 ) { int b; do { b = src[ip++]&0xFF; mlen += b; } while( b == 255 ); }
+        mlen += MIN_MATCH;
+        int ref = op-off;
+        for( int i=0; i<mlen; i++ ) dst[op+i] = dst[ref+i]; // Byte-wise: matches may overlap
+        op += mlen;
+      }
+      assert op == dst.length;
+    }
+  }
+
+  private static final class Deflate extends BlockCodec {
+    Deflate() { super(2,"deflate"); }
+    @Override int compress( byte[] src, int len, byte[] dst, int doff ) {
+      Deflater d = new Deflater(Deflater.BEST_SPEED, true);
+      try {
+        d.setInput(src,0,len);
+        d.finish();
+        int op = doff;
+        while( !d.finished() ) {
+          if( op == dst.length ) return -1; // Did not shrink enough
+          op += d.deflate(dst,op,dst.length-op);
+        }
+        return op;
+      } finally { d.end(); }
+    }
+    @Override void decompress( byte[] src, int soff, int slen, byte[] dst ) {
+      Inflater inf = new Inflater(true);
+      try {
+        inf.setInput(src,soff,slen-soff);
+        int op = 0;
+        while( op < dst.length ) {
+          int n = inf.inflate(dst,op,dst.length-op);
+          if( n == 0 && (inf.finished() || inf.needsInput()) ) break;
+          op += n;
+        }
+        assert op == dst.length;
+      } catch( DataFormatException e ) {
+        throw new RuntimeException(e);
+      } finally { inf.end(); }
+    }
+  }
+}
@@ -35,6 +35,8 @@ public class ChunkSummary extends MRTask<ChunkSummary> {
     "CXD",                      // Sparse doubles
     "CNAXD",                    // NA sparse doubles      
     "CUD",                      // Few Unique doubles
+    "CGD",                      // XOR-encoded doubles
+    "CRL",                      // Run-length encoded
     "C8D",                      //leave this as last -> no compression
   };
   final transient static String[] chunkNames = new String[]{
@@ -58,6 +60,8 @@ public class ChunkSummary extends MRTask<ChunkSummary> {
           "Zero Sparse Reals",
           "NA Sparse Reals",
           "Unique Reals",
+          "XOR-encoded Reals",
+          "Run-length Encoded",
           "64-bit Reals",
   };
 
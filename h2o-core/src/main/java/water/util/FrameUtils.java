@@ -8,6 +8,7 @@ import water.fvec.*;
 import water.parser.ParseDataset;
 import water.parser.ParseSetup;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -455,6 +456,58 @@ public class FrameUtils {
     }
   }
 
+  /** Single-file export in the columnar binary layout, see {@link ColumnarFormat} */
+  public static class ColumnarExportDriver extends H2O.H2OCountedCompleter<ColumnarExportDriver> {
+    final Frame _frame;
+    final String _path;
+    final String _frameName;
+    final boolean _overwrite;
+    final Job _j;
+
+    public ColumnarExportDriver(Frame frame, String path, String frameName, boolean overwrite, Job j) {
+      _frame = frame;
+      _path = path;
+      _frameName = frameName;
+      _overwrite = overwrite;
+      _j = j;
+    }
+
+    @Override
+    public void compute2() {
+      _frame.read_lock(_j._key);
+      OutputStream os = null;
+      long written = -1;
+      try {
+        os = new BufferedOutputStream(H2O.getPM().create(_path, _overwrite), 4 * 1024 * 1024);
+        written = ColumnarFormat.write(_frame, os, _j);
+        os.flush();
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        if (os != null) {
+          try {
+            os.close();
+            Log.info("Written " + written + " bytes of key '" + _frameName + "' to " + _path + ".");
+          } catch (Exception e) {
+            Log.err(e);
+          }
+        }
+      }
+      tryComplete();
+    }
+
+    @Override
+    public void onCompletion(CountedCompleter caller) {
+      _frame.unlock(_j);
+    }
+
+    @Override
+    public boolean onExceptionalCompletion(Throwable t, CountedCompleter caller) {
+      _frame.unlock(_j);
+      return super.onExceptionalCompletion(t, caller);
+    }
+  }
+
   public static class CategoricalOneHotEncoder extends Iced {
     final Frame _frame;
     Job<Frame> _job;
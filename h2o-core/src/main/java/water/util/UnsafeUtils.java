@@ -13,6 +13,15 @@ public class UnsafeUtils {
   public static float  get4f( byte[] buf, int off ) { return _unsafe.getFloat (buf, _Bbase+off); }
   public static double get8d( byte[] buf, int off ) { return _unsafe.getDouble(buf, _Bbase+off); }
 
+  // Reads at a further offset rel from the start of buf.  With a null buf and
+  // rel=nativeRel(adr), these read native memory at adr instead, so the same
+  // code serves bytes on and off the Java heap.
+  public static int    get4 ( byte[] buf, long rel, int off ) { return _unsafe.getInt   (buf, _Bbase+rel+off); }
+  public static long   get8 ( byte[] buf, long rel, int off ) { return _unsafe.getLong  (buf, _Bbase+rel+off); }
+  public static float  get4f( byte[] buf, long rel, int off ) { return _unsafe.getFloat (buf, _Bbase+rel+off); }
+  public static double get8d( byte[] buf, long rel, int off ) { return _unsafe.getDouble(buf, _Bbase+rel+off); }
+  public static long nativeRel( long adr ) { return adr-_Bbase; }
+
   public static int set1 (byte[] buf, int off, byte x )  {_unsafe.putByte  (buf, _Bbase+off, x); return 1;}
   public static int set2 (byte[] buf, int off, short x ) {_unsafe.putShort (buf, _Bbase+off, x); return 2;}
   public static int set4 (byte[] buf, int off, int x   ) {_unsafe.putInt   (buf, _Bbase+off, x); return 4;}
@@ -22,4 +31,11 @@ public class UnsafeUtils {
 
   public static void copyMemory( byte[] srcBase, long srcOff, byte[] dstBase, long dstOff, long len )
   { _unsafe.copyMemory(srcBase,_Bbase+srcOff,dstBase,_Bbase+dstOff,len); }
+
+  // Raw native memory, outside of the Java heap.  Addresses are only valid
+  // until freed; callers own all the lifetime management.
+  public static long allocateMemory( long len ) { return _unsafe.allocateMemory(len); }
+  public static void freeMemory( long adr ) { _unsafe.freeMemory(adr); }
+  public static void copyToNative  ( byte[] src, long srcOff, long dstAdr, long len ) { _unsafe.copyMemory(src,_Bbase+srcOff,null,dstAdr,len); }
+  public static void copyFromNative( long srcAdr, byte[] dst, long dstOff, long len ) { _unsafe.copyMemory(null,srcAdr,dst,_Bbase+dstOff,len); }
 }
@@ -3,6 +3,8 @@ package water;
 import org.junit.*;
 import water.util.JSONUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -425,6 +427,49 @@ public class AutoSerialTest extends Iced {
     _aaa = null;
   }
 
+  // Big byte arrays read from a stream bypass the buffer
+  @Test public void testBigByteArrayStream() {
+    byte[] exp = new byte[3*AutoBuffer.DIRECT_XFER+17];
+    for( int i=0; i<exp.length; i++ ) exp[i] = (byte)(i*31);
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    AutoBuffer ab = new AutoBuffer(os, false);
+    ab.put4(7).putA1(exp).putA1(new byte[]{1,2,3}).put4(8);
+    ab.close();
+    ab = new AutoBuffer(new ByteArrayInputStream(os.toByteArray()));
+    Assert.assertEquals(7, ab.get4());
+    Assert.assertArrayEquals(exp, ab.getA1());
+    Assert.assertArrayEquals(new byte[]{1,2,3}, ab.getA1());
+    Assert.assertEquals(8, ab.get4());
+    ab.close();
+  }
+
+  // Sent to another node and back; the remote copy is what comes back
+  private static class Echo extends DTask<Echo> {
+    byte[] _bits;
+    Echo( byte[] bits ) { _bits = bits; }
+    @Override public void compute2() { tryComplete(); }
+  }
+
+  // A big, compressible array between two nodes compresses to well below the
+  // MTU; the message must still reach a reader that decodes the flag
+  @Test public void testZippedNodeToNode() {
+    Assume.assumeTrue(H2O.CLOUD.size() > 1);
+    H2ONode target = H2O.CLOUD._memary[0];
+    if( target == H2O.SELF ) target = H2O.CLOUD._memary[1];
+    String codec = H2O.ARGS.wire_codec;
+    H2O.ARGS.wire_codec = "lz";
+    try {
+      byte[] exp = new byte[2*AutoBuffer.DIRECT_XFER+3];
+      for( int i=0; i<exp.length; i++ ) exp[i] = (byte)(i/1000);
+      long zipped = AutoBuffer.WIRE_ZIPPED.get();
+      byte[] bits = RPC.call(target, new Echo(exp)).get()._bits;
+      Assert.assertTrue("expected the request to be compressed", AutoBuffer.WIRE_ZIPPED.get() - zipped < AutoBuffer.MTU);
+      Assert.assertArrayEquals(exp, bits);
+    } finally {
+      H2O.ARGS.wire_codec = codec;
+    }
+  }
+
   /* =======================
      Enum array serialization
     ======================== */
@@ -0,0 +1,107 @@
+package water;
+
+import org.junit.*;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+import water.util.BlockCodec;
+
+import static org.junit.Assert.*;
+
+public class CleanerTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testClockTracksStore() {
+    Key k = Key.make("clockTest");
+    Value v1 = new Value(k, new byte[1000]);
+    int size = Cleaner.Clock.size();
+    long cached = Cleaner.Clock.cached();
+    DKV.put(k, v1);
+    try {
+      assertTrue(v1.onClock());
+      assertEquals(size+1, Cleaner.Clock.size());
+      assertEquals(cached+1000, Cleaner.Clock.cached());
+
+      // Replacing the mapping swaps the Values on the clock
+      Value v2 = new Value(k, new byte[2000]);
+      DKV.put(k, v2);
+      assertFalse(v1.onClock());
+      assertTrue(v2.onClock());
+      assertEquals(size+1, Cleaner.Clock.size());
+      assertEquals(cached+2000, Cleaner.Clock.cached());
+    } finally {
+      DKV.remove(k);
+    }
+    assertFalse(v1.onClock());
+    assertEquals(cached, Cleaner.Clock.cached());
+  }
+
+  @Test public void testClockSweep() {
+    Key[] ks = new Key[10];
+    try {
+      for( int i=0; i<ks.length; i++ )
+        DKV.put(ks[i] = Key.make("clockSweep"+i), new Value(ks[i], new byte[10]));
+      // A full lap visits every Value exactly once
+      int n = Cleaner.Clock.size(), found = 0;
+      for( int i=0; i<n; i++ ) {
+        Value v = Cleaner.Clock.next();
+        assertNotNull(v);
+        if( v._key.toString().startsWith("clockSweep") ) found++;
+      }
+      assertEquals(ks.length, found);
+    } finally {
+      for( Key k : ks ) if( k != null ) DKV.remove(k);
+    }
+  }
+
+  // Racing puts and removes of the same Keys leave the totals exact
+  @Test public void testClockConcurrentPuts() throws InterruptedException {
+    final int size = Cleaner.Clock.size();
+    final long cached = Cleaner.Clock.cached();
+    final Key[] ks = new Key[4];
+    for( int i=0; i<ks.length; i++ ) ks[i] = Key.make("clockRace"+i);
+    Thread[] ts = new Thread[8];
+    for( int t=0; t<ts.length; t++ ) {
+      final int seed = t;
+      ts[t] = new Thread() {
+        @Override public void run() {
+          for( int i=0; i<2000; i++ ) {
+            Key k = ks[(seed+i)%ks.length];
+            if( i%3 == 2 ) DKV.remove(k);
+            else DKV.put(k, new Value(k, new byte[100+i%50]));
+          }
+        }
+      };
+      ts[t].start();
+    }
+    for( Thread t : ts ) t.join();
+    for( Key k : ks ) {
+      Value v = H2O.STORE.get(k);
+      if( v != null ) assertTrue(v.onClock());
+      DKV.remove(k);
+    }
+    assertEquals(size, Cleaner.Clock.size());
+    assertEquals(cached, Cleaner.Clock.cached());
+  }
+
+  @Test public void testCompressAndReattach() {
+    Vec v = Vec.makeSeq(1, 10000);
+    try {
+      Value val = v.chunkIdx(0);
+      double[] expected = v.chunkForChunkIdx(0).getDoubles(new double[100], 0, 100);
+      int len = val.cachedLen();
+      assertTrue(val.compress(BlockCodec.LZ, 8));
+      val.freeMem();
+      val.freePOJO();
+      assertTrue(val.isCompressed());
+      assertFalse(val.isEmpty());
+      assertTrue(val.cachedLen() < len);
+      // Decompressed on first access
+      Chunk c = val.get();
+      assertArrayEquals(expected, c.getDoubles(new double[100], 0, 100), 0);
+      val.freeZMem();
+      assertFalse(val.isCompressed());
+    } finally {
+      v.remove();
+    }
+  }
+}
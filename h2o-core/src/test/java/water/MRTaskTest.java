@@ -1,14 +1,19 @@
 package water;
 
 import org.junit.*;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
 import water.fvec.Vec;
 import water.fvec.Chunk;
+import water.util.ArrayUtils;
 import water.util.PrettyPrint;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class MRTaskTest extends TestUtil {
   @BeforeClass static public void setup() { stall_till_cloudsize(5); }
@@ -94,6 +99,212 @@ public class MRTaskTest extends TestUtil {
 
     zeros.remove();
   }
+  // Leaves mapping several local chunks in a row give the same results,
+  // including appended outputs
+  @Test public void testLeafChunks() {
+    Vec seq = Vec.makeCon(1.0, 10000, 8, false);  // 40 chunks of 256 rows
+    Frame out = null;
+    try {
+      assertEquals(40, seq.nChunks());
+      for (int leaf : new int[]{1, 3, 1000}) {
+        Sum sum = new Sum().withLeafChunks(leaf).doAll(seq);
+        assertEquals(10000L, sum._sum);
+        assertEquals(seq.nChunks(), sum._nmaps);
+      }
+      out = new MRTask() {
+        @Override public void map(Chunk c, NewChunk nc) {
+          for (int i = 0; i < c._len; ++i) nc.addNum(2 * c.atd(i));
+        }
+      }.withLeafChunks(3).doAll(Vec.T_NUM, seq).outputFrame();
+      assertEquals(seq.length(), out.numRows());
+      for (long r = 0; r < seq.length(); r += 997) assertEquals(2 * seq.at(r), out.vec(0).at(r), 0);
+    } finally {
+      seq.remove();
+      if (out != null) out.delete();
+    }
+  }
+  // Per-thread accumulators see every chunk once, and need far fewer reduces
+  @Test public void testThreadAccumulators() {
+    Vec seq = Vec.makeCon(1.0, 100000, 8, false);
+    try {
+      Sum sum = new Sum().withThreadAccumulators().doAll(seq);
+      assertEquals(100000L, sum._sum);
+      assertEquals(seq.nChunks(), sum._nmaps);
+      assertTrue(sum._nreduces < seq.nChunks() - 1);
+      Sum sum2 = new Sum().withThreadAccumulators().withLeafChunks(7).doAll(seq);
+      assertEquals(100000L, sum2._sum);
+      assertEquals(seq.nChunks(), sum2._nmaps);
+    } finally {
+      seq.remove();
+    }
+  }
+  // Chunks of a slow node get taken by the others, and each is mapped once
+  @Test public void testWorkStealing() {
+    Vec seq = Vec.makeCon(1.0, 100000, 8, false);
+    try {
+      SlowSum plain = new SlowSum().doAll(seq);
+      assertEquals(100000L, plain._sum);
+      assertEquals(0, plain._nstolen);
+      SlowSum sum = new SlowSum().withWorkStealing().doAll(seq);
+      assertEquals(100000L, sum._sum);
+      assertEquals(seq.nChunks(), sum._nmaps);
+      assertTrue("no Chunk of the slow node was taken", sum._nstolen > 0);
+      SlowSum sum2 = new SlowSum().withWorkStealing().withThreadAccumulators().doAll(seq);
+      assertEquals(100000L, sum2._sum);
+      assertEquals(seq.nChunks(), sum2._nmaps);
+      assertTrue("no Chunk of the slow node was taken", sum2._nstolen > 0);
+    } finally {
+      seq.remove();
+    }
+  }
+  private static class SlowSum extends MRTask<SlowSum> {
+    long _sum, _nmaps, _nstolen;
+    @Override public void map(Chunk c) {
+      if (H2O.SELF == H2O.CLOUD._memary[0])
+        try { Thread.sleep(20); } catch (InterruptedException ignore) { }
+      for (int i = 0; i < c._len; ++i) _sum += c.at8(i);
+      _nmaps++;
+      if (!c.vec().chunkKey(c.cidx()).home()) _nstolen++;
+    }
+    @Override public void reduce(SlowSum s) { _sum += s._sum; _nmaps += s._nmaps; _nstolen += s._nstolen; }
+  }
+  // A task writing its input Chunks is refused, wherever its Chunks get mapped
+  @Test public void testWorkStealingRefusesWrites() {
+    Vec seq = Vec.makeCon(1.0, 100000, 8, false);
+    try {
+      new MRTask() {
+        @Override public void map(Chunk c) { c.set(0, 2.0); }
+      }.withWorkStealing().doAll(seq);
+      fail("writing task ran with work stealing");
+    } catch (RuntimeException e) {
+      assertTrue(e.toString(), e.toString().contains("work stealing"));
+    } finally {
+      seq.remove();
+    }
+  }
+  // Results larger than a segment come back streamed and added in place
+  @Test public void testStreamedSums() {
+    Vec seq = Vec.makeCon(1.0, 10000, 8, false);
+    try {
+      BigSum bs = new BigSum().doAll(seq);
+      assertEquals(2 * MRTask.STREAM_SEGMENT + 5, bs._a.length);
+      for (int i = 0; i < bs._a.length; i += 1001) assertEquals(10000.0 * (i % 3), bs._a[i], 0);
+      assertEquals(10000.0, bs._b[3], 0);
+      assertEquals(seq.nChunks(), bs._nmaps);
+    } finally {
+      seq.remove();
+    }
+  }
+  // Sums reduce-scattered and all-gathered across the cloud, same result at the caller
+  @Test public void testAllReduce() {
+    Vec seq = Vec.makeCon(1.0, 10000, 8, false);
+    try {
+      BigSum bs = new BigSum().withAllReduce().doAll(seq);
+      assertTrue(bs._allReduced);
+      assertEquals(2 * MRTask.STREAM_SEGMENT + 5, bs._a.length);
+      for (int i = 0; i < bs._a.length; i += 1001) assertEquals(10000.0 * (i % 3), bs._a[i], 0);
+      assertEquals(10000.0, bs._b[3], 0);
+      assertEquals(seq.nChunks(), bs._nmaps);
+    } finally {
+      seq.remove();
+    }
+  }
+  // Only the caller gathers the sums; nothing is left parked on any node.
+  // Every Chunk adds a different amount to every element, so any block or
+  // segment summed into the wrong place shows.
+  @Test public void testReduceScatter() {
+    Assume.assumeTrue("needs a multi-node cloud", H2O.CLOUD.size() > 1);
+    Vec seq = Vec.makeCon(1.0, 10000, 8, false);
+    try {
+      long cidxs = 0;
+      for (int c = 0; c < seq.nChunks(); ++c) cidxs += c;
+      BigSum bs = new BigSum() {
+        @Override public void map(Chunk c) {
+          super.map(c);
+          for (int i = 0; i < _a.length; ++i) _a[i] += c.cidx() * (i % 5);
+        }
+      }.withReduceScatter().doAll(seq);
+      assertFalse(bs._allReduced);
+      assertEquals(seq.nChunks(), bs._nmaps);
+      for (int i = 0; i < bs._a.length; ++i) assertEquals(10000.0 * (i % 3) + cidxs * (i % 5), bs._a[i], 0);
+      for (int i = 0; i < bs._b.length; ++i) assertEquals(i == 3 ? 10000.0 : 0, bs._b[i], 0);
+      assertEquals(0, MRTask.allReduceHeld());
+    } finally {
+      seq.remove();
+    }
+  }
+  // A failed all-reduce releases the sums the other nodes parked
+  @Test public void testAllReduceFailureReleases() {
+    Vec seq = Vec.makeCon(1.0, 10000, 8, false);
+    try {
+      new BigSum() {
+        @Override public void map(Chunk c) {
+          if (c.cidx() == 5) throw new IllegalStateException("test");
+          super.map(c);
+        }
+      }.withAllReduce().doAll(seq);
+      fail("expected the map failure");
+    } catch (RuntimeException expected) {
+      assertEquals(0, MRTask.allReduceHeld());
+    } finally {
+      seq.remove();
+    }
+  }
+  // A failed pass releases the streamed sums other nodes hold for it
+  @Test public void testStreamedFailureReleases() throws InterruptedException {
+    Vec seq = Vec.makeCon(1.0, 10000, 8, false);
+    try {
+      new BigSum() {
+        @Override public void map(Chunk c) {
+          if (c.cidx() == 5) throw new IllegalStateException("test");
+          super.map(c);
+        }
+      }.doAll(seq);
+      fail("expected the map failure");
+    } catch (RuntimeException expected) {
+      // Released asynchronously
+      for (int i = 0; i < 50 && new StreamedHeld().doAllNodes()._n > 0; i++) Thread.sleep(100);
+      assertEquals(0, new StreamedHeld().doAllNodes()._n);
+    } finally {
+      seq.remove();
+    }
+  }
+  private static class StreamedHeld extends MRTask<StreamedHeld> {
+    int _n;
+    @Override public void setupLocal() { _n = MRTask.streamedHeld(); }
+    @Override public void reduce(StreamedHeld sh) { _n += sh._n; }
+  }
+  private static class BigSum extends MRTask<BigSum> {
+    double[] _a, _b;
+    long _nmaps;
+    transient boolean _allReduced;
+    @Override public void map(Chunk c) {
+      _a = new double[2 * STREAM_SEGMENT + 5];
+      _b = new double[7];
+      for (int i = 0; i < _a.length; ++i) _a[i] = c._len * (i % 3);
+      _b[3] = c._len;
+      _nmaps++;
+    }
+    @Override public void reduce(BigSum bs) {
+      if (bs._a != null) { ArrayUtils.add(_a, bs._a); ArrayUtils.add(_b, bs._b); }
+      _nmaps += bs._nmaps;
+    }
+    @Override protected double[][] streamedSums() { return _a == null ? null : new double[][]{_a, _b}; }
+    @Override protected void streamedSums(double[][] sums) {
+      _a = sums == null ? null : sums[0];
+      _b = sums == null ? null : sums[1];
+    }
+    @Override protected void onAllReduced() { _allReduced = true; }
+  }
+  private static class Sum extends MRTask<Sum> {
+    long _sum, _nmaps, _nreduces;
+    @Override public void map(Chunk c) {
+      for (int i = 0; i < c._len; ++i) _sum += c.at8(i);
+      _nmaps++;
+    }
+    @Override public void reduce(Sum s) { _sum += s._sum; _nmaps += s._nmaps; _nreduces += s._nreduces + 1; }
+  }
+
   private static MRTask manyMaps(Vec vec) {
     return new MRTask() { 
       @Override public void map(Chunk cs[]) { }
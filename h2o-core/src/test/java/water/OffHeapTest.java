@@ -0,0 +1,65 @@
+package water;
+
+import org.junit.*;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class OffHeapTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testMoveAndReattach() {
+    long old_max = H2O.ARGS.off_heap_mem;
+    H2O.ARGS.off_heap_mem = 16 << 20;
+    Vec vrnd = null;
+    try {
+      Vec vcon = Vec.makeCon(0, 1024, 6);
+      vrnd = vcon.makeRand(0xDECAFL);
+      vcon.remove();
+      Value val = vrnd.chunkIdx(0);
+      double[] expected = vrnd.chunkForChunkIdx(0).getDoubles(new double[64], 0, 64);
+
+      long used = MemoryManager.offHeapUsed();
+      assertTrue(val.storeOffHeap());
+      assertTrue(val.isOffHeap());
+      assertEquals(used + val._max, MemoryManager.offHeapUsed());
+      val.freeMem();
+      val.freePOJO();
+      assertFalse(val.isEmpty());
+
+      // Reattach from native memory, no disk involved, and read it in place
+      Chunk c = val.get();
+      assertFalse(val.isPersisted());
+      assertTrue(c.readsOffHeap());
+      assertNull(val.rawMem());
+      assertArrayEquals(expected, c.getDoubles(new double[64], 0, 64), 0);
+
+      // Removing the Vec releases the native copy from the budget, but
+      // readers still holding the Value or the Chunk can go on reading
+      vrnd.remove();
+      vrnd = null;
+      assertEquals(used, MemoryManager.offHeapUsed());
+      assertArrayEquals(expected, c.getDoubles(new double[64], 0, 64), 0);
+      val.freePOJO();
+      assertArrayEquals(val.memOrLoad(), c.asBytes());
+    } finally {
+      if( vrnd != null ) vrnd.remove();
+      H2O.ARGS.off_heap_mem = old_max;
+    }
+  }
+
+  @Test public void testBudget() {
+    long old_max = H2O.ARGS.off_heap_mem;
+    H2O.ARGS.off_heap_mem = 0;
+    try {
+      Value v = new Value(Key.make(), new byte[1024]);
+      assertFalse(v.storeOffHeap()); // Tier disabled
+      H2O.ARGS.off_heap_mem = 512;
+      assertFalse(v.storeOffHeap()); // Does not fit
+      assertFalse(v.isOffHeap());
+    } finally {
+      H2O.ARGS.off_heap_mem = old_max;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package water;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Resends after a broken small-message connection must not run or ACK a
+ *  task twice. */
+public class RPCResendTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(2); }
+
+  // Per-task counters, keyed by a per-test id.  Runs & ACKACKs are counted on
+  // the remote, ACKs on the caller.
+  static final ConcurrentHashMap<String,AtomicInteger> RUNS = new ConcurrentHashMap<>();
+  static final ConcurrentHashMap<String,AtomicInteger> ACKS = new ConcurrentHashMap<>();
+  static final ConcurrentHashMap<String,AtomicInteger> ACKACKS = new ConcurrentHashMap<>();
+
+  static int bump( ConcurrentHashMap<String,AtomicInteger> m, String id ) {
+    AtomicInteger cnt = m.get(id);
+    if( cnt == null ) {
+      AtomicInteger old = m.putIfAbsent(id, cnt = new AtomicInteger());
+      if( old != null ) cnt = old;
+    }
+    return cnt.incrementAndGet();
+  }
+  static int count( ConcurrentHashMap<String,AtomicInteger> m, String id ) {
+    AtomicInteger cnt = m.get(id);
+    return cnt == null ? 0 : cnt.get();
+  }
+  static void sleep( long ms ) {
+    try { Thread.sleep(ms); } catch( InterruptedException ignore ) {}
+  }
+
+  private static class Slow extends DTask<Slow> {
+    final String _id;
+    final long _runMs, _ackMs;  // Time spent computing on the remote, and in onAck on the caller
+    int _runs;                  // Remote run count, as seen by this run
+    Slow( String id, long runMs, long ackMs ) { _id = id; _runMs = runMs; _ackMs = ackMs; }
+    @Override public void compute2() { sleep(_runMs); _runs = bump(RUNS,_id); tryComplete(); }
+    @Override public void onAck() { bump(ACKS,_id); sleep(_ackMs); }
+    @Override public void onAckAck() { bump(ACKACKS,_id); }
+  }
+
+  // Reads the remote counters for a task id
+  private static class Counts extends DTask<Counts> {
+    final String _id;
+    int _runs, _ackacks;
+    Counts( String id ) { _id = id; }
+    @Override public void compute2() { _runs = count(RUNS,_id); _ackacks = count(ACKACKS,_id); tryComplete(); }
+  }
+
+  // Breaks the remote's connection back to the caller, or makes the remote
+  // resend to the caller as-if it had broken
+  private static class Poke extends DTask<Poke> {
+    final boolean _drop;
+    Poke( boolean drop ) { _drop = drop; }
+    @Override public void dinvoke( H2ONode sender ) {
+      if( _drop ) sender.dropSendChannel();
+      else sender.resendInFlight();
+      super.dinvoke(sender);
+    }
+    @Override public void compute2() { tryComplete(); }
+  }
+
+  private static H2ONode remote() {
+    Assume.assumeTrue(H2O.CLOUD.size() > 1 && !H2O.ARGS.useUDP);
+    for( H2ONode h2o : H2O.CLOUD.members() )
+      if( h2o != H2O.SELF ) return h2o;
+    throw H2O.fail();
+  }
+
+  private static void assertOnce( H2ONode target, String id ) {
+    // The ACKACK is sent after onAck returns; give it a moment to land
+    Counts c = null;
+    for( int i = 0; i < 50; i++ ) {
+      c = new RPC<>(target, new Counts(id)).call().get();
+      if( c._ackacks > 0 ) break;
+      sleep(100);
+    }
+    assertEquals("remote runs of " + id, 1, c._runs);
+    assertEquals("remote ACKACKs of " + id, 1, c._ackacks);
+    assertEquals("local ACKs of " + id, 1, count(ACKS, id));
+  }
+
+  // Drop both directions of the connection while tasks are running on the
+  // remote; the reopen resends the pending RPCs (the remote NACKs them as in
+  // progress) and the un-ACKACK'd answers.
+  @Test public void testDroppedConnection() {
+    H2ONode target = remote();
+    String id = Key.rand();
+    RPC<Slow>[] rpcs = new RPC[4];
+    for( int i = 0; i < rpcs.length; i++ )
+      rpcs[i] = new RPC<>(target, new Slow(id + i, 500, 0)).call();
+    target.dropSendChannel();
+    new RPC<>(target, new Poke(true)).call().get();
+    target.resendInFlight();
+    for( RPC<Slow> rpc : rpcs )
+      assertEquals(1, rpc.get()._runs);
+    // Resends after the answers are in change nothing
+    target.dropSendChannel();
+    new RPC<>(target, new Poke(false)).call().get();
+    target.resendInFlight();
+    for( int i = 0; i < rpcs.length; i++ )
+      assertOnce(target, id + i);
+  }
+
+  // The caller is still in onAck - no ACKACK sent yet - when the remote
+  // resends its ACK and the caller resends the RPC (which the remote answers
+  // with yet another ACK).  The duplicate ACKs must be ACKACK'd and dropped.
+  @Test public void testDuplicateAck() {
+    H2ONode target = remote();
+    String id = Key.rand();
+    RPC<Slow> rpc = new RPC<>(target, new Slow(id, 0, 1000)).call();
+    for( int i = 0; i < 100 && count(ACKS, id) == 0; i++ )
+      sleep(10);
+    assertTrue("onAck never ran", count(ACKS, id) > 0);
+    assertTrue(!rpc.isDone());
+    new RPC<>(target, new Poke(false)).call().get();
+    target.resendInFlight();
+    assertEquals(1, rpc.get()._runs);
+    assertOnce(target, id);
+  }
+}
@@ -0,0 +1,54 @@
+package water;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+public class TypeMapTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // The table lists the fixed classes after the bootstrap ones, in ID order
+  @Test public void testReadFixedIds() throws Exception {
+    HashMap<String,Integer> layouts = new HashMap<>();
+    String[] clzs = TypeMap.withFixedIds(new String[]{" BAD", "[B"},
+        new ByteArrayInputStream("water.A 17\nwater.B$C -3\n".getBytes()), layouts);
+    assertArrayEquals(new String[]{" BAD", "[B", "water.A", "water.B$C"}, clzs);
+    assertEquals(17, (int)layouts.get("water.A"));
+    assertEquals(-3, (int)layouts.get("water.B$C"));
+  }
+
+  // Picking the classes again gives the table the build step wrote, and the
+  // IDs follow it: every node running the same jar agrees on them
+  @Test public void testFixedIdsStable() {
+    String[] fixed = TypeMap.fixedClasses();
+    Assume.assumeTrue("No build-time table on the classpath", fixed.length > 0);
+    ArrayList<String> names = new ArrayList<>();
+    for( Class c : Weaver.fixedClasses() ) names.add(c.getName());
+    assertArrayEquals(fixed, names.toArray(new String[names.size()]));
+    for( int i=0; i<fixed.length; i++ ) {
+      assertEquals(TypeMap.BOOTSTRAP_CLASSES.length+i, TypeMap.onIce(fixed[i]));
+      assertNotNull(TypeMap.fixedLayout(fixed[i]));
+    }
+  }
+
+  // Classes in the table get their build-time Icer instead of a woven one
+  @Test public void testPregeneratedIcersLoaded() throws Exception {
+    Assume.assumeTrue("No build-time table on the classpath", TypeMap.fixedClasses().length > 0);
+    for( Class c : new Class[]{water.util.IcedInt.class, water.util.IcedLong.class, water.util.IcedDouble.class} ) {
+      assertNotNull(c.getName(), TypeMap.fixedLayout(c.getName()));
+      assertEquals(TypeMap.fixedLayout(c.getName()).intValue(), Weaver.fieldLayout(c));
+      assertNotNull(TypeMap.getIcer(TypeMap.onIce(c.getName()), c));
+      assertTrue(c.getName(), Weaver.PREGENERATED.contains(c.getName()));
+    }
+    // And they serialize as usual
+    water.util.IcedLong l = new water.util.IcedLong(12345L);
+    water.util.IcedLong l2 = new AutoBuffer().put(l).flipForReading().get();
+    assertEquals(l, l2);
+  }
+}
@@ -0,0 +1,90 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CGDChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Sensor-like series: a new reading every few rows, too many distinct
+  // values for the unique-doubles chunk
+  private static double[] series(int len) {
+    Random r = new Random(1234);
+    double[] vals = new double[len];
+    double d = 20;
+    for (int i = 0; i < len; ++i) {
+      if (i % 8 == 0) d += r.nextGaussian();
+      vals[i] = i % 101 == 100 ? Double.NaN : d;
+    }
+    vals[len - 1] = Double.POSITIVE_INFINITY;
+    return vals;
+  }
+
+  @Test
+  public void test_inflate_impl() {
+    double[] vals = series(4000);
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+
+    Chunk cc = nc.compress();
+    Assert.assertEquals(vals.length, cc._len);
+    Assert.assertTrue(cc instanceof CGDChunk);
+    Assert.assertTrue(cc._mem.length < vals.length * 2);
+    for (int i = 0; i < vals.length; ++i) {
+      if (Double.isNaN(vals[i])) Assert.assertTrue(cc.isNA(i));
+      else Assert.assertEquals(vals[i], cc.atd(i), 0);
+    }
+
+    // Bulk decode, from block-aligned and unaligned starts
+    double[] dense = cc.getDoubles(new double[vals.length], 0, vals.length);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], dense[i], 0);
+    double[] part = cc.getDoubles(new double[300], 77, 377, -1);
+    for (int i = 0; i < part.length; ++i)
+      Assert.assertEquals(Double.isNaN(vals[77 + i]) ? -1 : vals[77 + i], part[i], 0);
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CGDChunk);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], cc2.atd(i), 0);
+
+    nc = cc.inflate_impl(new NewChunk(null, 0));
+    nc.values(0, nc._len);
+    Assert.assertEquals(vals.length, nc._len);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], nc.atd(i), 0);
+    Chunk cc3 = nc.compress();
+    Assert.assertTrue(cc3 instanceof CGDChunk);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc3._mem));
+  }
+
+  @Test
+  public void test_random_doubles_stay_plain() {
+    Random r = new Random(42);
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 1000; ++i) nc.addNum(r.nextDouble());
+    Assert.assertTrue(nc.compress() instanceof C8DChunk);
+  }
+
+  @Test
+  public void test_writes_inflate() {
+    double[] vals = series(4000);
+    Vec vec = Vec.makeZero(vals.length);
+    try {
+      Vec.Writer w = vec.open();
+      for (int i = 0; i < vals.length; ++i) w.set(i, vals[i]);
+      w.close();
+      Chunk c = vec.chunkForChunkIdx(0);
+      Assert.assertTrue(c instanceof CGDChunk);
+      // No update-in-place; the write goes through a NewChunk
+      c.set(5, 3.25);
+      Assert.assertEquals(3.25, c.atd(5), 0);
+      Assert.assertEquals(vals[6], c.atd(6), 0);
+    } finally {
+      vec.remove();
+    }
+  }
+}
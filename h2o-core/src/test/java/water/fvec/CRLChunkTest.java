@@ -0,0 +1,117 @@
+package water.fvec;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.IcedUtils;
+import water.TestUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CRLChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Sorted-looking column: long runs of a few hundred distinct values, too
+  // many for a byte and with NAs and fractions mixed in
+  private static double[] runs(int len) {
+    Random r = new Random(1234);
+    double[] vals = new double[len];
+    double d = 0, v = 0;
+    for (int i = 0; i < len; ++i) {
+      if (r.nextInt(50) == 0) {
+        d += r.nextBoolean() ? 1.5 : 1;
+        v = r.nextInt(10) == 0 ? Double.NaN : d;
+      }
+      vals[i] = v;
+    }
+    return vals;
+  }
+
+  @Test
+  public void test_inflate_impl() {
+    double[] vals = runs(10000);
+    NewChunk nc = new NewChunk(null, 0);
+    for (double v : vals) nc.addNum(v);
+
+    Chunk cc = nc.compress();
+    Assert.assertEquals(vals.length, cc._len);
+    Assert.assertTrue(cc instanceof CRLChunk);
+    Assert.assertTrue(cc.hasFloat());
+    for (int i = 0; i < vals.length; ++i) {
+      if (Double.isNaN(vals[i])) Assert.assertTrue(cc.isNA(i));
+      else Assert.assertEquals(vals[i], cc.atd(i), 0);
+    }
+
+    // Runs are maximal and cover the chunk
+    int nruns = 0;
+    for (int i = 0; i < vals.length; i = cc.runEnd(i), ++nruns) {
+      int e = cc.runEnd(i);
+      for (int j = i; j < e; ++j) Assert.assertEquals(vals[i], vals[j], 0);
+      if (e < vals.length) Assert.assertNotEquals(Double.doubleToLongBits(vals[i]), Double.doubleToLongBits(vals[e]));
+    }
+    Assert.assertEquals(((CRLChunk) cc).numRuns(), nruns);
+    Assert.assertEquals(cc.runEnd(0), cc.runEnd(cc.runEnd(0) - 1));
+
+    double[] part = cc.getDoubles(new double[1234], 77, 1311, -1);
+    boolean[] nas = cc.getNAs(new boolean[1234], 77, 1311);
+    for (int i = 0; i < part.length; ++i) {
+      Assert.assertEquals(Double.isNaN(vals[77 + i]) ? -1 : vals[77 + i], part[i], 0);
+      Assert.assertEquals(Double.isNaN(vals[77 + i]), nas[i]);
+    }
+
+    Chunk cc2 = IcedUtils.deepCopy(cc);
+    Assert.assertTrue(cc2 instanceof CRLChunk);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], cc2.atd(i), 0);
+
+    nc = cc.inflate_impl(new NewChunk(null, 0));
+    nc.values(0, nc._len);
+    Assert.assertEquals(vals.length, nc._len);
+    for (int i = 0; i < vals.length; ++i) Assert.assertEquals(vals[i], nc.atd(i), 0);
+    Chunk cc3 = nc.compress();
+    Assert.assertTrue(cc3 instanceof CRLChunk);
+    Assert.assertTrue(Arrays.equals(cc._mem, cc3._mem));
+  }
+
+  @Test
+  public void test_integers() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 5000; ++i) nc.addNum(i / 500, 0);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CRLChunk);
+    Assert.assertFalse(cc.hasFloat());
+    Assert.assertEquals(10, ((CRLChunk) cc).numRuns());
+    int[] ints = cc.getIntegers(new int[1000], 400, 1400, -1);
+    for (int i = 0; i < ints.length; ++i) Assert.assertEquals((400 + i) / 500, ints[i]);
+    Assert.assertEquals(1000, cc.runEnd(500));
+    Assert.assertEquals(7, cc.at8(3999));
+  }
+
+  @Test
+  public void test_short_runs_stay_dense() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 5000; ++i) nc.addNum(i / 4 % 100, 0);
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof C1NChunk);
+    Assert.assertEquals(1, cc.runEnd(0) - 0);
+  }
+
+  @Test
+  public void test_writes_inflate() {
+    double[] vals = runs(10000);
+    Vec vec = Vec.makeZero(vals.length);
+    try {
+      Vec.Writer w = vec.open();
+      for (int i = 0; i < vals.length; ++i) w.set(i, vals[i]);
+      w.close();
+      Chunk c = vec.chunkForChunkIdx(0);
+      Assert.assertTrue(c instanceof CRLChunk);
+      // A write in the middle of a run goes through a NewChunk
+      c.set(5, 3.25);
+      Assert.assertEquals(3.25, c.atd(5), 0);
+      Assert.assertEquals(vals[6], c.atd(6), 0);
+    } finally {
+      vec.remove();
+    }
+  }
+}
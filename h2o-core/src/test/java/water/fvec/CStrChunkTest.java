@@ -105,6 +105,83 @@ public class CStrChunkTest extends TestUtil {
     Assert.assertTrue("NA",c.isNA(101));
     Assert.assertTrue("Sparse string has values",c.atStr(new BufferedString(),102).equals("bar"));
   }
-}
 
+  @Test
+  public void test_dictionary() {
+    String[] words = new String[]{"GET /index.html", "POST /login", "GET /favicon.ico"};
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 3000; i++) {
+      if (i % 100 == 7) nc.addNA();
+      else nc.addStr(words[i % 3]);
+    }
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CStrChunk);
+    // Each distinct string is stored once: 4 bytes of offset per row plus the words
+    Assert.assertTrue(cc._mem.length < 4 * 3000 + 100);
+    BufferedString tmpStr = new BufferedString();
+    for (int i = 0; i < 3000; i++) {
+      if (i % 100 == 7) Assert.assertTrue(cc.isNA(i) && nc.isNA(i));
+      else {
+        Assert.assertEquals(words[i % 3], cc.atStr(tmpStr, i).toString());
+        Assert.assertEquals(words[i % 3], nc.atStr(tmpStr, i).toString()); // Left as written
+      }
+    }
+
+    // Transform once per distinct string
+    final int[] calls = new int[1];
+    NewChunk lower = ((CStrChunk) cc).mapDistinct(new NewChunk(null, 0), new CStrChunk.StrFunction() {
+      @Override
+      public String apply(String str) {
+        calls[0]++;
+        return str.toLowerCase();
+      }
+    });
+    Assert.assertEquals(3, calls[0]);
+    Chunk lc = lower.compress();
+    Assert.assertEquals(3000, lc._len);
+    for (int i = 0; i < 3000; i++) {
+      if (i % 100 == 7) Assert.assertTrue(lc.isNA(i));
+      else Assert.assertEquals(words[i % 3].toLowerCase(), lc.atStr(tmpStr, i).toString());
+    }
 
+    // Split into several columns, once per distinct string
+    calls[0] = 0;
+    NewChunk[] parts = ((CStrChunk) cc).mapDistinct(new NewChunk[]{new NewChunk(null, 0), new NewChunk(null, 0)},
+        new CStrChunk.StrsFunction() {
+          @Override
+          public String[] apply(String str) {
+            calls[0]++;
+            return str.split(" ");
+          }
+        });
+    Assert.assertEquals(3, calls[0]);
+    Chunk verbs = parts[0].compress(), paths = parts[1].compress();
+    for (int i = 0; i < 3000; i++) {
+      if (i % 100 == 7) Assert.assertTrue(verbs.isNA(i) && paths.isNA(i));
+      else Assert.assertEquals(words[i % 3], verbs.atStr(tmpStr, i).toString() + " " + paths.atStr(tmpStr, i));
+    }
+
+    // Shared offsets survive inflate and re-compress
+    nc = cc.inflate_impl(new NewChunk(null, 0));
+    NewChunk copy = new NewChunk(null, 0);
+    for (int i = 0; i < 3000; i++) nc.add2Chunk(copy, i);
+    Chunk cc2 = copy.compress();
+    Assert.assertTrue(Arrays.equals(cc._mem, cc2._mem));
+  }
+
+  // Mostly distinct leading strings (ids) skip the dictionary, even if
+  // later rows repeat
+  @Test
+  public void test_dictionarySkipped() {
+    NewChunk nc = new NewChunk(null, 0);
+    for (int i = 0; i < 3000; i++)
+      nc.addStr(i < NewChunk.DICT_SAMPLE ? "id" + i : "x");
+    Chunk cc = nc.compress();
+    Assert.assertTrue(cc instanceof CStrChunk);
+    // Every "x" keeps its own 2 bytes
+    Assert.assertTrue(cc._mem.length >= 4 * 3000 + 2 * (3000 - NewChunk.DICT_SAMPLE));
+    BufferedString tmpStr = new BufferedString();
+    for (int i = 0; i < 3000; i++)
+      Assert.assertEquals(i < NewChunk.DICT_SAMPLE ? "id" + i : "x", cc.atStr(tmpStr, i).toString());
+  }
+}
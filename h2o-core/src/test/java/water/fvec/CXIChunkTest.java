@@ -55,6 +55,14 @@ public class CXIChunkTest extends TestUtil {
         if (cc.isNA(i)) Assert.assertTrue(Double.isNaN(densevals[i]));
         else Assert.assertTrue(cc.at8(i)==(int)densevals[i]);
       }
+      // Bulk ints and NAs over a range not starting at 0
+      int from = 1, to = cc.len();
+      int[] ints = cc.getIntegers(new int[to - from], from, to, -1);
+      boolean[] nas = cc.getNAs(new boolean[to - from], from, to);
+      for (int i = from; i < to; ++i) {
+        Assert.assertEquals(cc.isNA(i), nas[i - from]);
+        Assert.assertEquals(cc.isNA(i) ? -1 : cc.at8(i), ints[i - from]);
+      }
 
       nc = new NewChunk(null, 0);
       cc.inflate_impl(nc);
@@ -0,0 +1,69 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.TestUtil;
+import water.parser.BufferedString;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ColumnarFormatTest extends TestUtil {
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testRoundTrip() throws IOException {
+    Frame fr = new TestFrameBuilder()
+            .withName("columnar")
+            .withColNames("Num", "Int", "Cat", "Str")
+            .withVecTypes(Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR)
+            .withDataForCol(0, ard(Double.NaN, 1.5, 2, 3, 4, 5.6, 7))
+            .withDataForCol(1, ard(1, 2, Double.NaN, 4, 5, 6, 7))
+            .withDataForCol(2, ar("a", "b", null, "a", "c", "b", "a"))
+            .withDataForCol(3, ar("A", "BB", "", null, "F", "Ié", "J"))
+            .withChunkLayout(2, 2, 2, 1)
+            .build();
+    try {
+      File f = new File(tmpFolder.getRoot(), "frame.h2ocol");
+      Frame.exportColumnar(fr, f.getPath(), "columnar", false).get();
+      assertEquals(0, f.length() % 8);
+
+      try (ColumnarFormat.Reader r = new ColumnarFormat.Reader(f)) {
+        assertEquals(4, r._ncols);
+        assertEquals(7, r._nrows);
+        assertArrayEquals(fr.names(), r._names);
+        assertArrayEquals(new byte[]{ColumnarFormat.FLOAT64, ColumnarFormat.INT64, ColumnarFormat.DICT32, ColumnarFormat.UTF8}, r._types);
+        assertArrayEquals(fr.vec(2).domain(), r._domains[2]);
+        assertNull(r._domains[0]);
+        assertArrayEquals(new int[]{2, 2, 2, 1}, r._batchRows);
+
+        long row = 0;
+        for (int b = 0; b < r._batchRows.length; b++) {
+          ByteBuffer[] valid = new ByteBuffer[4];
+          for (int c = 0; c < 4; c++) valid[c] = r.buffer(b, c, 0);
+          ByteBuffer nums = r.buffer(b, 0, 1), ints = r.buffer(b, 1, 1), cats = r.buffer(b, 2, 1);
+          ByteBuffer offs = r.buffer(b, 3, 1), bytes = r.buffer(b, 3, 2);
+          for (int i = 0; i < r._batchRows[b]; i++, row++) {
+            for (int c = 0; c < 4; c++)
+              assertEquals(!fr.vec(c).isNA(row), ColumnarFormat.Reader.isValid(valid[c], i));
+            if (!fr.vec(0).isNA(row)) assertEquals(fr.vec(0).at(row), nums.getDouble(i << 3), 0);
+            if (!fr.vec(1).isNA(row)) assertEquals(fr.vec(1).at8(row), ints.getLong(i << 3));
+            if (!fr.vec(2).isNA(row)) assertEquals(fr.vec(2).at8(row), cats.getInt(i << 2));
+            if (!fr.vec(3).isNA(row))
+              assertEquals(fr.vec(3).atStr(new BufferedString(), row).toString(), ColumnarFormat.Reader.string(offs, bytes, i));
+          }
+        }
+        assertEquals(7, row);
+      }
+    } finally {
+      fr.remove();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import water.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class FrameCheckpointTest extends TestUtil {
+  @Rule
+  public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  // 10000 rows in 9 Chunks of 1024 and a short one, homed all over the cloud
+  private static Frame makeFrame( String name ) {
+    Vec v = Vec.makeCon(0, 10000, 10, false);
+    Frame fr = new MRTask() {
+      @Override public void map( Chunk[] cs, NewChunk[] ncs ) {
+        for( int i = 0; i < cs[0]._len; i++ ) {
+          long r = cs[0].start() + i;
+          ncs[0].addNum(r % 7 == 0 ? Double.NaN : r * 0.25);
+          ncs[1].addNum(r % 100, 0);
+          if( r % 11 == 0 ) ncs[2].addNA(); else ncs[2].addCategorical((int) (r % 3));
+          ncs[3].addStr(r % 13 == 0 ? null : "s" + (r % 17));
+        }
+      }
+    }.doAll(new byte[]{Vec.T_NUM, Vec.T_NUM, Vec.T_CAT, Vec.T_STR}, v)
+     .outputFrame(Key.<Frame>make(name), new String[]{"Num", "Int", "Cat", "Str"}, new String[][]{null, null, {"a", "b", "c"}, null});
+    v.remove();
+    return fr;
+  }
+
+  // The node recorded as the writer of each chunk file
+  private static String[] writers( String dir ) throws IOException {
+    try (FileInputStream is = new FileInputStream(new File(dir, FrameCheckpoint.META))) {
+      AutoBuffer ab = new AutoBuffer(is);
+      ab.getStr();
+      ab.getAStr();
+      ab.getA8();
+      return ab.getAStr();
+    }
+  }
+
+  private static void assertLoadFails( String dir, Key<Frame> key ) {
+    try {
+      FrameCheckpoint.load(dir, key);
+      fail("Loading a damaged checkpoint must fail");
+    } catch( RuntimeException expected ) {
+      assertNull(DKV.get(key));
+    }
+  }
+
+  @Test public void testSaveLoadAcrossNodes() throws IOException {
+    Frame fr = makeFrame("checkpoint");
+    Frame loaded = null;
+    try {
+      Vec vec = fr.anyVec();
+      int nchunks = vec.nChunks();
+      assertEquals(10, nchunks);
+      HashSet<H2ONode> homes = new HashSet<>();
+      for( int i = 0; i < nchunks; i++ ) homes.add(vec.chunkKey(i).home_node());
+      if( H2O.CLOUD.size() > 1 ) assertTrue("Chunks all homed on one node", homes.size() > 1);
+      fr.vec(0).mean();   // Rollups for one column only
+
+      String dir = new File(tmpFolder.getRoot(), "ckpt").getPath();
+      FrameCheckpoint.save(fr, dir, false);
+      assertEquals(nchunks + 1, new File(dir).list().length);
+      String[] writers = writers(dir);
+      for( int i = 0; i < nchunks; i++ )   // Each file written, and so read back, by its chunk's home
+        assertEquals(vec.chunkKey(i).home_node().getIpPortString(), writers[i]);
+
+      loaded = FrameCheckpoint.load(dir, Key.<Frame>make("checkpoint_copy"));
+      assertEquals("checkpoint_copy", loaded._key.toString());
+      assertNotNull(DKV.get(fr._key));   // The source Frame is untouched
+      assertArrayEquals(fr.names(), loaded.names());
+      assertArrayEquals(vec.espc(), loaded.anyVec().espc());
+      assertArrayEquals(fr.vec(2).domain(), loaded.vec(2).domain());
+      assertTrue(loaded.vec(3).isString());
+      assertNotNull(RollupStats.getOrNull(loaded.vec(0), loaded.vec(0).rollupStatsKey()));
+      assertNull(RollupStats.getOrNull(loaded.vec(1), loaded.vec(1).rollupStatsKey()));
+      for( int c = 0; c < fr.numCols(); c++ )
+        for( int i = 0; i < nchunks; i++ ) {
+          Chunk a = fr.vec(c).chunkForChunkIdx(i), b = loaded.vec(c).chunkForChunkIdx(i);
+          assertEquals(a.getClass(), b.getClass());
+          assertArrayEquals(a.asBytes(), b.asBytes());
+        }
+      assertTrue(isBitIdentical(fr, loaded));
+      assertEquals(fr.vec(1).mean(), loaded.vec(1).mean(), 0);
+    } finally {
+      fr.remove();
+      if( loaded != null ) loaded.remove();
+    }
+  }
+
+  // Records the node each Key was mapped on, by Key index
+  private static class MapOn extends MRTask<MapOn> {
+    final Key[] _keys;
+    String[] _on;
+    MapOn( Key[] keys ) { _keys = keys; }
+    @Override public void map( Key k, int kidx ) {
+      assertEquals(_keys[kidx], k);
+      if( _on == null ) _on = new String[_keys.length];
+      _on[kidx] = H2O.SELF.getIpPortString();
+    }
+    @Override public void reduce( MapOn mo ) {
+      if( _on == null ) _on = mo._on;
+      else if( mo._on != null )
+        for( int i = 0; i < _on.length; i++ ) {
+          assertFalse("Key " + i + " mapped twice", _on[i] != null && mo._on[i] != null);
+          if( _on[i] == null ) _on[i] = mo._on[i];
+        }
+    }
+  }
+
+  // Load reads each chunk file at a Key homed on its writer; map(Key,int)
+  // must run every such Key once, on its home, with its own index.
+  @Test public void testMapKeysAtWriter() {
+    H2ONode[] nodes = H2O.CLOUD.members();
+    Key[] keys = new Key[3 * nodes.length];
+    for( int i = 0; i < keys.length; i++ ) keys[i] = Key.make(nodes[i % nodes.length]);
+    String[] on = new MapOn(keys).doAll(keys)._on;
+    for( int i = 0; i < keys.length; i++ )
+      assertEquals(nodes[i % nodes.length].getIpPortString(), on[i]);
+  }
+
+  @Test public void testMissingChunkFile() throws IOException {
+    Frame fr = makeFrame("checkpoint_missing");
+    try {
+      String dir = new File(tmpFolder.getRoot(), "missing").getPath();
+      FrameCheckpoint.save(fr, dir, false);
+      assertTrue(new File(FrameCheckpoint.chunkFile(dir, 5)).delete());
+      assertLoadFails(dir, Key.<Frame>make("checkpoint_missing_copy"));
+    } finally {
+      fr.remove();
+    }
+  }
+
+  @Test public void testCorruptChunkFile() throws IOException {
+    Frame fr = makeFrame("checkpoint_corrupt");
+    try {
+      String dir = new File(tmpFolder.getRoot(), "corrupt").getPath();
+      FrameCheckpoint.save(fr, dir, false);
+      // Truncated: the Chunk bytes run out
+      File f = new File(FrameCheckpoint.chunkFile(dir, 3));
+      byte[] bytes = Files.readAllBytes(f.toPath());
+      try (FileOutputStream os = new FileOutputStream(f)) { os.write(bytes, 0, bytes.length / 2); }
+      assertLoadFails(dir, Key.<Frame>make("checkpoint_corrupt_copy"));
+      // Well-formed but the short last chunk: rows do not match the saved layout
+      Files.copy(new File(FrameCheckpoint.chunkFile(dir, 9)).toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      assertLoadFails(dir, Key.<Frame>make("checkpoint_corrupt_copy"));
+    } finally {
+      fr.remove();
+    }
+  }
+}
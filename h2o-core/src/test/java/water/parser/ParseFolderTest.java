@@ -1,8 +1,12 @@
 package water.parser;
 
-import java.io.File;
+import java.io.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 import org.junit.*;
 
+import water.H2ONode;
 import water.Key;
 import water.TestUtil;
 import water.fvec.Frame;
@@ -35,4 +39,46 @@ public class ParseFolderTest extends TestUtil {
       if( nfs1 != null ) nfs1.remove();
     }
   }
+
+  // Files homed on different nodes: each node parses its files in a different
+  // order than they are listed, so results must go by file index, not by the
+  // position amongst the node's own files.  Plain files take the distributed
+  // parse, gzipped ones are stream-parsed.
+  @Test public void testFilesOnManyNodes() throws IOException {
+    File dir = File.createTempFile("parse_many_nodes", "");
+    Assert.assertTrue(dir.delete() && dir.mkdir());
+    int nfiles = 12, rows = 100;
+    Key[] keys = new Key[nfiles];
+    Set<H2ONode> homes = new HashSet<>();
+    Frame fr = null, gold = null;
+    try {
+      StringBuilder all = new StringBuilder();
+      for (int f = 0; f < nfiles; f++) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < rows; r++)
+          sb.append(f).append(',').append(r).append(',').append(f * rows + r * 0.25).append('\n');
+        all.append(sb);
+        File file = new File(dir, "part" + f + (f % 2 == 0 ? ".csv" : ".csv.gz"));
+        OutputStream os = f % 2 == 0 ? new FileOutputStream(file) : new GZIPOutputStream(new FileOutputStream(file));
+        os.write(sb.toString().getBytes());
+        os.close();
+        keys[f] = NFSFileVec.make(file)._key;
+        homes.add(keys[f].home_node());
+      }
+      File goldFile = new File(dir, "all.csv");
+      OutputStream os = new FileOutputStream(goldFile);
+      os.write(all.toString().getBytes());
+      os.close();
+      Assume.assumeTrue("files should be homed on several nodes", homes.size() > 1);
+
+      fr = ParseDataset.parse(Key.make(), keys);
+      gold = ParseDataset.parse(Key.make(), NFSFileVec.make(goldFile)._key);
+      Assert.assertTrue("parsed values do not match!", TestUtil.isBitIdentical(gold, fr));
+    } finally {
+      if( fr != null ) fr.delete();
+      if( gold != null ) gold.delete();
+      for (File file : dir.listFiles()) file.delete();
+      dir.delete();
+    }
+  }
 }
@@ -0,0 +1,78 @@
+package water.persist;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.TypeMap;
+import water.Value;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PersistSwapTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  private static Value makeValue(int sz, int seed) {
+    byte[] b = new byte[sz];
+    for( int i=0; i<sz; i++ ) b[i] = (byte)(i*31+seed);
+    return new Value(Key.make(), sz, b, TypeMap.PRIM_B, Value.ICE);
+  }
+
+  @Test public void testSlabClasses() {
+    assertEquals(PersistSwap.MIN_SLAB_LOG, PersistSwap.slabLog(1));
+    assertEquals(12, PersistSwap.slabLog(4096));
+    assertEquals(13, PersistSwap.slabLog(4097));
+    assertEquals(PersistSwap.MAX_SLAB_LOG, PersistSwap.slabLog(PersistSwap.MAX_SLAB));
+  }
+
+  @Test public void testStoreLoadDelete() throws Exception {
+    File root = Files.createTempDirectory("swap").toFile();
+    PersistSwap ps = new PersistSwap(root);
+    try {
+      Value[] vs = new Value[]{makeValue(100,1), makeValue(5000,2), makeValue(1<<20,3), makeValue(PersistSwap.MAX_SLAB+1,4)};
+      for( Value v : vs ) ps.store(v);
+      for( Value v : vs ) assertArrayEquals(v.memOrLoad(), ps.load(v));
+      // A freed slot is reused by the next Value of the same slab class
+      ps.delete(vs[1]);
+      Value v2 = makeValue(6000,5);
+      ps.store(v2);
+      assertArrayEquals(v2.memOrLoad(), ps.load(v2));
+      assertArrayEquals(vs[2].memOrLoad(), ps.load(vs[2]));
+      assertTrue(Arrays.equals(vs[0].memOrLoad(), ps.load(vs[0])));
+    } finally {
+      ps.cleanUp();
+      root.delete();
+    }
+  }
+
+  @Test public void testNoReuseUnderLoad() throws Exception {
+    File root = Files.createTempDirectory("swap").toFile();
+    PersistSwap ps = new PersistSwap(root);
+    try {
+      Value v1 = makeValue(5000,1);
+      ps.store(v1);
+      long slot = ps._slots.get(v1._key);
+      // A load racing the delete may still be reading the old slot, so the
+      // next store must not overwrite it
+      long ticket = ps.beginLoad();
+      ps.delete(v1);
+      Value v2 = makeValue(5000,2);
+      ps.store(v2);
+      assertFalse(slot == ps._slots.get(v2._key));
+      // Once the load is done the slot is reused
+      ps.endLoad(ticket);
+      Value v3 = makeValue(5000,3);
+      ps.store(v3);
+      assertEquals(slot, (long)ps._slots.get(v3._key));
+      assertArrayEquals(v2.memOrLoad(), ps.load(v2));
+      assertArrayEquals(v3.memOrLoad(), ps.load(v3));
+    } finally {
+      ps.cleanUp();
+      root.delete();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package water.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BlockCodecTest {
+  private static final BlockCodec[] CODECS = new BlockCodec[]{BlockCodec.LZ, BlockCodec.DEFLATE};
+
+  private static void roundTrip( BlockCodec codec, byte[] src, int width ) {
+    byte[] z = codec.encode(src,width);
+    assertNotNull(codec+" did not compress", z);
+    assertTrue(z.length < src.length);
+    assertArrayEquals(src, BlockCodec.decode(z,new byte[src.length]));
+  }
+
+  @Test public void testRepetitive() {
+    byte[] b = new byte[100000];
+    for( int i=0; i<b.length; i++ ) b[i] = (byte)(i%7);
+    for( BlockCodec c : CODECS ) roundTrip(c,b,1);
+    // Long runs exercise the extended literal and match lengths
+    byte[] zeros = new byte[1<<20];
+    for( BlockCodec c : CODECS ) roundTrip(c,zeros,1);
+  }
+
+  @Test public void testShuffledDoubles() {
+    // Slowly changing doubles: few distinct high bytes once shuffled
+    byte[] b = new byte[8*10001+3];
+    for( int i=0; i<10001; i++ ) UnsafeUtils.set8d(b,8*i,1000.0+i*0.25);
+    for( BlockCodec c : CODECS ) roundTrip(c,b,8);
+    for( BlockCodec c : CODECS ) roundTrip(c,b,4);
+  }
+
+  @Test public void testIncompressible() {
+    byte[] b = new byte[65536];
+    new Random(0xDECAF).nextBytes(b);
+    for( BlockCodec c : CODECS ) assertNull(c.encode(b,1));
+    assertNull(BlockCodec.LZ.encode(new byte[10],1)); // Too small to bother
+  }
+
+  @Test public void testMixed() {
+    // Random literals broken up by repeats at varied distances
+    Random r = new Random(42);
+    byte[] b = new byte[200000];
+    int i = 0;
+    while( i < b.length ) {
+      int n = Math.min(b.length-i, 1+r.nextInt(40));
+      if( i > 70000 && r.nextBoolean() ) System.arraycopy(b, i-1-r.nextInt(70000), b, i, n);
+      else for( int j=0; j<n; j++ ) b[i+j] = (byte)r.nextInt(4);
+      i += n;
+    }
+    for( BlockCodec c : CODECS ) roundTrip(c,b,1);
+  }
+
+  @Test public void testLZ4Block() {
+    // 32 repeated bytes, as the reference LZ4 encodes them: a literal, a
+    // match of 26 at offset 1, and the last 5 bytes as literals
+    byte[] b = new byte[32];
+    java.util.Arrays.fill(b,(byte)'a');
+    byte[] block = new byte[]{0x1F,'a',1,0,7,0x50,'a','a','a','a','a'};
+    byte[] z = BlockCodec.LZ.encode(b,1);
+    assertArrayEquals(block, java.util.Arrays.copyOfRange(z,2,z.length));
+    assertArrayEquals(b, BlockCodec.decode(z,new byte[32]));
+  }
+
+  @Test public void testForName() {
+    assertNull(BlockCodec.forName(null));
+    assertNull(BlockCodec.forName("none"));
+    assertSame(BlockCodec.LZ, BlockCodec.forName("LZ"));
+    assertSame(BlockCodec.DEFLATE, BlockCodec.forName("deflate"));
+    try { BlockCodec.forName("zstd"); fail(); } catch( IllegalArgumentException expected ) { }
+  }
+}